@@ -116,6 +116,19 @@ android {
         jvmToolchain(21)
     }
 
+    testOptions {
+        unitTests.all {
+            // the timing benchmarks run alone with -Pbenchmarks
+            useJUnit {
+                if (project.hasProperty("benchmarks")) {
+                    includeCategories("javax.microedition.util.Benchmark")
+                } else {
+                    excludeCategories("javax.microedition.util.Benchmark")
+                }
+            }
+        }
+    }
+
     applicationVariants.configureEach {
         if (buildType.name == "debug" && flavorName == "emulator") {
             resValue("string", "app_name", "JL-Debug")
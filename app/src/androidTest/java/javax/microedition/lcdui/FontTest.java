@@ -0,0 +1,90 @@
+/*
+ * Copyright 2026 Yury Kharchenko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package javax.microedition.lcdui;
+
+import android.util.Log;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(AndroidJUnit4.class)
+public class FontTest {
+	private static final String TAG = FontTest.class.getSimpleName();
+
+	private static final String[] DIALOG = {
+			"Welcome, traveller! The road to the castle is long and dangerous.",
+			"Take this sword and 100 gold coins, you will need them.",
+			"Привет, путник! Дорога к замку длинна и опасна.",
+			"Возьми этот меч и 100 золотых монет, они тебе пригодятся.",
+			"HP 120/120  MP 45/60  LV 7  EXP 1520",
+	};
+	private static final int DIALOG_WIDTH = 160;
+
+	@Test
+	public void cachedWidths() {
+		Font font = Font.getFont(Font.FACE_PROPORTIONAL, Font.STYLE_PLAIN, Font.SIZE_MEDIUM);
+		for (String line : DIALOG) {
+			for (int i = 0; i < line.length(); i++) {
+				char c = line.charAt(i);
+				int expected = (int) Math.ceil(font.paint.measureText(String.valueOf(c)));
+				assertEquals(expected, font.charWidth(c));
+				assertEquals(expected, font.charWidth(c));
+			}
+			int expected = (int) Math.ceil(font.paint.measureText(line));
+			assertEquals(expected, font.stringWidth(line));
+			assertEquals(expected, font.stringWidth(line));
+		}
+		char cjk = '世';
+		assertEquals((int) Math.ceil(font.paint.measureText(String.valueOf(cjk))), font.charWidth(cjk));
+	}
+
+	/** Replays word wrapping of a dialog box the way the games do it: char by char */
+	@Test
+	public void dialogLayoutBenchmark() {
+		Font font = Font.getFont(Font.FACE_SYSTEM, Font.STYLE_PLAIN, Font.SIZE_SMALL);
+		int lines = layout(font); // warm up
+		final int frames = 200;
+		long start = System.nanoTime();
+		for (int i = 0; i < frames; i++) {
+			lines += layout(font);
+		}
+		long time = System.nanoTime() - start;
+		Log.i(TAG, "dialogLayoutBenchmark: " + time / frames / 1000 + " us/frame, lines=" + lines);
+	}
+
+	private static int layout(Font font) {
+		int lines = 0;
+		for (String text : DIALOG) {
+			int width = 0;
+			for (int i = 0; i < text.length(); i++) {
+				int w = font.charWidth(text.charAt(i));
+				if (width + w > DIALOG_WIDTH) {
+					lines++;
+					width = 0;
+				}
+				width += w;
+			}
+			lines++;
+			font.stringWidth(text);
+		}
+		return lines;
+	}
+}
@@ -2,13 +2,14 @@
 // Created by woesss on 11.07.2020.
 //
 
+#include <cstring>
 #include "utils.h"
 
 #ifdef __cplusplus
 extern "C" {
 #endif
 
-JNIEXPORT void JNICALL Java_ru_woesss_j2me_micro3d_Utils_fillBuffer
+JNIEXPORT void JNICALL Java_ru_woesss_j2me_micro3d_Utils__1fillBuffer
         (JNIEnv *env, jclass /*clazz*/,
          jobject buffer, jobject vertices, jintArray indices) {
     auto dst = static_cast<Vec3f *>(env->GetDirectBufferAddress(buffer));
@@ -62,14 +63,104 @@ JNIEXPORT void JNICALL Java_ru_woesss_j2me_micro3d_Utils_glReadPixels
     }
 }
 
+JNIEXPORT void JNICALL Java_ru_woesss_j2me_micro3d_Utils_texSubImage2D
+        (JNIEnv *env, jclass /*clazz*/,
+         jint y, jint height, jobject bitmap_buffer) {
+    int ret;
+    AndroidBitmapInfo info;
+    ret = AndroidBitmap_getInfo(env, bitmap_buffer, &info);
+    if (ret < 0) {
+        LOGE("AndroidBitmap_getInfo() failed! error=%d", ret)
+        MICRO3D_RAISE_EXCEPTION(env, "java/lang/IllegalStateException",
+                                "AndroidBitmap_getInfo() failed!")
+        return;
+    }
+    if (info.format != ANDROID_BITMAP_FORMAT_RGBA_8888) {
+        MICRO3D_RAISE_EXCEPTION(env, "java/lang/IllegalArgumentException",
+                                "Bitmap format must be RGBA_8888")
+        return;
+    }
+    void *pixels;
+    ret = AndroidBitmap_lockPixels(env, bitmap_buffer, &pixels);
+    if (ret < 0) {
+        LOGE("AndroidBitmap_lockPixels() failed! error=%d", ret)
+        MICRO3D_RAISE_EXCEPTION(env, "java/lang/IllegalStateException",
+                                "AndroidBitmap_lockPixels() failed!")
+        return;
+    }
+    const uint32_t bw = info.width;
+    const uint32_t bs = info.stride;
+    pixels = ((uint8_t *) pixels) + bs * y;
+    if (bs == bw * 4 /*RGBA*/) {
+        glTexSubImage2D(GL_TEXTURE_2D, 0, 0, y, bw, height, GL_RGBA, GL_UNSIGNED_BYTE, pixels);
+    } else {
+        for (int i = 0; i < height; ++i) {
+            glTexSubImage2D(GL_TEXTURE_2D, 0, 0, y + i, bw, 1, GL_RGBA, GL_UNSIGNED_BYTE, pixels);
+            pixels = ((uint8_t *) pixels) + bs;
+        }
+    }
+    ret = AndroidBitmap_unlockPixels(env, bitmap_buffer);
+    if (ret < 0) {
+        LOGE("AndroidBitmap_unlockPixels() failed! error=%d", ret)
+        MICRO3D_RAISE_EXCEPTION(env, "java/lang/IllegalStateException",
+                                "AndroidBitmap_unlockPixels() failed!")
+    }
+}
+
+JNIEXPORT void JNICALL Java_ru_woesss_j2me_micro3d_Utils_copyPixels
+        (JNIEnv *env, jclass /*clazz*/,
+         jobject pixels, jint x, jint y, jint width, jint height, jobject bitmap_buffer) {
+    auto src = static_cast<uint8_t *>(env->GetDirectBufferAddress(pixels));
+    if (src == nullptr) {
+        MICRO3D_RAISE_EXCEPTION(env, "java/lang/IllegalArgumentException",
+                                "Pixels must be a direct buffer")
+        return;
+    }
+    int ret;
+    AndroidBitmapInfo info;
+    ret = AndroidBitmap_getInfo(env, bitmap_buffer, &info);
+    if (ret < 0) {
+        LOGE("AndroidBitmap_getInfo() failed! error=%d", ret)
+        MICRO3D_RAISE_EXCEPTION(env, "java/lang/IllegalStateException",
+                                "AndroidBitmap_getInfo() failed!")
+        return;
+    }
+    if (info.format != ANDROID_BITMAP_FORMAT_RGBA_8888) {
+        MICRO3D_RAISE_EXCEPTION(env, "java/lang/IllegalArgumentException",
+                                "Bitmap format must be RGBA_8888")
+        return;
+    }
+    void *dst;
+    ret = AndroidBitmap_lockPixels(env, bitmap_buffer, &dst);
+    if (ret < 0) {
+        LOGE("AndroidBitmap_lockPixels() failed! error=%d", ret)
+        MICRO3D_RAISE_EXCEPTION(env, "java/lang/IllegalStateException",
+                                "AndroidBitmap_lockPixels() failed!")
+        return;
+    }
+    const size_t rowSize = width * 4 /*RGBA*/;
+    auto *row = static_cast<uint8_t *>(dst) + x * 4 + info.stride * y;
+    for (int i = 0; i < height; ++i) {
+        memcpy(row, src, rowSize);
+        row += info.stride;
+        src += rowSize;
+    }
+    ret = AndroidBitmap_unlockPixels(env, bitmap_buffer);
+    if (ret < 0) {
+        LOGE("AndroidBitmap_unlockPixels() failed! error=%d", ret)
+        MICRO3D_RAISE_EXCEPTION(env, "java/lang/IllegalStateException",
+                                "AndroidBitmap_unlockPixels() failed!")
+    }
+}
+
 JNIEXPORT void JNICALL
-Java_ru_woesss_j2me_micro3d_Utils_transform(JNIEnv *env, jclass /*clazz*/,
-                                                  jobject src_vertices,
-                                                  jobject dst_vertices,
-                                                  jobject src_normals,
-                                                  jobject dst_normals,
-                                                  jobject aBones,
-                                                  jfloatArray action_matrices) {
+Java_ru_woesss_j2me_micro3d_Utils__1transform(JNIEnv *env, jclass /*clazz*/,
+                                                    jobject src_vertices,
+                                                    jobject dst_vertices,
+                                                    jobject src_normals,
+                                                    jobject dst_normals,
+                                                    jobject aBones,
+                                                    jfloatArray action_matrices) {
     auto srcVert = static_cast<Vec3f *>(env->GetDirectBufferAddress(src_vertices));
     auto dstVert = static_cast<Vec3f *>(env->GetDirectBufferAddress(dst_vertices));
     Vec3f *srcNorm = nullptr;
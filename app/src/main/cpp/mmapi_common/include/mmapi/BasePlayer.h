@@ -33,7 +33,7 @@ namespace mmapi {
         virtual void deallocate();
         virtual void close();
 
-        oboe::Result start();
+        virtual oboe::Result start();
         bool realize();
         int64_t getMediaTime();
         int64_t setMediaTime(int64_t now);
@@ -5,6 +5,7 @@ include $(CLEAR_VARS)
 LOCAL_MODULE := mmapi_tsf
 
 LOCAL_SRC_FILES = \
+	tsf_mixer.cpp \
 	tsf_player.cpp \
 	tsf_player_jni.cpp \
 
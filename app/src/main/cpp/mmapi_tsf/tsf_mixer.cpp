@@ -0,0 +1,197 @@
+/*
+ * Copyright 2026 Yury Kharchenko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+#include <algorithm>
+#include <iterator>
+#include <thread>
+#include "tsf_mixer.h"
+#include "tsf_player.h"
+#include "util/log.h"
+
+#define LOG_TAG "MMAPI"
+#define NUM_CHANNELS 2
+
+namespace mmapi {
+    namespace tiny {
+        Mixer &Mixer::getInstance() {
+            static Mixer instance;
+            return instance;
+        }
+
+        Mixer::Mixer() : playerList(new PlayerList{{}, 0}) {}
+
+        oboe::Result Mixer::open() {
+            std::lock_guard<std::mutex> lock(mutex);
+            if (oboeStream != nullptr) {
+                return oboe::Result::OK;
+            }
+            return openStream();
+        }
+
+        oboe::Result Mixer::openStream() {
+            oboe::AudioStreamBuilder builder;
+            builder.setDirection(oboe::Direction::Output);
+            builder.setPerformanceMode(oboe::PerformanceMode::LowLatency);
+            builder.setSharingMode(oboe::SharingMode::Shared);
+            builder.setFormat(oboe::AudioFormat::Float);
+            builder.setChannelCount(NUM_CHANNELS);
+            builder.setCallback(this);
+            builder.setFormatConversionAllowed(true);
+
+            oboe::Result result = builder.openStream(oboeStream);
+            if (result != oboe::Result::OK) {
+                oboeStream.reset();
+                ALOGE("%s: can't open audio stream. %s", __func__, oboe::convertToText(result));
+            }
+            started = false;
+            return result;
+        }
+
+        oboe::Result Mixer::add(Player *player) {
+            std::lock_guard<std::mutex> lock(mutex);
+            if (oboeStream == nullptr) {
+                oboe::Result result = openStream();
+                if (result != oboe::Result::OK) {
+                    return result;
+                }
+            }
+            // a new version is published even if the player is listed,
+            // so a pending pause of the idle list is cancelled
+            std::vector<Player *> players(playerList.load()->players);
+            if (std::find(players.begin(), players.end(), player) == players.end()) {
+                players.push_back(player);
+            }
+            publish(std::move(players));
+            if (!started) {
+                oboe::Result result = oboeStream->start();
+                if (result != oboe::Result::OK) {
+                    ALOGE("%s: can't start audio stream. %s", __func__, oboe::convertToText(result));
+                    publishWithout(player);
+                    return result;
+                }
+                started = true;
+            }
+            return oboe::Result::OK;
+        }
+
+        void Mixer::remove(Player *player) {
+            std::lock_guard<std::mutex> lock(mutex);
+            publishWithout(player);
+            if (playerList.load()->players.empty() && started) {
+                oboeStream->pause();
+                started = false;
+            }
+        }
+
+        void Mixer::pauseIfIdle() {
+            std::lock_guard<std::mutex> lock(mutex);
+            pausePending = false;
+            // the list is left as is, the players are removed when they are paused or closed
+            if (playerList.load()->version == idleVersion && started) {
+                oboeStream->pause();
+                started = false;
+            }
+        }
+
+        /**
+         * Replaces the list rendered by the audio thread, must be called with the mutex held.
+         * Returns when the callbacks can no longer see the old list and its players.
+         */
+        void Mixer::publish(std::vector<Player *> players) {
+            auto *list = new PlayerList{std::move(players), nextVersion++};
+            PlayerList *old = playerList.exchange(list);
+            waitForCallback();
+            delete old;
+        }
+
+        void Mixer::publishWithout(Player *player) {
+            const std::vector<Player *> &current = playerList.load()->players;
+            if (std::find(current.begin(), current.end(), player) == current.end()) {
+                return;
+            }
+            std::vector<Player *> players;
+            players.reserve(current.size() - 1);
+            std::copy_if(current.begin(), current.end(), std::back_inserter(players),
+                         [player](Player *p) { return p != player; });
+            publish(std::move(players));
+        }
+
+        /**
+         * Waits for the end of a running callback, which may have loaded the previous list.
+         * A callback started after the list was replaced sees the new one.
+         */
+        void Mixer::waitForCallback() {
+            uint32_t count = callbackCount.load();
+            while ((count & 1) != 0 && callbackCount.load() == count) {
+                std::this_thread::yield();
+            }
+        }
+
+        oboe::DataCallbackResult
+        Mixer::onAudioReady(oboe::AudioStream *audioStream, void *audioData, int32_t numFrames) {
+            auto *stream = static_cast<float *>(audioData);
+            memset(stream, 0, sizeof(float) * NUM_CHANNELS * numFrames);
+            callbackCount.fetch_add(1);
+            PlayerList *list = playerList.load();
+            int32_t sampleRate = audioStream->getSampleRate();
+            bool playing = false;
+            for (Player *player: list->players) {
+                if (player->render(stream, numFrames, sampleRate)) {
+                    playing = true;
+                }
+            }
+            // the list may be freed as soon as the callback is marked finished
+            uint64_t version = list->version;
+            callbackCount.fetch_add(1);
+            if (!playing) {
+                idleVersion = version;
+                if (!pausePending.exchange(true)) {
+                    // the stream must not be paused from its own callback
+                    std::thread thread(&Mixer::pauseIfIdle, this);
+                    thread.detach();
+                }
+            }
+            return oboe::DataCallbackResult::Continue;
+        }
+
+        void Mixer::onErrorAfterClose(oboe::AudioStream *stream, oboe::Result result) {
+            std::lock_guard<std::mutex> lock(mutex);
+            if (result == oboe::Result::ErrorDisconnected) {
+                oboeStream.reset();
+                result = openStream();
+                if (result == oboe::Result::OK) {
+                    if (playerList.load()->players.empty()) {
+                        return;
+                    }
+                    result = oboeStream->start();
+                    if (result == oboe::Result::OK) {
+                        started = true;
+                        return;
+                    }
+                }
+                ALOGE("%s: reconnect error=%s", __func__, oboe::convertToText(result));
+            } else {
+                ALOGE("%s: %s", __func__, oboe::convertToText(result));
+                oboeStream.reset();
+                started = false;
+            }
+            for (Player *player: playerList.load()->players) {
+                player->onStreamError();
+            }
+            publish({});
+        }
+    } // namespace tiny
+} // namespace mmapi
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2026 Yury Kharchenko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+#ifndef MMAPI_TSF_MIXER_H
+#define MMAPI_TSF_MIXER_H
+
+#include <atomic>
+#include <cstdint>
+#include <mutex>
+#include <vector>
+#include <oboe/Oboe.h>
+
+namespace mmapi {
+    namespace tiny {
+        class Player;
+
+        /**
+         * Single output stream shared by all started players.
+         * Every player renders its own track and the mixer sums them into one buffer,
+         * so the count of opened audio streams does not grow with the count of players.
+         *
+         * The audio thread never locks: it renders an immutable snapshot of the player list.
+         * Control threads replace the snapshot under their own mutex and free the old one
+         * once no callback can still be reading it.
+         */
+        class Mixer : public oboe::AudioStreamCallback {
+            struct PlayerList {
+                std::vector<Player *> players;
+                uint64_t version;
+            };
+
+            /** Serializes the control threads, never taken on the audio thread */
+            std::mutex mutex;
+            std::atomic<PlayerList *> playerList;
+            /** Odd while a callback is running */
+            std::atomic<uint32_t> callbackCount{0};
+            /** Version of the list in which the callback found no playing track */
+            std::atomic<uint64_t> idleVersion{0};
+            std::atomic<bool> pausePending{false};
+            uint64_t nextVersion = 1;
+            std::shared_ptr<oboe::AudioStream> oboeStream;
+            bool started = false;
+
+        public:
+            static Mixer &getInstance();
+
+            oboe::Result open();
+            oboe::Result add(Player *player);
+            void remove(Player *player);
+
+            oboe::DataCallbackResult
+            onAudioReady(oboe::AudioStream *audioStream, void *audioData, int32_t numFrames) override;
+            void onErrorAfterClose(oboe::AudioStream *stream, oboe::Result result) override;
+
+        private:
+            Mixer();
+
+            oboe::Result openStream();
+            void pauseIfIdle();
+            void publish(std::vector<Player *> players);
+            void publishWithout(Player *player);
+            void waitForCallback();
+        }; // class Mixer
+    } // namespace tiny
+} // namespace mmapi
+
+#endif //MMAPI_TSF_MIXER_H
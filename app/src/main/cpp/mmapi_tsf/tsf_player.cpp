@@ -6,6 +6,7 @@
 #define TML_IMPLEMENTATION
 
 #include "tsf_player.h"
+#include "tsf_mixer.h"
 #include "util/log.h"
 
 #define LOG_TAG "MMAPI"
@@ -49,33 +50,38 @@ namespace mmapi {
         }
 
         oboe::Result Player::createAudioStream() {
-            oboe::AudioStreamBuilder builder;
-            builder.setDirection(oboe::Direction::Output);
-            builder.setPerformanceMode(oboe::PerformanceMode::LowLatency);
-            builder.setSharingMode(oboe::SharingMode::Shared);
-            builder.setFormat(oboe::AudioFormat::Float);
-            builder.setChannelCount(NUM_CHANNELS);
-            builder.setCallback(this);
-            builder.setFormatConversionAllowed(true);
-
-            oboe::Result result = builder.openStream(oboeStream);
+            // all players are played through one stream of the shared mixer
+            return Mixer::getInstance().open();
+        }
+
+        oboe::Result Player::start() {
+            // started before it is listed, a callback must not find it finished
+            PlayerState previous = state;
+            state = STARTED;
+            oboe::Result result = Mixer::getInstance().add(this);
             if (result != oboe::Result::OK) {
-                oboeStream.reset();
-                ALOGE("%s: can't open audio stream. %s", __func__, oboe::convertToText(result));
-                return result;
+                state = previous;
             }
-
-            synth->outSampleRate = oboeStream->getSampleRate();
             return result;
         }
 
+        oboe::Result Player::pause() {
+            Mixer::getInstance().remove(this);
+            if (state == STARTED) {
+                state = PREFETCHED;
+            }
+            return oboe::Result::OK;
+        }
+
         void Player::deallocate() {
+            Mixer::getInstance().remove(this);
             BasePlayer::deallocate();
             seekTime = 0;
         }
 
         void Player::close() {
-            BasePlayer::close();
+            Mixer::getInstance().remove(this);
+            state = CLOSED;
             if (media != nullptr) {
                 tml_free(media);
             }
@@ -150,9 +156,10 @@ namespace mmapi {
             }
         }
 
-        oboe::DataCallbackResult
-        Player::onAudioReady(oboe::AudioStream *audioStream, void *audioData, int32_t numFrames) {
-            memset(audioData, 0, sizeof(float) * NUM_CHANNELS * numFrames);
+        bool Player::render(float *stream, int32_t numFrames, int32_t sampleRate) {
+            if (state != STARTED) {
+                return false;
+            }
             if (seekTime == -1 && currentMsg == nullptr) {
                 seekTime = 0;
                 if (looping == -1 || (--loopCount) > 0) {
@@ -160,10 +167,11 @@ namespace mmapi {
                 } else {
                     state = PREFETCHED;
                     playerListener->postEvent(STOP, playTime);
-                    return oboe::DataCallbackResult::Stop;
+                    return false;
                 }
             }
 
+            synth->outSampleRate = static_cast<float>(sampleRate);
             if (seekTime != -1) {
                 if (seekTime < playTime) {
                     tsf_reset(synth);
@@ -179,24 +187,36 @@ namespace mmapi {
             }
             //Number of samples to process
             int sampleBlock = TSF_RENDER_EFFECTSAMPLEBLOCK;
-            auto *stream = static_cast<float *>(audioData);
+            float block[TSF_RENDER_EFFECTSAMPLEBLOCK * NUM_CHANNELS];
             for (; numFrames > 0; numFrames -= sampleBlock) {
                 //We progress the MIDI playback and then process TSF_RENDER_EFFECTSAMPLEBLOCK samples at once
                 if (sampleBlock > numFrames) {
                     sampleBlock = numFrames;
                 }
 
-                playTime += sampleBlock * 1000000LL / audioStream->getSampleRate();
+                playTime += sampleBlock * 1000000LL / sampleRate;
                 processEvents(true);
 
-                // Render the block of audio samples in float format
-                tsf_render_float(synth, stream, sampleBlock);
+                // Render the block of audio samples in float format and add it to the mix
+                tsf_render_float(synth, block, sampleBlock);
+                const float *src = block;
                 for (int j = 0; j < sampleBlock; ++j) {
-                    *stream++ *= gainLeft;
-                    *stream++ *= gainRight;
+                    *stream++ += *src++ * gainLeft;
+                    *stream++ += *src++ * gainRight;
                 }
             }
-            return oboe::DataCallbackResult::Continue;
+            return true;
+        }
+
+        void Player::onStreamError() {
+            state = PREFETCHED;
+            playerListener->postEvent(ERROR, 0);
+        }
+
+        oboe::DataCallbackResult
+        Player::onAudioReady(oboe::AudioStream */*audioStream*/, void */*audioData*/, int32_t /*numFrames*/) {
+            // players don't open own streams, see Mixer
+            return oboe::DataCallbackResult::Stop;
         }
     } // namespace tiny
 } // namespace mmapi
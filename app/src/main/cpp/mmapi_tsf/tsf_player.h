@@ -27,8 +27,13 @@ namespace mmapi {
             void deallocate() override;
             void close() override;
             oboe::Result prefetch() override;
+            oboe::Result start() override;
+            oboe::Result pause() override;
             int32_t setDataSource(util::JByteArrayPtr *data);
 
+            bool render(float *stream, int32_t numFrames, int32_t sampleRate);
+            void onStreamError();
+
             oboe::DataCallbackResult
             onAudioReady(oboe::AudioStream *audioStream, void *audioData, int32_t numFrames) override;
 
@@ -45,8 +45,7 @@ public class MediaResource {
 		String path = url.replace("resource://", "");
 		try (InputStream stream = ContextHolder.getResourceAsStream(null, path)) {
 			byte[] resource = IOUtils.toByteArray(stream);
-			MMFConverter converter = new MMFConverter();
-			byte[] midiDat = converter.convertToMDI(resource);
+			byte[] midiDat = MMFConverter.convert(resource);
 			try (ByteArrayInputStream bis = new ByteArrayInputStream(midiDat)) {
 				player = Manager.createPlayer(bis, "audio/midi");
 				player.realize();
@@ -71,8 +70,7 @@ public class MediaResource {
 			case "devm53z":
 				mime = "audio/midi";
 				try {
-					MMFConverter converter = new MMFConverter();
-					byte[] midiDat = converter.convertToMDI(resource);
+					byte[] midiDat = MMFConverter.convert(resource);
 					try (ByteArrayInputStream bis = new ByteArrayInputStream(midiDat)) {
 						player = Manager.createPlayer(bis, mime);
 						player.realize();
@@ -22,9 +22,12 @@ import android.graphics.Color;
 import android.graphics.Paint;
 import android.graphics.Typeface;
 import android.util.DisplayMetrics;
+import android.util.SparseIntArray;
 import android.util.TypedValue;
 
 import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import javax.microedition.util.ContextHolder;
 
@@ -59,7 +62,14 @@ public class Font {
 	private static final Font[] fonts = new Font[FONT_COUNT];
 	private static final float[] sizes = {22, 18, 26};
 
+	// glyph advances are stored densely for Latin-1 and Cyrillic, other characters are hashed
+	private static final int LATIN_END = 0x100;
+	private static final int CYRILLIC_START = 0x400;
+	private static final int CYRILLIC_END = 0x500;
+	private static final int STRING_CACHE_SIZE = 64;
+
 	private static boolean antiAlias;
+	private static boolean glyphCache;
 
 	final Paint paint = new Paint();
 	final float ascent;
@@ -69,6 +79,18 @@ public class Font {
 	private final int style;
 	private final int size;
 
+	private final int[] advances = new int[LATIN_END + CYRILLIC_END - CYRILLIC_START];
+	private final SparseIntArray otherAdvances = new SparseIntArray();
+	private final char[] measureBuffer = new char[1];
+	private GlyphAtlas glyphAtlas;
+	private final LinkedHashMap<String, Integer> stringWidths =
+			new LinkedHashMap<String, Integer>(STRING_CACHE_SIZE, 0.75f, true) {
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest) {
+					return size() > STRING_CACHE_SIZE;
+				}
+			};
+
 	@SuppressLint("WrongConstant")
 	public Font(int face, int style, int size, float height) {
 		this.face = face;
@@ -102,6 +124,7 @@ public class Font {
 		this.height = (int) Math.ceil(paint.getFontMetrics(fm));
 		this.ascent = fm.ascent;
 		this.descent = fm.descent;
+		Arrays.fill(advances, -1);
 	}
 
 	public static Font getFont(int fontSpecifier) {
@@ -150,19 +173,87 @@ public class Font {
 	}
 
 	public int charWidth(char c) {
-		return (int) Math.ceil(paint.measureText(new char[]{c}, 0, 1));
+		int index;
+		if (c < LATIN_END) {
+			index = c;
+		} else if (c >= CYRILLIC_START && c < CYRILLIC_END) {
+			index = c - CYRILLIC_START + LATIN_END;
+		} else {
+			synchronized (otherAdvances) {
+				int width = otherAdvances.get(c, -1);
+				if (width < 0) {
+					width = measureChar(c);
+					otherAdvances.put(c, width);
+				}
+				return width;
+			}
+		}
+		int width = advances[index];
+		if (width < 0) {
+			width = measureChar(c);
+			advances[index] = width;
+		}
+		return width;
+	}
+
+	private synchronized int measureChar(char c) {
+		char[] buffer = measureBuffer;
+		buffer[0] = c;
+		return (int) Math.ceil(paint.measureText(buffer, 0, 1));
 	}
 
 	public int charsWidth(char[] ch, int offset, int length) {
+		if (offset < 0 || length < 0 || offset > ch.length - length) {
+			throw new ArrayIndexOutOfBoundsException();
+		}
+		if (length == 1) {
+			return charWidth(ch[offset]);
+		}
+		// longer runs are measured whole, the sum of advances would lose kerning and shaping
 		return (int) Math.ceil(paint.measureText(ch, offset, length));
 	}
 
 	public int stringWidth(String text) {
-		return (int) Math.ceil(paint.measureText(text));
+		if (text.length() == 1) {
+			return charWidth(text.charAt(0));
+		}
+		synchronized (stringWidths) {
+			Integer cached = stringWidths.get(text);
+			if (cached != null) {
+				return cached;
+			}
+		}
+		int width = (int) Math.ceil(paint.measureText(text));
+		synchronized (stringWidths) {
+			stringWidths.put(text, width);
+		}
+		return width;
 	}
 
 	public int substringWidth(String str, int offset, int len) {
-		return (int) paint.measureText(str, offset, offset + len);
+		if (offset < 0 || len < 0 || offset > str.length() - len) {
+			throw new StringIndexOutOfBoundsException();
+		}
+		if (len == 1) {
+			return charWidth(str.charAt(offset));
+		}
+		if (len == str.length()) {
+			return stringWidth(str);
+		}
+		return (int) Math.ceil(paint.measureText(str, offset, offset + len));
+	}
+
+	/**
+	 * @return the atlas of rasterized glyphs, or null if text must be drawn by the {@link #paint}
+	 */
+	synchronized GlyphAtlas getGlyphAtlas() {
+		if (!glyphCache || paint.isUnderlineText()) {
+			return null;
+		}
+		if (glyphAtlas == null) {
+			glyphAtlas = new GlyphAtlas(paint);
+		}
+		return glyphAtlas;
 	}
 
 	public boolean isBold() {
@@ -179,6 +270,7 @@ public class Font {
 
 	public static void applySettings(ProfileModel params) {
 		antiAlias = params.fontAA;
+		glyphCache = params.fontGlyphCache;
 
 		float small = params.fontSizeSmall;
 		float medium = params.fontSizeMedium;
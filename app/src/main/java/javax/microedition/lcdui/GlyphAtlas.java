@@ -0,0 +1,182 @@
+/*
+ * Copyright 2026 Yury Kharchenko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package javax.microedition.lcdui;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.util.SparseArray;
+
+/**
+ * Rasterizes glyphs of a {@link Font} once into alpha-only pages
+ * and composes text from them, tinted by the paint color.
+ * Only simple scripts are handled, text that needs shaping is left to the {@link Paint}.
+ */
+class GlyphAtlas {
+	private static final int PAGE_SIZE = 256;
+	// scripts starting from Hebrew need bidi or shaping
+	private static final char LAST_SIMPLE_CHAR = 0x058F;
+
+	private final Paint glyphPaint;
+	private final Paint blitPaint = new Paint();
+	private final SparseArray<Glyph> glyphs = new SparseArray<>();
+	private final char[] charBuffer = new char[1];
+	private final Rect bounds = new Rect();
+	private final Rect dst = new Rect();
+	private final int baselineOffset;
+	private final int cellHeight;
+
+	private Bitmap page;
+	private Canvas pageCanvas;
+	private int penX;
+	private int penY;
+
+	GlyphAtlas(Paint fontPaint) {
+		glyphPaint = new Paint(fontPaint);
+		glyphPaint.setColor(Color.BLACK);
+		glyphPaint.setTextAlign(Paint.Align.LEFT);
+		// top and bottom include the diacritics reaching past the ascent and the descent
+		Paint.FontMetrics fm = glyphPaint.getFontMetrics();
+		baselineOffset = (int) Math.ceil(-fm.top) + 1;
+		cellHeight = baselineOffset + (int) Math.ceil(fm.bottom) + 1;
+	}
+
+	/**
+	 * Draws the text if all its characters can be taken from the atlas.
+	 *
+	 * @return false if the text must be drawn by the {@link Paint}
+	 */
+	synchronized boolean drawText(Canvas canvas, char[] text, int start, int end,
+								  float x, float y, Paint.Align align, int color) {
+		float width = 0;
+		for (int i = start; i < end; i++) {
+			Glyph glyph = getGlyph(text[i]);
+			if (glyph == null) {
+				return false;
+			}
+			width += glyph.advance;
+		}
+		float penX = alignX(x, width, align);
+		blitPaint.setColor(color);
+		for (int i = start; i < end; i++) {
+			penX = drawGlyph(canvas, glyphs.get(text[i]), penX, y);
+		}
+		return true;
+	}
+
+	/**
+	 * @see #drawText(Canvas, char[], int, int, float, float, Paint.Align, int)
+	 */
+	synchronized boolean drawText(Canvas canvas, String text, int start, int end,
+								  float x, float y, Paint.Align align, int color) {
+		float width = 0;
+		for (int i = start; i < end; i++) {
+			Glyph glyph = getGlyph(text.charAt(i));
+			if (glyph == null) {
+				return false;
+			}
+			width += glyph.advance;
+		}
+		float penX = alignX(x, width, align);
+		blitPaint.setColor(color);
+		for (int i = start; i < end; i++) {
+			penX = drawGlyph(canvas, glyphs.get(text.charAt(i)), penX, y);
+		}
+		return true;
+	}
+
+	private static float alignX(float x, float width, Paint.Align align) {
+		if (align == Paint.Align.RIGHT) {
+			return x - width;
+		} else if (align == Paint.Align.CENTER) {
+			return x - width / 2.0f;
+		}
+		return x;
+	}
+
+	private float drawGlyph(Canvas canvas, Glyph glyph, float penX, float baseline) {
+		if (glyph.page != null) {
+			int left = Math.round(penX) + glyph.left;
+			int top = Math.round(baseline) - baselineOffset;
+			dst.set(left, top, left + glyph.src.width(), top + cellHeight);
+			canvas.drawBitmap(glyph.page, glyph.src, dst, blitPaint);
+		}
+		return penX + glyph.advance;
+	}
+
+	private Glyph getGlyph(char c) {
+		Glyph glyph = glyphs.get(c);
+		if (glyph == null) {
+			if (c > LAST_SIMPLE_CHAR || c >= 0x0300 && c < 0x0370 || Character.isISOControl(c)) {
+				return null; // combining marks, bidi and complex scripts, surrogates
+			}
+			glyph = rasterize(c);
+			if (glyph == null) {
+				return null;
+			}
+			glyphs.put(c, glyph);
+		}
+		return glyph;
+	}
+
+	private Glyph rasterize(char c) {
+		char[] chars = charBuffer;
+		chars[0] = c;
+		float advance = glyphPaint.measureText(chars, 0, 1);
+		glyphPaint.getTextBounds(chars, 0, 1, bounds);
+		if (bounds.isEmpty()) {
+			// whitespace, nothing to draw
+			return new Glyph(null, null, 0, advance);
+		}
+		int cellWidth = bounds.width() + 2;
+		if (cellWidth > PAGE_SIZE || cellHeight > PAGE_SIZE
+				|| bounds.top < 1 - baselineOffset || bounds.bottom > cellHeight - baselineOffset - 1) {
+			// the glyph would be clipped by its cell
+			return null;
+		}
+		if (page == null || penX + cellWidth > PAGE_SIZE && penY + cellHeight * 2 > PAGE_SIZE) {
+			// previous pages stay referenced by their glyphs
+			page = Bitmap.createBitmap(PAGE_SIZE, PAGE_SIZE, Bitmap.Config.ALPHA_8);
+			pageCanvas = new Canvas(page);
+			penX = 0;
+			penY = 0;
+		} else if (penX + cellWidth > PAGE_SIZE) {
+			penX = 0;
+			penY += cellHeight;
+		}
+		pageCanvas.drawText(chars, 0, 1, penX + 1 - bounds.left, penY + baselineOffset, glyphPaint);
+		Rect src = new Rect(penX, penY, penX + cellWidth, penY + cellHeight);
+		penX += cellWidth;
+		return new Glyph(page, src, bounds.left - 1, advance);
+	}
+
+	private static final class Glyph {
+		final Bitmap page;
+		final Rect src;
+		final int left;
+		final float advance;
+
+		Glyph(Bitmap page, Rect src, int left, float advance) {
+			this.page = page;
+			this.src = src;
+			this.left = left;
+			this.advance = advance;
+		}
+	}
+}
@@ -36,7 +36,9 @@ import com.jblend.graphics.j3d.Figure;
 import com.jblend.graphics.j3d.FigureLayout;
 import com.jblend.graphics.j3d.Texture;
 
-public class Graphics implements
+import javax.microedition.lcdui.graphics.GraphicsBackend;
+
+public class Graphics implements GraphicsBackend<Image>,
 		com.vodafone.v10.graphics.j3d.Graphics3D,
 		com.motorola.graphics.j3d.Graphics3D,
 		com.jblend.graphics.j3d.Graphics3D {
@@ -65,6 +67,8 @@ public class Graphics implements
 	private final RectF rectF = new RectF();
 	private final Path path = new Path();
 
+	private final char[] charBuffer = new char[1];
+
 	private final DashPathEffect dashPathEffect = new DashPathEffect(new float[]{5, 5}, 0);
 	private int stroke = SOLID;
 
@@ -291,36 +295,28 @@ public class Graphics implements
 	}
 
 	public void drawChar(char character, int x, int y, int anchor) {
-		drawChars(new char[]{character}, 0, 1, x, y, anchor);
+		char[] data = charBuffer;
+		data[0] = character;
+		drawChars(data, 0, 1, x, y, anchor);
 	}
 
 	public void drawChars(char[] data, int offset, int length, int x, int y, int anchor) {
 		Paint paint = font.paint;
-		if ((anchor & Graphics.RIGHT) != 0) {
-			paint.setTextAlign(Paint.Align.RIGHT);
-		} else if ((anchor & Graphics.HCENTER) != 0) {
-			paint.setTextAlign(Paint.Align.CENTER);
-		} else {
-			paint.setTextAlign(Paint.Align.LEFT);
-		}
-
-		float ly;
-		if ((anchor & Graphics.BOTTOM) != 0) {
-			ly = y - font.descent;
-		} else if ((anchor & Graphics.VCENTER) != 0) {
-			ly = y - (font.descent + font.ascent) / 2.0f;
-		} else if ((anchor & Graphics.BASELINE) != 0) {
-			ly = y;
-		} else {
-			ly = y - font.ascent;
+		float ly = prepareText(paint, y, anchor);
+		GlyphAtlas atlas = font.getGlyphAtlas();
+		if (atlas != null && atlas.drawText(canvas, data, offset, offset + length,
+				x, ly, paint.getTextAlign(), paint.getColor())) {
+			return;
 		}
-
-		paint.setColor(fillPaint.getColor());
 		canvas.drawText(data, offset, length, x, ly, paint);
 	}
 
-	public void drawString(String text, int x, int y, int anchor) {
-		Paint paint = font.paint;
+	/**
+	 * Sets alignment and color of the font paint for the anchor
+	 *
+	 * @return y coordinate of the text baseline
+	 */
+	private float prepareText(Paint paint, int y, int anchor) {
 		if ((anchor & Graphics.RIGHT) != 0) {
 			paint.setTextAlign(Paint.Align.RIGHT);
 		} else if ((anchor & Graphics.HCENTER) != 0) {
@@ -329,18 +325,26 @@ public class Graphics implements
 			paint.setTextAlign(Paint.Align.LEFT);
 		}
 
-		float ly;
+		paint.setColor(fillPaint.getColor());
 		if ((anchor & Graphics.BOTTOM) != 0) {
-			ly = y - font.descent;
+			return y - font.descent;
 		} else if ((anchor & Graphics.VCENTER) != 0) {
-			ly = y - (font.descent + font.ascent) / 2.0f;
+			return y - (font.descent + font.ascent) / 2.0f;
 		} else if ((anchor & Graphics.BASELINE) != 0) {
-			ly = y;
+			return y;
 		} else {
-			ly = y - font.ascent;
+			return y - font.ascent;
 		}
+	}
 
-		paint.setColor(fillPaint.getColor());
+	public void drawString(String text, int x, int y, int anchor) {
+		Paint paint = font.paint;
+		float ly = prepareText(paint, y, anchor);
+		GlyphAtlas atlas = font.getGlyphAtlas();
+		if (atlas != null && atlas.drawText(canvas, text, 0, text.length(),
+				x, ly, paint.getTextAlign(), paint.getColor())) {
+			return;
+		}
 		canvas.drawText(text, x, ly, paint);
 	}
 
@@ -363,31 +367,26 @@ public class Graphics implements
 			ly = y;
 		}
 
-		canvas.drawBitmap(image.getBitmap(), lx, ly, null);
+		Bitmap bitmap = image.getSourceBitmap();
+		if (image.isView()) {
+			int sx = image.getSourceX();
+			int sy = image.getSourceY();
+			rect.set(sx, sy, sx + image.getWidth(), sy + image.getHeight());
+			rectF.set(lx, ly, lx + image.getWidth(), ly + image.getHeight());
+			canvas.drawBitmap(bitmap, rect, rectF, null);
+			return;
+		}
+		canvas.drawBitmap(bitmap, lx, ly, null);
 	}
 
 	public void drawSubstring(String str, int offset, int len, int x, int y, int anchor) {
 		Paint paint = font.paint;
-		if ((anchor & Graphics.RIGHT) != 0) {
-			paint.setTextAlign(Paint.Align.RIGHT);
-		} else if ((anchor & Graphics.HCENTER) != 0) {
-			paint.setTextAlign(Paint.Align.CENTER);
-		} else {
-			paint.setTextAlign(Paint.Align.LEFT);
-		}
-
-		float ly;
-		if ((anchor & Graphics.BOTTOM) != 0) {
-			ly = y - font.descent;
-		} else if ((anchor & Graphics.VCENTER) != 0) {
-			ly = y - (font.descent + font.ascent) / 2.0f;
-		} else if ((anchor & Graphics.BASELINE) != 0) {
-			ly = y;
-		} else {
-			ly = y - font.ascent;
+		float ly = prepareText(paint, y, anchor);
+		GlyphAtlas atlas = font.getGlyphAtlas();
+		if (atlas != null && atlas.drawText(canvas, str, offset, offset + len,
+				x, ly, paint.getTextAlign(), paint.getColor())) {
+			return;
 		}
-
-		paint.setColor(fillPaint.getColor());
 		canvas.drawText(str, offset, offset + len, x, ly, paint);
 	}
 
@@ -400,6 +399,14 @@ public class Graphics implements
 		float dx;
 		float dy;
 		srcR.set(x_src, y_src, x_src + width, y_src + height);
+		Bitmap bitmap;
+		if (x_src >= 0 && y_src >= 0
+				&& x_src + width <= image.getWidth() && y_src + height <= image.getHeight()) {
+			bitmap = image.getSourceBitmap();
+			srcR.offset(image.getSourceX(), image.getSourceY());
+		} else {
+			bitmap = image.getBitmap();
+		}
 
 		Matrix matrix = new Matrix();
 		switch (transform) {
@@ -420,7 +427,7 @@ public class Graphics implements
 				}
 
 				dstR.set(dx, dy, dx + width, dy + height);
-				canvas.drawBitmap(image.getBitmap(), srcR, dstR, null);
+				canvas.drawBitmap(bitmap, srcR, dstR, null);
 				return;
 			}
 			case TRANS_ROT90:
@@ -475,7 +482,7 @@ public class Graphics implements
 		canvas.save();
 		canvas.concat(matrix);
 		try {
-			canvas.drawBitmap(image.getBitmap(), srcR, dstR, null);
+			canvas.drawBitmap(bitmap, srcR, dstR, null);
 		} finally {
 			canvas.restore();
 		}
@@ -24,6 +24,9 @@ import android.graphics.Rect;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
 
 import javax.microedition.lcdui.game.Sprite;
 import javax.microedition.shell.AppClassLoader;
@@ -36,18 +39,66 @@ public class Image {
 	private final Rect bounds;
 	private boolean isBlackWhiteAlpha;
 
+	// shared pixels of an immutable parent, when this image is a view of its sub-rectangle
+	private final Bitmap viewParent;
+	private final int viewX;
+	private final int viewY;
+
+	// transformed regions of an immutable image, see createImage(Image, int, int, int, int, int)
+	private HashMap<RegionKey, RegionRef> regionCache;
+	private ReferenceQueue<Image> regionQueue;
+
 	public Image(Bitmap bitmap) {
 		if (bitmap == null) {
 			throw new NullPointerException();
 		}
 		this.bitmap = bitmap;
 		bounds = new Rect(0, 0, bitmap.getWidth(), bitmap.getHeight());
+		viewParent = null;
+		viewX = 0;
+		viewY = 0;
+	}
+
+	private Image(Bitmap parent, int x, int y, int width, int height) {
+		viewParent = parent;
+		viewX = x;
+		viewY = y;
+		bounds = new Rect(0, 0, width, height);
 	}
 
 	public Bitmap getBitmap() {
+		if (viewParent != null) {
+			synchronized (this) {
+				if (bitmap == null) {
+					// copy only for the code that needs a standalone bitmap
+					bitmap = Bitmap.createBitmap(viewParent, viewX, viewY, bounds.right, bounds.bottom);
+				}
+			}
+		}
 		return bitmap;
 	}
 
+	/**
+	 * Pixels to draw from without materializing a view,
+	 * the image area starts at {@link #getSourceX()}, {@link #getSourceY()}.
+	 */
+	Bitmap getSourceBitmap() {
+		return viewParent != null ? viewParent : bitmap;
+	}
+
+	/** @return true if the image shares pixels of an immutable parent */
+	boolean isView() {
+		return viewParent != null;
+	}
+
+	int getSourceX() {
+		return viewX;
+	}
+
+	int getSourceY() {
+		return viewY;
+	}
+
 	public static Image createImage(int width, int height) {
 		return createImage(width, height, Color.WHITE);
 	}
@@ -89,8 +140,43 @@ public class Image {
 	}
 
 	public static Image createImage(Image image, int x, int y, int width, int height, int transform) {
-		Matrix m = transform == 0 ? null : Sprite.transformMatrix(transform, width / 2.0f, height / 2.0f);
-		return new Image(Bitmap.createBitmap(image.bitmap, x, y, width, height, m, false));
+		if (image.isMutable()) {
+			Matrix m = transform == 0 ? null : Sprite.transformMatrix(transform, width / 2.0f, height / 2.0f);
+			return new Image(Bitmap.createBitmap(image.bitmap, x, y, width, height, m, false));
+		}
+		if (x < 0 || y < 0 || width <= 0 || height <= 0
+				|| x + width > image.getWidth() || y + height > image.getHeight()) {
+			throw new IllegalArgumentException("Region is out of image bounds");
+		}
+		if (transform == Sprite.TRANS_NONE) {
+			if (x == 0 && y == 0 && width == image.getWidth() && height == image.getHeight()) {
+				return image;
+			}
+			// immutable source: share its pixels instead of copying
+			return new Image(image.getSourceBitmap(), image.viewX + x, image.viewY + y, width, height);
+		}
+		return image.getTransformedRegion(x, y, width, height, transform);
+	}
+
+	private synchronized Image getTransformedRegion(int x, int y, int width, int height, int transform) {
+		if (regionCache == null) {
+			regionCache = new HashMap<>();
+			regionQueue = new ReferenceQueue<>();
+		}
+		RegionRef ref;
+		while ((ref = (RegionRef) regionQueue.poll()) != null) {
+			regionCache.remove(ref.key);
+		}
+		RegionKey key = new RegionKey(x, y, width, height, transform);
+		ref = regionCache.get(key);
+		Image result = ref == null ? null : ref.get();
+		if (result == null) {
+			Matrix m = Sprite.transformMatrix(transform, width / 2.0f, height / 2.0f);
+			Bitmap src = getSourceBitmap();
+			result = new Image(Bitmap.createBitmap(src, viewX + x, viewY + y, width, height, m, false));
+			regionCache.put(key, new RegionRef(result, key, regionQueue));
+		}
+		return result;
 	}
 
 	public static Image createImage(Image source) {
@@ -116,7 +202,7 @@ public class Image {
 	}
 
 	public boolean isMutable() {
-		return bitmap.isMutable();
+		return viewParent == null && bitmap.isMutable();
 	}
 
 	public int getWidth() {
@@ -128,16 +214,23 @@ public class Image {
 	}
 
 	public void getRGB(int[] rgbData, int offset, int scanlength, int x, int y, int width, int height) {
+		if (viewParent != null) {
+			if (x < 0 || y < 0 || x + width > bounds.right || y + height > bounds.bottom) {
+				throw new IllegalArgumentException();
+			}
+			viewParent.getPixels(rgbData, offset, scanlength, viewX + x, viewY + y, width, height);
+			return;
+		}
 		bitmap.getPixels(rgbData, offset, scanlength, x, y, width, height);
 	}
 
 	void copyTo(Image dst) {
-		dst.getSingleGraphics().getCanvas().drawBitmap(bitmap, bounds, bounds, null);
+		dst.getSingleGraphics().getCanvas().drawBitmap(getBitmap(), bounds, bounds, null);
 	}
 
 	void copyTo(Image dst, int x, int y) {
 		Rect r = new Rect(x, y, x + bounds.right, y + bounds.bottom);
-		dst.getSingleGraphics().getCanvas().drawBitmap(bitmap, bounds, r, null);
+		dst.getSingleGraphics().getCanvas().drawBitmap(getBitmap(), bounds, r, null);
 	}
 
 	public Graphics getSingleGraphics() {
@@ -177,4 +270,46 @@ public class Image {
 	public void setBlackWhiteAlpha(boolean blackWhiteAlpha) {
 		isBlackWhiteAlpha = blackWhiteAlpha;
 	}
+
+	private static final class RegionKey {
+		private final int x;
+		private final int y;
+		private final int width;
+		private final int height;
+		private final int transform;
+
+		RegionKey(int x, int y, int width, int height, int transform) {
+			this.x = x;
+			this.y = y;
+			this.width = width;
+			this.height = height;
+			this.transform = transform;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (!(o instanceof RegionKey)) return false;
+			RegionKey k = (RegionKey) o;
+			return x == k.x && y == k.y && width == k.width && height == k.height && transform == k.transform;
+		}
+
+		@Override
+		public int hashCode() {
+			int result = x;
+			result = 31 * result + y;
+			result = 31 * result + width;
+			result = 31 * result + height;
+			return 31 * result + transform;
+		}
+	}
+
+	private static final class RegionRef extends WeakReference<Image> {
+		final RegionKey key;
+
+		RegionRef(Image image, RegionKey key, ReferenceQueue<Image> queue) {
+			super(image, queue);
+			this.key = key;
+		}
+	}
 }
@@ -19,12 +19,12 @@ package javax.microedition.lcdui.event;
 import android.util.Log;
 
 import javax.microedition.lcdui.Canvas;
-import javax.microedition.util.ArrayStack;
+import javax.microedition.util.ObjectPool;
 
 public class CanvasEvent extends Event {
 	private static final String TAG = CanvasEvent.class.getName();
 
-	private static final ArrayStack<CanvasEvent> recycled = new ArrayStack<>();
+	private static final ObjectPool<CanvasEvent> recycled = new ObjectPool<>(64);
 
 	public static final int KEY_PRESSED = 0;
 	public static final int KEY_REPEATED = 1;
@@ -75,7 +75,7 @@ public class CanvasEvent extends Event {
 	}
 
 	private static CanvasEvent obtain(Canvas canvas, int eventType) {
-		CanvasEvent instance = recycled.pop();
+		CanvasEvent instance = recycled.acquire();
 		if (instance == null) {
 			instance = new CanvasEvent();
 		}
@@ -84,6 +84,10 @@ public class CanvasEvent extends Event {
 		return instance;
 	}
 
+	public static ObjectPool<CanvasEvent> getPool() {
+		return recycled;
+	}
+
 	@Override
 	public void process() {
 		switch (eventType) {
@@ -164,7 +168,7 @@ public class CanvasEvent extends Event {
 	@Override
 	public void recycle() {
 		canvas = null;
-		recycled.push(this);
+		recycled.release(this);
 	}
 
 	@Override
@@ -22,10 +22,10 @@ import javax.microedition.lcdui.CommandListener;
 import javax.microedition.lcdui.Displayable;
 import javax.microedition.lcdui.Item;
 import javax.microedition.lcdui.ItemCommandListener;
-import javax.microedition.util.ArrayStack;
+import javax.microedition.util.ObjectPool;
 
 public class CommandActionEvent extends Event {
-	private static final ArrayStack<CommandActionEvent> recycled = new ArrayStack<>();
+	private static final ObjectPool<CommandActionEvent> recycled = new ObjectPool<>(8);
 
 	private CommandListener listener;
 	private ItemCommandListener itemlistener;
@@ -35,7 +35,7 @@ public class CommandActionEvent extends Event {
 	private Item item;
 
 	public static Event getInstance(CommandListener listener, Command command, Displayable displayable) {
-		CommandActionEvent instance = recycled.pop();
+		CommandActionEvent instance = recycled.acquire();
 
 		if (instance == null) {
 			instance = new CommandActionEvent();
@@ -49,7 +49,7 @@ public class CommandActionEvent extends Event {
 	}
 
 	public static Event getInstance(ItemCommandListener itemlistener, Command command, Item item) {
-		CommandActionEvent instance = recycled.pop();
+		CommandActionEvent instance = recycled.acquire();
 
 		if (instance == null) {
 			instance = new CommandActionEvent();
@@ -80,7 +80,7 @@ public class CommandActionEvent extends Event {
 		displayable = null;
 		item = null;
 
-		recycled.push(this);
+		recycled.release(this);
 	}
 
 	@Override
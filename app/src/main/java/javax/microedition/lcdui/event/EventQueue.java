@@ -17,12 +17,16 @@
 
 package javax.microedition.lcdui.event;
 
+import android.util.Log;
+
 import javax.microedition.util.LinkedList;
 
 /**
  * The event queue. A really complicated thing.
  */
 public class EventQueue implements Runnable {
+	private static final String TAG = EventQueue.class.getName();
+
 	private static boolean immediate;
 
 	private final LinkedList<Event> queue = new LinkedList<>();
@@ -162,6 +166,9 @@ public class EventQueue implements Runnable {
 		synchronized (interlock) {
 			thread = null;
 		}
+		Log.d(TAG, "stopProcessing: canvas events " + CanvasEvent.getPool()
+				+ ", runnable events " + RunnableEvent.getPool()
+				+ ", queue entries " + queue.getPool());
 	}
 
 	/**
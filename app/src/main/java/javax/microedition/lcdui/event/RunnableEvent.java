@@ -18,19 +18,19 @@
 
 package javax.microedition.lcdui.event;
 
-import javax.microedition.util.ArrayStack;
 import javax.microedition.util.ContextHolder;
+import javax.microedition.util.ObjectPool;
 
 import ru.playsoftware.j2meloader.R;
 
 public class RunnableEvent extends Event {
-	private static final ArrayStack<RunnableEvent> recycled = new ArrayStack<>();
+	private static final ObjectPool<RunnableEvent> recycled = new ObjectPool<>(32);
 	private static int queued;
 
 	private Runnable runnable;
 
 	public static Event getInstance(Runnable runnable) {
-		RunnableEvent instance = recycled.pop();
+		RunnableEvent instance = recycled.acquire();
 
 		if (instance == null) {
 			instance = new RunnableEvent();
@@ -41,6 +41,10 @@ public class RunnableEvent extends Event {
 		return instance;
 	}
 
+	public static ObjectPool<RunnableEvent> getPool() {
+		return recycled;
+	}
+
 	@Override
 	public void process() {
 		runnable.run();
@@ -49,7 +53,7 @@ public class RunnableEvent extends Event {
 	@Override
 	public void recycle() {
 		runnable = null;
-		recycled.push(this);
+		recycled.release(this);
 	}
 
 	@Override
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2026 Yury Kharchenko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package javax.microedition.lcdui.graphics;
+
+/**
+ * The MIDP 2D drawing surface, independent of the way the pixels are produced.
+ * Implemented by {@link javax.microedition.lcdui.Graphics} (Skia canvas) and by
+ * {@link javax.microedition.lcdui.graphics.raster.RasterGraphics} (pure Java, no Android classes).
+ * The raster backend is headless, for render loops on a plain JVM; the device always draws
+ * with Skia, its pixels live in a Bitmap that a Java raster could only reach through copies.
+ *
+ * @param <I> type of the image sources accepted by {@link #drawImage} and {@link #drawRegion}
+ */
+public interface GraphicsBackend<I> {
+
+	void setColor(int color);
+
+	void setColor(int r, int g, int b);
+
+	int getColor();
+
+	void setStrokeStyle(int style);
+
+	int getStrokeStyle();
+
+	void setClip(int x, int y, int width, int height);
+
+	void clipRect(int x, int y, int width, int height);
+
+	int getClipX();
+
+	int getClipY();
+
+	int getClipWidth();
+
+	int getClipHeight();
+
+	void translate(int dx, int dy);
+
+	int getTranslateX();
+
+	int getTranslateY();
+
+	void drawLine(int x1, int y1, int x2, int y2);
+
+	void drawRect(int x, int y, int width, int height);
+
+	void fillRect(int x, int y, int width, int height);
+
+	void drawRoundRect(int x, int y, int width, int height, int arcWidth, int arcHeight);
+
+	void fillRoundRect(int x, int y, int width, int height, int arcWidth, int arcHeight);
+
+	void drawArc(int x, int y, int width, int height, int startAngle, int arcAngle);
+
+	void fillArc(int x, int y, int width, int height, int startAngle, int arcAngle);
+
+	void fillTriangle(int x1, int y1, int x2, int y2, int x3, int y3);
+
+	void drawPolygon(int[] xPoints, int xOffset, int[] yPoints, int yOffset, int nPoints);
+
+	void fillPolygon(int[] xPoints, int xOffset, int[] yPoints, int yOffset, int nPoints);
+
+	void drawChar(char character, int x, int y, int anchor);
+
+	void drawChars(char[] data, int offset, int length, int x, int y, int anchor);
+
+	void drawString(String text, int x, int y, int anchor);
+
+	void drawSubstring(String str, int offset, int len, int x, int y, int anchor);
+
+	void drawImage(I image, int x, int y, int anchor);
+
+	void drawRegion(I image, int x_src, int y_src, int width, int height,
+					int transform, int x_dst, int y_dst, int anchor);
+
+	void drawRGB(int[] rgbData, int offset, int scanlength,
+				 int x, int y, int width, int height, boolean processAlpha);
+
+	void copyArea(int x_src, int y_src, int width, int height, int x_dest, int y_dest, int anchor);
+}
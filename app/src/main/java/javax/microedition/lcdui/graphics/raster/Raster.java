@@ -0,0 +1,90 @@
+/*
+ * Copyright 2026 Yury Kharchenko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package javax.microedition.lcdui.graphics.raster;
+
+import java.util.Arrays;
+
+/** Non-premultiplied ARGB framebuffer, row-major without padding. */
+public class Raster {
+	final int width;
+	final int height;
+	final int[] pixels;
+
+	public Raster(int width, int height) {
+		this(width, height, new int[width * height]);
+	}
+
+	public Raster(int width, int height, int[] pixels) {
+		if (width <= 0 || height <= 0) {
+			throw new IllegalArgumentException("Illegal size: " + width + "x" + height);
+		}
+		if (pixels.length < width * height) {
+			throw new ArrayIndexOutOfBoundsException();
+		}
+		this.width = width;
+		this.height = height;
+		this.pixels = pixels;
+	}
+
+	public static Raster createRGB(int[] rgb, int width, int height, boolean processAlpha) {
+		Raster raster = new Raster(width, height);
+		int length = width * height;
+		int[] pixels = raster.pixels;
+		if (processAlpha) {
+			System.arraycopy(rgb, 0, pixels, 0, length);
+		} else {
+			for (int i = 0; i < length; i++) {
+				pixels[i] = rgb[i] | 0xFF000000;
+			}
+		}
+		return raster;
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+
+	/** Direct access to the framebuffer, e.g. for uploading or hashing a frame */
+	public int[] getPixels() {
+		return pixels;
+	}
+
+	public int getPixel(int x, int y) {
+		return pixels[y * width + x];
+	}
+
+	public void getRGB(int[] rgbData, int offset, int scanlength, int x, int y, int width, int height) {
+		if (x < 0 || y < 0 || x + width > this.width || y + height > this.height) {
+			throw new IllegalArgumentException();
+		}
+		for (int i = 0; i < height; i++) {
+			System.arraycopy(pixels, (y + i) * this.width + x, rgbData, offset + i * scanlength, width);
+		}
+	}
+
+	public void fill(int argb) {
+		Arrays.fill(pixels, 0, width * height, argb);
+	}
+
+	public RasterGraphics getGraphics() {
+		return new RasterGraphics(this);
+	}
+}
@@ -0,0 +1,863 @@
+/*
+ * Copyright 2026 Yury Kharchenko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package javax.microedition.lcdui.graphics.raster;
+
+import java.util.Arrays;
+
+import javax.microedition.lcdui.graphics.GraphicsBackend;
+
+/**
+ * Integer-only software implementation of the MIDP drawing API over a {@link Raster}.
+ * Does not touch any Android class, so it can run render loops on a plain JVM.
+ * It is not a fast path of {@link javax.microedition.lcdui.Graphics} on the device.
+ * Pixels are covered when their centre lies inside the shape, no anti-aliasing is done.
+ */
+public class RasterGraphics implements GraphicsBackend<Raster> {
+	public static final int HCENTER = 1;
+	public static final int VCENTER = 2;
+	public static final int LEFT = 4;
+	public static final int RIGHT = 8;
+	public static final int TOP = 16;
+	public static final int BOTTOM = 32;
+	public static final int BASELINE = 64;
+
+	public static final int SOLID = 0;
+	public static final int DOTTED = 1;
+
+	// same values as in javax.microedition.lcdui.game.Sprite, which depends on Android
+	static final int TRANS_NONE = 0;
+	static final int TRANS_ROT90 = 5;
+	static final int TRANS_ROT180 = 3;
+	static final int TRANS_ROT270 = 6;
+	static final int TRANS_MIRROR = 2;
+	static final int TRANS_MIRROR_ROT90 = 7;
+	static final int TRANS_MIRROR_ROT180 = 1;
+	static final int TRANS_MIRROR_ROT270 = 4;
+
+	/** Length of the dash and of the gap in {@link #DOTTED} style */
+	private static final int DASH = 5;
+
+	private final Raster raster;
+	private final int[] pixels;
+	private final int width;
+
+	private int color = 0xFF000000;
+	private int stroke = SOLID;
+	private RasterFont font = RasterFont.getDefaultFont();
+
+	private int translateX;
+	private int translateY;
+
+	// absolute clip, right and bottom are exclusive
+	private int clipLeft;
+	private int clipTop;
+	private int clipRight;
+	private int clipBottom;
+
+	// result of the span calculations
+	private int spanLeft;
+	private int spanRight;
+
+	// arc bounds for the sweep test
+	private float sweepStartX;
+	private float sweepStartY;
+	private float sweepEndX;
+	private float sweepEndY;
+	private boolean sweepConvex;
+
+	private float[] edgeX = new float[16];
+	private int[] edgeDir = new int[16];
+	private final int[] triangleX = new int[3];
+	private final int[] triangleY = new int[3];
+	private int[] copyBuffer;
+
+	public RasterGraphics(Raster raster) {
+		this.raster = raster;
+		this.pixels = raster.pixels;
+		this.width = raster.width;
+		reset();
+	}
+
+	public void reset() {
+		color = 0xFF000000;
+		stroke = SOLID;
+		font = RasterFont.getDefaultFont();
+		translateX = 0;
+		translateY = 0;
+		clipLeft = 0;
+		clipTop = 0;
+		clipRight = raster.width;
+		clipBottom = raster.height;
+	}
+
+	public Raster getRaster() {
+		return raster;
+	}
+
+	@Override
+	public void setColor(int color) {
+		this.color = color | 0xFF000000;
+	}
+
+	public void setColorAlpha(int color) {
+		this.color = color;
+	}
+
+	@Override
+	public void setColor(int r, int g, int b) {
+		color = 0xFF000000 | (r & 0xFF) << 16 | (g & 0xFF) << 8 | b & 0xFF;
+	}
+
+	public void setGrayScale(int value) {
+		setColor(value, value, value);
+	}
+
+	@Override
+	public int getColor() {
+		return color;
+	}
+
+	public int getRedComponent() {
+		return (color >> 16) & 0xFF;
+	}
+
+	public int getGreenComponent() {
+		return (color >> 8) & 0xFF;
+	}
+
+	public int getBlueComponent() {
+		return color & 0xFF;
+	}
+
+	@Override
+	public void setStrokeStyle(int style) {
+		if (style != SOLID && style != DOTTED) {
+			throw new IllegalArgumentException("Illegal stroke style: " + style);
+		}
+		this.stroke = style;
+	}
+
+	@Override
+	public int getStrokeStyle() {
+		return stroke;
+	}
+
+	public void setFont(RasterFont font) {
+		this.font = font == null ? RasterFont.getDefaultFont() : font;
+	}
+
+	public RasterFont getFont() {
+		return font;
+	}
+
+	@Override
+	public void setClip(int x, int y, int width, int height) {
+		clipLeft = Math.max(x + translateX, 0);
+		clipTop = Math.max(y + translateY, 0);
+		clipRight = Math.min(x + translateX + width, raster.width);
+		clipBottom = Math.min(y + translateY + height, raster.height);
+	}
+
+	@Override
+	public void clipRect(int x, int y, int width, int height) {
+		clipLeft = Math.max(x + translateX, clipLeft);
+		clipTop = Math.max(y + translateY, clipTop);
+		clipRight = Math.min(x + translateX + width, clipRight);
+		clipBottom = Math.min(y + translateY + height, clipBottom);
+	}
+
+	@Override
+	public int getClipX() {
+		return clipLeft - translateX;
+	}
+
+	@Override
+	public int getClipY() {
+		return clipTop - translateY;
+	}
+
+	@Override
+	public int getClipWidth() {
+		return Math.max(clipRight - clipLeft, 0);
+	}
+
+	@Override
+	public int getClipHeight() {
+		return Math.max(clipBottom - clipTop, 0);
+	}
+
+	@Override
+	public void translate(int dx, int dy) {
+		translateX += dx;
+		translateY += dy;
+	}
+
+	@Override
+	public int getTranslateX() {
+		return translateX;
+	}
+
+	@Override
+	public int getTranslateY() {
+		return translateY;
+	}
+
+	@Override
+	public void drawLine(int x1, int y1, int x2, int y2) {
+		x1 += translateX;
+		y1 += translateY;
+		x2 += translateX;
+		y2 += translateY;
+		if (y1 == y2 && stroke == SOLID) {
+			fillSpan(y1, Math.min(x1, x2), Math.max(x1, x2) + 1);
+			return;
+		}
+
+		int dx = Math.abs(x2 - x1);
+		int dy = -Math.abs(y2 - y1);
+		int sx = x1 < x2 ? 1 : -1;
+		int sy = y1 < y2 ? 1 : -1;
+		int err = dx + dy;
+		boolean dotted = stroke == DOTTED;
+		int step = 0;
+		while (true) {
+			if (!dotted || step % (DASH * 2) < DASH) {
+				plot(x1, y1);
+			}
+			if (x1 == x2 && y1 == y2) {
+				break;
+			}
+			int e2 = err * 2;
+			if (e2 >= dy) {
+				err += dy;
+				x1 += sx;
+			}
+			if (e2 <= dx) {
+				err += dx;
+				y1 += sy;
+			}
+			step++;
+		}
+	}
+
+	@Override
+	public void drawRect(int x, int y, int width, int height) {
+		if (width < 0 || height < 0) return;
+		if (width == 0 || height == 0) {
+			drawLine(x, y, x + width, y + height);
+			return;
+		}
+		if (stroke == DOTTED) {
+			drawLine(x, y, x + width, y);
+			drawLine(x, y + height, x + width, y + height);
+			if (height > 1) {
+				drawLine(x, y + 1, x, y + height - 1);
+				drawLine(x + width, y + 1, x + width, y + height - 1);
+			}
+			return;
+		}
+		x += translateX;
+		y += translateY;
+		fillSpan(y, x, x + width + 1);
+		fillSpan(y + height, x, x + width + 1);
+		for (int row = Math.max(y + 1, clipTop), end = Math.min(y + height, clipBottom); row < end; row++) {
+			plot(x, row);
+			plot(x + width, row);
+		}
+	}
+
+	@Override
+	public void fillRect(int x, int y, int width, int height) {
+		if (width <= 0 || height <= 0) return;
+		x += translateX;
+		y += translateY;
+		for (int row = Math.max(y, clipTop), end = Math.min(y + height, clipBottom); row < end; row++) {
+			fillSpan(row, x, x + width);
+		}
+	}
+
+	@Override
+	public void drawRoundRect(int x, int y, int width, int height, int arcWidth, int arcHeight) {
+		if (width < 0 || height < 0) return;
+		x += translateX;
+		y += translateY;
+		int top = Math.max(y, clipTop);
+		int bottom = Math.min(y + height + 1, clipBottom);
+		for (int row = top; row < bottom; row++) {
+			fillRingSpan(row,
+					x, y, width + 1, height + 1, arcWidth, arcHeight,
+					x + 1, y + 1, width - 1, height - 1, arcWidth - 2, arcHeight - 2,
+					0, 360);
+		}
+	}
+
+	@Override
+	public void fillRoundRect(int x, int y, int width, int height, int arcWidth, int arcHeight) {
+		if (width < 0 || height < 0) return;
+		x += translateX;
+		y += translateY;
+		int top = Math.max(y, clipTop);
+		int bottom = Math.min(y + height, clipBottom);
+		for (int row = top; row < bottom; row++) {
+			if (roundRectSpan(row, x, y, width, height, arcWidth, arcHeight)) {
+				fillSpan(row, spanLeft, spanRight);
+			}
+		}
+	}
+
+	@Override
+	public void drawArc(int x, int y, int width, int height, int startAngle, int arcAngle) {
+		if (width < 0 || height < 0 || arcAngle == 0) return;
+		if (arcAngle < 0) {
+			startAngle += arcAngle;
+			arcAngle = -arcAngle;
+		}
+		setSweep(startAngle, arcAngle);
+		x += translateX;
+		y += translateY;
+		int top = Math.max(y, clipTop);
+		int bottom = Math.min(y + height + 1, clipBottom);
+		for (int row = top; row < bottom; row++) {
+			fillRingSpan(row,
+					x, y, width + 1, height + 1, width + 1, height + 1,
+					x + 1, y + 1, width - 1, height - 1, width - 1, height - 1,
+					startAngle, arcAngle);
+		}
+	}
+
+	@Override
+	public void fillArc(int x, int y, int width, int height, int startAngle, int arcAngle) {
+		if (width <= 0 || height <= 0 || arcAngle == 0) return;
+		if (arcAngle < 0) {
+			startAngle += arcAngle;
+			arcAngle = -arcAngle;
+		}
+		setSweep(startAngle, arcAngle);
+		x += translateX;
+		y += translateY;
+		int top = Math.max(y, clipTop);
+		int bottom = Math.min(y + height, clipBottom);
+		for (int row = top; row < bottom; row++) {
+			if (!roundRectSpan(row, x, y, width, height, width, height)) {
+				continue;
+			}
+			if (arcAngle >= 360) {
+				fillSpan(row, spanLeft, spanRight);
+				continue;
+			}
+			int left = spanLeft;
+			int right = spanRight;
+			for (int col = left; col < right; col++) {
+				if (inSweep(col, row, x, y, width, height)) {
+					plot(col, row);
+				}
+			}
+		}
+	}
+
+	@Override
+	public void fillTriangle(int x1, int y1, int x2, int y2, int x3, int y3) {
+		int[] xs = triangleX;
+		int[] ys = triangleY;
+		xs[0] = x1;
+		xs[1] = x2;
+		xs[2] = x3;
+		ys[0] = y1;
+		ys[1] = y2;
+		ys[2] = y3;
+		fillPolygon(xs, 0, ys, 0, 3);
+	}
+
+	@Override
+	public void drawPolygon(int[] xPoints, int xOffset, int[] yPoints, int yOffset, int nPoints) {
+		if (nPoints <= 0) return;
+		int px = xPoints[xOffset + nPoints - 1];
+		int py = yPoints[yOffset + nPoints - 1];
+		for (int i = 0; i < nPoints; i++) {
+			int nx = xPoints[xOffset + i];
+			int ny = yPoints[yOffset + i];
+			drawLine(px, py, nx, ny);
+			px = nx;
+			py = ny;
+		}
+	}
+
+	/** Fills with the non-zero winding rule, the same as the default fill type of the Skia path */
+	@Override
+	public void fillPolygon(int[] xPoints, int xOffset, int[] yPoints, int yOffset, int nPoints) {
+		if (nPoints < 3) return;
+		if (edgeX.length < nPoints) {
+			edgeX = new float[nPoints];
+			edgeDir = new int[nPoints];
+		}
+		int minY = Integer.MAX_VALUE;
+		int maxY = Integer.MIN_VALUE;
+		for (int i = 0; i < nPoints; i++) {
+			int y = yPoints[yOffset + i];
+			if (y < minY) minY = y;
+			if (y > maxY) maxY = y;
+		}
+		int top = Math.max(minY + translateY, clipTop);
+		int bottom = Math.min(maxY + translateY, clipBottom);
+		float[] xs = edgeX;
+		int[] dirs = edgeDir;
+		for (int row = top; row < bottom; row++) {
+			float cy = row - translateY + 0.5f;
+			int count = 0;
+			int j = nPoints - 1;
+			for (int i = 0; i < nPoints; j = i++) {
+				int y0 = yPoints[yOffset + j];
+				int y1 = yPoints[yOffset + i];
+				int dir;
+				if (y0 <= cy && y1 > cy) {
+					dir = 1;
+				} else if (y1 <= cy && y0 > cy) {
+					dir = -1;
+				} else {
+					continue;
+				}
+				int x0 = xPoints[xOffset + j];
+				int x1 = xPoints[xOffset + i];
+				float ex = x0 + (cy - y0) * (x1 - x0) / (y1 - y0);
+				// insertion sort, the number of crossings is small
+				int k = count++;
+				while (k > 0 && xs[k - 1] > ex) {
+					xs[k] = xs[k - 1];
+					dirs[k] = dirs[k - 1];
+					k--;
+				}
+				xs[k] = ex;
+				dirs[k] = dir;
+			}
+			int winding = 0;
+			for (int i = 0; i < count - 1; i++) {
+				winding += dirs[i];
+				if (winding != 0) {
+					int left = (int) Math.ceil(xs[i] - 0.5f) + translateX;
+					int right = (int) Math.ceil(xs[i + 1] - 0.5f) + translateX;
+					fillSpan(row, left, right);
+				}
+			}
+		}
+	}
+
+	@Override
+	public void drawChar(char character, int x, int y, int anchor) {
+		int w = font.charWidth(character);
+		x = anchorTextX(x, w, anchor);
+		y = anchorTextY(y, anchor);
+		drawGlyph(character, x, y);
+	}
+
+	@Override
+	public void drawChars(char[] data, int offset, int length, int x, int y, int anchor) {
+		if (offset < 0 || length < 0 || offset + length > data.length) {
+			throw new ArrayIndexOutOfBoundsException();
+		}
+		x = anchorTextX(x, font.charsWidth(data, offset, length), anchor);
+		y = anchorTextY(y, anchor);
+		for (int i = offset, end = offset + length; i < end; i++) {
+			char c = data[i];
+			drawGlyph(c, x, y);
+			x += font.charWidth(c);
+		}
+	}
+
+	@Override
+	public void drawString(String text, int x, int y, int anchor) {
+		drawSubstring(text, 0, text.length(), x, y, anchor);
+	}
+
+	@Override
+	public void drawSubstring(String str, int offset, int len, int x, int y, int anchor) {
+		if (offset < 0 || len < 0 || offset + len > str.length()) {
+			throw new StringIndexOutOfBoundsException();
+		}
+		x = anchorTextX(x, font.substringWidth(str, offset, len), anchor);
+		y = anchorTextY(y, anchor);
+		for (int i = offset, end = offset + len; i < end; i++) {
+			char c = str.charAt(i);
+			drawGlyph(c, x, y);
+			x += font.charWidth(c);
+		}
+	}
+
+	@Override
+	public void drawImage(Raster image, int x, int y, int anchor) {
+		drawRegion(image, 0, 0, image.width, image.height, TRANS_NONE, x, y, anchor);
+	}
+
+	@Override
+	public void drawRegion(Raster image, int x_src, int y_src, int width, int height,
+						   int transform, int x_dst, int y_dst, int anchor) {
+		if (width <= 0 || height <= 0) return;
+		if (x_src < 0 || y_src < 0 || x_src + width > image.width || y_src + height > image.height) {
+			throw new IllegalArgumentException("Region is out of image bounds");
+		}
+
+		// source coordinates as a linear function of the destination ones:
+		// sx = x0 + dx * ax + dy * bx, sy = y0 + dx * ay + dy * by
+		int x0, ax, bx, y0, ay, by;
+		int dw = width;
+		int dh = height;
+		switch (transform) {
+			case TRANS_NONE:
+				x0 = 0; ax = 1; bx = 0;
+				y0 = 0; ay = 0; by = 1;
+				break;
+			case TRANS_MIRROR:
+				x0 = width - 1; ax = -1; bx = 0;
+				y0 = 0; ay = 0; by = 1;
+				break;
+			case TRANS_MIRROR_ROT180:
+				x0 = 0; ax = 1; bx = 0;
+				y0 = height - 1; ay = 0; by = -1;
+				break;
+			case TRANS_ROT180:
+				x0 = width - 1; ax = -1; bx = 0;
+				y0 = height - 1; ay = 0; by = -1;
+				break;
+			case TRANS_ROT90:
+				x0 = 0; ax = 0; bx = 1;
+				y0 = height - 1; ay = -1; by = 0;
+				dw = height;
+				dh = width;
+				break;
+			case TRANS_ROT270:
+				x0 = width - 1; ax = 0; bx = -1;
+				y0 = 0; ay = 1; by = 0;
+				dw = height;
+				dh = width;
+				break;
+			case TRANS_MIRROR_ROT90:
+				x0 = width - 1; ax = 0; bx = -1;
+				y0 = height - 1; ay = -1; by = 0;
+				dw = height;
+				dh = width;
+				break;
+			case TRANS_MIRROR_ROT270:
+				x0 = 0; ax = 0; bx = 1;
+				y0 = 0; ay = 1; by = 0;
+				dw = height;
+				dh = width;
+				break;
+			default:
+				throw new IllegalArgumentException("Illegal transform=" + transform);
+		}
+
+		int left = anchorX(x_dst, dw, anchor) + translateX;
+		int top = anchorY(y_dst, dh, anchor) + translateY;
+		int startX = Math.max(left, clipLeft);
+		int endX = Math.min(left + dw, clipRight);
+		int startY = Math.max(top, clipTop);
+		int endY = Math.min(top + dh, clipBottom);
+		if (startX >= endX || startY >= endY) return;
+
+		int[] src = image.pixels;
+		int stride = image.width;
+		int step = ax + ay * stride;
+		int[] dst = pixels;
+		for (int row = startY; row < endY; row++) {
+			int dx = startX - left;
+			int dy = row - top;
+			int s = (y_src + y0 + dx * ay + dy * by) * stride + x_src + x0 + dx * ax + dy * bx;
+			int d = row * this.width + startX;
+			for (int col = startX; col < endX; col++, s += step, d++) {
+				int p = src[s];
+				int a = p >>> 24;
+				if (a == 0xFF) {
+					dst[d] = p;
+				} else if (a != 0) {
+					dst[d] = blend(p, dst[d]);
+				}
+			}
+		}
+	}
+
+	@Override
+	public void drawRGB(int[] rgbData, int offset, int scanlength,
+						int x, int y, int width, int height, boolean processAlpha) {
+		if (rgbData == null) {
+			throw new NullPointerException();
+		}
+		if (width <= 0 || height <= 0) {
+			return;
+		}
+		if (offset < 0 || offset > rgbData.length) {
+			throw new ArrayIndexOutOfBoundsException();
+		}
+		if (scanlength > 0) {
+			if (offset + scanlength * (height - 1) + width > rgbData.length) {
+				throw new ArrayIndexOutOfBoundsException();
+			}
+		} else {
+			if (offset + width > rgbData.length || offset + scanlength * (height - 1) < 0) {
+				throw new ArrayIndexOutOfBoundsException();
+			}
+		}
+		x += translateX;
+		y += translateY;
+		int startX = Math.max(x, clipLeft);
+		int endX = Math.min(x + width, clipRight);
+		int startY = Math.max(y, clipTop);
+		int endY = Math.min(y + height, clipBottom);
+		if (startX >= endX || startY >= endY) return;
+
+		int[] dst = pixels;
+		for (int row = startY; row < endY; row++) {
+			int s = offset + (row - y) * scanlength + startX - x;
+			int d = row * this.width + startX;
+			if (!processAlpha) {
+				for (int col = startX; col < endX; col++) {
+					dst[d++] = rgbData[s++] | 0xFF000000;
+				}
+				continue;
+			}
+			for (int col = startX; col < endX; col++, s++, d++) {
+				int p = rgbData[s];
+				int a = p >>> 24;
+				if (a == 0xFF) {
+					dst[d] = p;
+				} else if (a != 0) {
+					dst[d] = blend(p, dst[d]);
+				}
+			}
+		}
+	}
+
+	@Override
+	public void copyArea(int x_src, int y_src, int width, int height, int x_dest, int y_dest, int anchor) {
+		if (width <= 0 || height <= 0) return;
+		x_src += translateX;
+		y_src += translateY;
+		if (x_src < 0 || y_src < 0 || x_src + width > raster.width || y_src + height > raster.height) {
+			throw new IllegalArgumentException("Area is out of bounds");
+		}
+		int size = width * height;
+		int[] buffer = copyBuffer;
+		if (buffer == null || buffer.length < size) {
+			copyBuffer = buffer = new int[size];
+		}
+		raster.getRGB(buffer, 0, width, x_src, y_src, width, height);
+		int dx = anchorX(x_dest, width, anchor);
+		int dy = anchorY(y_dest, height, anchor);
+		drawRGB(buffer, 0, width, dx, dy, width, height, false);
+	}
+
+	private void drawGlyph(char c, int x, int y) {
+		int scale = font.getScale();
+		int glyphWidth = RasterFont.getGlyphWidth();
+		int glyphHeight = RasterFont.getGlyphHeight();
+		x += translateX;
+		y += translateY;
+		for (int col = 0; col < glyphWidth; col++) {
+			int bits = RasterFont.getColumn(c, col);
+			if (bits == 0) {
+				continue;
+			}
+			int left = x + col * scale;
+			for (int row = 0; row < glyphHeight; row++) {
+				if ((bits & (1 << row)) == 0) {
+					continue;
+				}
+				int top = y + row * scale;
+				for (int i = 0; i < scale; i++) {
+					fillSpan(top + i, left, left + scale);
+				}
+			}
+		}
+	}
+
+	private int anchorTextX(int x, int width, int anchor) {
+		if ((anchor & RIGHT) != 0) {
+			return x - width;
+		} else if ((anchor & HCENTER) != 0) {
+			return x - width / 2;
+		}
+		return x;
+	}
+
+	/** @return top of the text line */
+	private int anchorTextY(int y, int anchor) {
+		if ((anchor & BOTTOM) != 0) {
+			return y - font.getHeight();
+		} else if ((anchor & VCENTER) != 0) {
+			return y - font.getHeight() / 2;
+		} else if ((anchor & BASELINE) != 0) {
+			return y - font.getBaselinePosition();
+		}
+		return y;
+	}
+
+	private static int anchorX(int x, int width, int anchor) {
+		if ((anchor & RIGHT) != 0) {
+			return x - width;
+		} else if ((anchor & HCENTER) != 0) {
+			return x - width / 2;
+		}
+		return x;
+	}
+
+	private static int anchorY(int y, int height, int anchor) {
+		if ((anchor & BOTTOM) != 0) {
+			return y - height;
+		} else if ((anchor & VCENTER) != 0) {
+			return y - height / 2;
+		}
+		return y;
+	}
+
+	/**
+	 * Computes the pixels of the row covered by a rounded rectangle
+	 * (an ellipse when the arc sizes are equal to the rectangle size).
+	 *
+	 * @return false if the row does not intersect the shape,
+	 * otherwise the span is stored in {@link #spanLeft} and {@link #spanRight}
+	 */
+	private boolean roundRectSpan(int row, int x, int y, int width, int height, int arcWidth, int arcHeight) {
+		if (width <= 0 || height <= 0 || row < y || row >= y + height) {
+			return false;
+		}
+		arcWidth = Math.min(arcWidth, width);
+		arcHeight = Math.min(arcHeight, height);
+		float inset = 0;
+		if (arcWidth > 0 && arcHeight > 0) {
+			float rx = arcWidth / 2.0f;
+			float ry = arcHeight / 2.0f;
+			float cy = row + 0.5f;
+			float dy = 0;
+			if (cy < y + ry) {
+				dy = y + ry - cy;
+			} else if (cy > y + height - ry) {
+				dy = cy - (y + height - ry);
+			}
+			if (dy > 0) {
+				float k = dy / ry;
+				inset = rx - rx * (float) Math.sqrt(Math.max(0, 1 - k * k));
+			}
+		}
+		int left = (int) Math.ceil(x + inset - 0.5f);
+		int right = (int) Math.floor(x + width - inset - 0.5f) + 1;
+		if (left >= right) {
+			return false;
+		}
+		spanLeft = left;
+		spanRight = right;
+		return true;
+	}
+
+	/** Fills the part of the row covered by the outer shape but not by the inner one */
+	private void fillRingSpan(int row,
+							  int ox, int oy, int ow, int oh, int oaw, int oah,
+							  int ix, int iy, int iw, int ih, int iaw, int iah,
+							  int startAngle, int arcAngle) {
+		if (!roundRectSpan(row, ox, oy, ow, oh, oaw, oah)) {
+			return;
+		}
+		int outerLeft = spanLeft;
+		int outerRight = spanRight;
+		int innerLeft = outerRight;
+		int innerRight = outerRight;
+		if (roundRectSpan(row, ix, iy, iw, ih, iaw, iah)) {
+			innerLeft = spanLeft;
+			innerRight = spanRight;
+		}
+		if (arcAngle >= 360) {
+			fillSpan(row, outerLeft, innerLeft);
+			fillSpan(row, innerRight, outerRight);
+			return;
+		}
+		for (int col = outerLeft; col < outerRight; col++) {
+			if (col == innerLeft) {
+				col = innerRight - 1;
+				continue;
+			}
+			if (inSweep(col, row, ox, oy, ow, oh)) {
+				plot(col, row);
+			}
+		}
+	}
+
+	/** Prepares {@link #inSweep} for the arc, angles are in degrees counter-clockwise */
+	private void setSweep(int startAngle, int arcAngle) {
+		double start = Math.toRadians(startAngle);
+		double end = Math.toRadians(startAngle + arcAngle);
+		sweepStartX = (float) Math.cos(start);
+		sweepStartY = (float) Math.sin(start);
+		sweepEndX = (float) Math.cos(end);
+		sweepEndY = (float) Math.sin(end);
+		sweepConvex = arcAngle <= 180;
+	}
+
+	/** Tests the direction to the pixel centre in the coordinates normalized to a circle */
+	private boolean inSweep(int col, int row, int x, int y, int width, int height) {
+		float dx = (col + 0.5f - x - width / 2.0f) / width;
+		float dy = (y + height / 2.0f - row - 0.5f) / height;
+		float fromStart = sweepStartX * dy - sweepStartY * dx;
+		float toEnd = dx * sweepEndY - dy * sweepEndX;
+		if (sweepConvex) {
+			return fromStart >= 0 && toEnd >= 0;
+		}
+		return fromStart >= 0 || toEnd >= 0;
+	}
+
+	private void plot(int x, int y) {
+		if (x < clipLeft || x >= clipRight || y < clipTop || y >= clipBottom) {
+			return;
+		}
+		int i = y * width + x;
+		int c = color;
+		pixels[i] = c >>> 24 == 0xFF ? c : blend(c, pixels[i]);
+	}
+
+	/** Fills the absolute pixels [left, right) of the row */
+	private void fillSpan(int row, int left, int right) {
+		if (row < clipTop || row >= clipBottom) {
+			return;
+		}
+		left = Math.max(left, clipLeft);
+		right = Math.min(right, clipRight);
+		if (left >= right) {
+			return;
+		}
+		int c = color;
+		int offset = row * width;
+		int a = c >>> 24;
+		if (a == 0xFF) {
+			Arrays.fill(pixels, offset + left, offset + right, c);
+		} else if (a != 0) {
+			for (int i = offset + left, end = offset + right; i < end; i++) {
+				pixels[i] = blend(c, pixels[i]);
+			}
+		}
+	}
+
+	/** Non-premultiplied source-over composition */
+	static int blend(int src, int dst) {
+		int sa = src >>> 24;
+		int da = dst >>> 24;
+		if (da == 0) {
+			return src;
+		}
+		int dw = da * (255 - sa) / 255;
+		int oa = sa + dw;
+		int r = (((src >> 16) & 0xFF) * sa + ((dst >> 16) & 0xFF) * dw) / oa;
+		int g = (((src >> 8) & 0xFF) * sa + ((dst >> 8) & 0xFF) * dw) / oa;
+		int b = ((src & 0xFF) * sa + (dst & 0xFF) * dw) / oa;
+		return oa << 24 | r << 16 | g << 8 | b;
+	}
+}
@@ -241,6 +241,8 @@ public class Graphics3D {
 			throw new Error();
 		}
 		currentTarget = null;
+		// end of frame, free the peers of the objects collected meanwhile
+		Platform.releaseCollected();
 	}
 
 	/**
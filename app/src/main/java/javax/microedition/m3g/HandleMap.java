@@ -0,0 +1,171 @@
+/*
+ * Copyright 2026 Yury Kharchenko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package javax.microedition.m3g;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Map of native handles to weakly referenced Java peers.
+ * Keys are kept unboxed in the entries of an open addressing table with linear probing.
+ * Lookups do not lock, updates are serialized. Removed entries leave a tombstone,
+ * so a concurrent lookup never misses an entry moved by the removal of another one.
+ * Entries of collected peers are removed on the next update.
+ */
+final class HandleMap {
+	private static final int MIN_CAPACITY = 64;
+	private static final Entry TOMBSTONE = new Entry(0, null, null);
+
+	private final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+	private volatile AtomicReferenceArray<Entry> table = new AtomicReferenceArray<>(MIN_CAPACITY);
+	/** Number of live entries */
+	private int size;
+	/** Number of live entries and tombstones, the table is rebuilt when it is half full */
+	private int used;
+
+	/**
+	 * Returns the peer of the handle, or null if there is none or it has been collected
+	 */
+	Object get(long handle) {
+		AtomicReferenceArray<Entry> table = this.table;
+		int mask = table.length() - 1;
+		int i = hash(handle) & mask;
+		Entry entry;
+		while ((entry = table.get(i)) != null) {
+			if (entry.handle == handle && entry != TOMBSTONE) {
+				return entry.get();
+			}
+			i = (i + 1) & mask;
+		}
+		return null;
+	}
+
+	synchronized void put(long handle, Object obj) {
+		purge();
+		Entry entry = new Entry(handle, obj, queue);
+		AtomicReferenceArray<Entry> table = this.table;
+		int i = indexOf(table, handle);
+		if (i >= 0) {
+			table.set(i, entry);
+			return;
+		}
+		int mask = table.length() - 1;
+		i = hash(handle) & mask;
+		Entry current;
+		while ((current = table.get(i)) != null && current != TOMBSTONE) {
+			i = (i + 1) & mask;
+		}
+		table.set(i, entry);
+		size++;
+		if (current == null && ++used > table.length() >> 1) {
+			rebuild();
+		}
+	}
+
+	/**
+	 * Removes the entry of the handle if its peer has been collected
+	 */
+	synchronized void removeCleared(long handle) {
+		AtomicReferenceArray<Entry> table = this.table;
+		int i = indexOf(table, handle);
+		if (i >= 0 && table.get(i).get() == null) {
+			table.set(i, TOMBSTONE);
+			size--;
+		}
+	}
+
+	synchronized int size() {
+		purge();
+		return size;
+	}
+
+	synchronized boolean isEmpty() {
+		return size() == 0;
+	}
+
+	private void purge() {
+		AtomicReferenceArray<Entry> table = this.table;
+		Entry entry;
+		while ((entry = (Entry) queue.poll()) != null) {
+			int i = indexOf(table, entry.handle);
+			// the handle may have been taken by a new peer meanwhile
+			if (i >= 0 && table.get(i) == entry) {
+				table.set(i, TOMBSTONE);
+				size--;
+			}
+		}
+	}
+
+	private static int indexOf(AtomicReferenceArray<Entry> table, long handle) {
+		int mask = table.length() - 1;
+		int i = hash(handle) & mask;
+		Entry entry;
+		while ((entry = table.get(i)) != null) {
+			if (entry.handle == handle && entry != TOMBSTONE) {
+				return i;
+			}
+			i = (i + 1) & mask;
+		}
+		return -1;
+	}
+
+	/**
+	 * Copies the live entries to a new table, which is published when it is complete
+	 */
+	private void rebuild() {
+		AtomicReferenceArray<Entry> old = table;
+		int capacity = MIN_CAPACITY;
+		while (size > capacity >> 2) {
+			capacity <<= 1;
+		}
+		AtomicReferenceArray<Entry> table = new AtomicReferenceArray<>(capacity);
+		int mask = capacity - 1;
+		for (int i = 0; i < old.length(); i++) {
+			Entry entry = old.get(i);
+			if (entry == null || entry == TOMBSTONE) {
+				continue;
+			}
+			int j = hash(entry.handle) & mask;
+			while (table.get(j) != null) {
+				j = (j + 1) & mask;
+			}
+			table.set(j, entry);
+		}
+		used = size;
+		this.table = table;
+	}
+
+	/**
+	 * Native handles are aligned pointers, the bits are mixed to spread them over the table
+	 */
+	private static int hash(long handle) {
+		handle ^= handle >>> 33;
+		handle *= 0xff51afd7ed558ccdL;
+		handle ^= handle >>> 33;
+		return (int) handle;
+	}
+
+	private static final class Entry extends WeakReference<Object> {
+		final long handle;
+
+		Entry(long handle, Object obj, ReferenceQueue<Object> queue) {
+			super(obj, queue);
+			this.handle = handle;
+		}
+	}
+}
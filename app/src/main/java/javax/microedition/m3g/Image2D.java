@@ -42,10 +42,12 @@ public class Image2D extends Object3D {
 		// otherwise throws exception Done this way because class of
 		// image cannot be checked befor calling super()
 		super(Image2D.checkAndCreate(format, image));
+		Platform.registerSize(this);
 	}
 
 	public Image2D(int format, int width, int height, byte[] image) {
 		super(createHandle(format, width, height, image));
+		Platform.registerSize(this);
 	}
 
 	public Image2D(int format,
@@ -53,14 +55,17 @@ public class Image2D extends Object3D {
 				   byte[] image,
 				   byte[] palette) {
 		super(createHandle(format, width, height, image, palette));
+		Platform.registerSize(this);
 	}
 
 	public Image2D(int format, int width, int height) {
 		super(createHandle(format, width, height));
+		Platform.registerSize(this);
 	}
 
 	Image2D(long handle) {
 		super(handle);
+		Platform.registerSize(this);
 	}
 
 	//------------------------------------------------------------------
@@ -94,7 +99,7 @@ public class Image2D extends Object3D {
 	// Private methods
 	//------------------------------------------------------------------
 
-	private static int getBytesPerPixel(int format) {
+	static int getBytesPerPixel(int format) {
 		switch (format) {
 			case ALPHA:
 			case LUMINANCE:
@@ -17,9 +17,6 @@
 
 package javax.microedition.m3g;
 
-import java.lang.ref.WeakReference;
-import java.util.Hashtable;
-
 /**
  * M3G interface object. An interface is automatically created for
  * each MIDlet using the 3D API to keep track of Java-side object
@@ -80,7 +77,7 @@ class Interface {
 	 * counterparts of objects returned from the native methods, and
 	 * keep certain objects from being garbage collected.
 	 */
-	private final Hashtable liveObjects = new Hashtable();
+	private final HandleMap liveObjects = new HandleMap();
 
 	/**
 	 * Flag for shutdown signal
@@ -144,34 +141,20 @@ class Interface {
 	 * set at this point!
 	 */
 	static void register(Object3D obj) {
-		getInstance().liveObjects.put(Long.valueOf(obj.handle),
-				new WeakReference(obj));
+		getInstance().liveObjects.put(obj.handle, obj);
 	}
 
 	static void register(Loader obj) {
-		getInstance().liveObjects.put(Long.valueOf(obj.handle),
-				new WeakReference(obj));
+		getInstance().liveObjects.put(obj.handle, obj);
 	}
 
 	/**
-	 * Finds an Object3D in the global handle-to-object map. Also
-	 * removes dead objects (that is, null references) from the map
-	 * upon encountering them.
+	 * Finds an Object3D in the global handle-to-object map. Dead
+	 * objects (that is, cleared references) are removed from the map
+	 * on its next update.
 	 */
 	static Object3D findObject(long handle) {
-		Interface self = getInstance();
-		Long iHandle = Long.valueOf(handle);
-		Object ref = self.liveObjects.get(iHandle);
-
-		if (ref != null) {
-			Object3D obj = (Object3D) ((WeakReference) ref).get();
-			if (obj == null) {
-				self.liveObjects.remove(iHandle);
-			}
-			return obj;
-		} else {
-			return null;
-		}
+		return (Object3D) getInstance().liveObjects.get(handle);
 	}
 
 	/**
@@ -250,20 +233,11 @@ class Interface {
 	}
 
 	/**
-	 * Forces removal of an object from the handle-to-object map.
-	 */
-	static void deregister(Object3D obj, Interface self) {
-		self.liveObjects.remove(Long.valueOf(obj.handle));
-		if (self.liveObjects.isEmpty() && self.iShutdown) {
-			self.registeredFinalize();
-		}
-	}
-
-	/**
-	 * Forces removal of an object from the handle-to-object map.
+	 * Removes a collected object from the handle-to-object map. The
+	 * entry is kept if the handle already has a new Java peer.
 	 */
-	static void deregister(Loader obj, Interface self) {
-		self.liveObjects.remove(Long.valueOf(obj.handle));
+	static void deregister(long handle, Interface self) {
+		self.liveObjects.removeCleared(handle);
 		if (self.liveObjects.isEmpty() && self.iShutdown) {
 			self.registeredFinalize();
 		}
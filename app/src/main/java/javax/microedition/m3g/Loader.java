@@ -85,20 +85,10 @@ public class Loader {
 	private byte[] iStreamData = null;
 	private int iStreamOffset = 0;
 
-	private Interface iInterface;
-
-	//#ifdef RD_JAVA_OMJ
-	@Override
-	protected void finalize() {
-		doFinalize();
-	}
-//#endif // RD_JAVA_OMJ
-
 	/**
 	 * Default ctor
 	 */
 	private Loader() {
-		iInterface = Interface.getInstance();
 	}
 
 	/**
@@ -110,7 +100,6 @@ public class Loader {
 	private Loader(Vector aFileHistory, String aParentResourceName) {
 		iParentResourceName = aParentResourceName;
 		iFileHistory = aFileHistory;
-		iInterface = Interface.getInstance();
 	}
 
 	public static Object3D[] load(String name) throws IOException {
@@ -457,6 +446,7 @@ public class Loader {
 		/* Create and register a new native Loader */
 		handle = _ctor(Interface.getHandle());
 		Interface.register(this);
+		Platform.registerFinalizer(this);
 
 		if (externalLinks) {
 			if (aStream instanceof PeekInputStream)
@@ -479,30 +469,37 @@ public class Loader {
 		else if (aStream.markSupported())
 			aStream.reset(); // Reset is supported in ByteArrayInputStreams
 
-		int read = 0;
-		int size = aStream.available();
-
-		if (size == 0) {
-			size = 2048;    // start with some size
+		if (iTotalFileSize < M3G_FILE_IDENTIFIER.length
+				|| iStreamData != null && iTotalFileSize > iStreamData.length - iStreamOffset) {
+			throw new IOException("Invalid file length [" + iResourceName + "].");
 		}
-
+		byte[] file = new byte[iTotalFileSize];
+		int read = 0;
 		while (read < iTotalFileSize) {
-			if (read + size > iTotalFileSize) {
-				size = iTotalFileSize - read;
-			}
-			// Use native loader to load objects
-			byte[] data = new byte[size];
-			if (aStream.read(data) == -1) {
-				break;
+			int n = aStream.read(file, read, iTotalFileSize - read);
+			if (n == -1) {
+				throw new IOException("Invalid file length [" + iResourceName + "].");
 			}
-			read += size;
+			read += n;
+		}
 
-			size = _decodeData(handle, 0, data);
-			if (size > 0 && aStream.available() > size) {
-				size = aStream.available();
+		// Use native loader to load objects, compressed sections are inflated here in parallel
+		int size;
+		SectionInflater sections = SectionInflater.create(file);
+		if (sections == null) {
+			size = _decodeData(handle, 0, file);
+		} else {
+			size = 0;
+			try {
+				byte[] data;
+				while ((data = sections.next()) != null) {
+					size = _decodeData(handle, 0, data);
+				}
+			} finally {
+				sections.close();
 			}
 		}
-		if (size != 0 || read != iTotalFileSize) {
+		if (size != 0) {
 			throw new IOException("Invalid file length [" + iResourceName + "].");
 		}
 
@@ -861,6 +858,29 @@ public class Loader {
 			return nv;
 		}
 
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (len == 0) {
+				return 0;
+			}
+			int n = 0;
+			while (n < len && iCounter < iBuffered) {
+				b[off + n++] = (byte) iPeekBuffer[iCounter++];
+			}
+			if (n < len) {
+				int r = iStream.read(b, off + n, len - n);
+				if (r == -1) {
+					return n == 0 ? -1 : n;
+				}
+				for (int i = 0; i < r && iBuffered < iPeekBuffer.length; i++) {
+					iPeekBuffer[iBuffered++] = b[off + n + i] & 0xff;
+				}
+				iCounter += r;
+				n += r;
+			}
+			return n;
+		}
+
 		public void increasePeekBuffer(int aLength) {
 			int[] temp = new int[iPeekBuffer.length + aLength];
 			System.arraycopy(iPeekBuffer, 0, temp, 0, iBuffered);
@@ -930,22 +950,6 @@ public class Loader {
 		}
 	}
 
-	//#ifdef RD_JAVA_OMJ
-	private void doFinalize() {
-		registeredFinalize();
-	}
-//#endif // RD_JAVA_OMJ
-
-	// Finalization method for Symbian
-	private void registeredFinalize() {
-		if (handle != 0) {
-			Platform.finalizeObject(handle, iInterface);
-			Interface.deregister(this, iInterface);
-			iInterface = null;
-			handle = 0;
-		}
-	}
-
 	// zlib decompression
 	private native static boolean _inflate(byte[] data, byte[] buffer);
 
@@ -27,15 +27,11 @@ public abstract class Object3D {
 	//------------------------------------------------------------------
 
 	long handle;
+	/** Tracks the release of the native object, set once registered */
+	Platform.NativePeer peer;
 
 	private Object userObject;
 	private Vector animTracks;
-	private Interface iInterface;
-
-	@Override
-	protected void finalize() {
-		doFinalize();
-	}
 
 	//------------------------------------------------------------------
 	// Constructor(s)
@@ -49,10 +45,10 @@ public abstract class Object3D {
 			this.handle = handle;
 			_addRef(handle);
 
-			// Get associated Interafece object and
-			// register this instance with that
-			iInterface = Interface.getInstance();
+			// Register this instance with the associated Interface
+			// object and release the native reference once collected
 			Interface.register(this);
+			Platform.registerFinalizer(this);
 
 			int n = _getAnimationTrackCount(handle);
 			while (n-- > 0) {
@@ -168,21 +164,6 @@ public abstract class Object3D {
 		animTracks.addElement(track);
 	}
 
-	/**
-	 * Native peer finalization
-	 */
-	private void doFinalize() {
-		if (handle != 0) {
-			// finalize native peer
-			Platform.finalizeObject(handle, iInterface);
-			Interface.deregister(this, iInterface);
-
-			// reset handles
-			iInterface = null;
-			handle = 0;
-		}
-	}
-
 	// Native methods
 	private static native int _addAnimationTrack(long hObject, long hAnimationTrack);
 
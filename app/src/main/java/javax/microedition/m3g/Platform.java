@@ -21,6 +21,12 @@
 
 package javax.microedition.m3g;
 
+import android.util.Log;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.util.HashSet;
+
 import javax.microedition.lcdui.Graphics;
 import javax.microedition.lcdui.Image;
 
@@ -35,6 +41,23 @@ class Platform {
 	 */
 	private static boolean libraryLoaded = false;
 
+	private static final String TAG = "M3G";
+
+	/**
+	 * Receives the peers of collected objects, they are released by {@link #releaseCollected()}
+	 */
+	private static final ReferenceQueue<Object> releaseQueue = new ReferenceQueue<>();
+
+	/**
+	 * Peers of the registered objects, keeps the references reachable until they are enqueued
+	 */
+	private static final HashSet<NativePeer> livePeers = new HashSet<>();
+
+	/**
+	 * Estimated size of the native data of the live peers
+	 */
+	private static long liveBytes;
+
 	//------------------------------------------------------------------
 	// Package private methods
 	//------------------------------------------------------------------
@@ -75,11 +98,29 @@ class Platform {
 	}
 
 	/**
-	 * Registers an Object3D in the global handle-to-object map. The
-	 * handle of the object must already be set at this point!
+	 * Registers an Object3D for the release of its native peer after
+	 * the object is collected. The handle of the object must already
+	 * be set at this point!
 	 */
 	static void registerFinalizer(Object3D obj) {
-		//heuristicGC();
+		obj.peer = register(obj, obj.handle);
+	}
+
+	/**
+	 * Counts the data of a constructed image or vertex array in the
+	 * live bytes. Called at the end of their constructors, the object
+	 * is not queried while its superclass is still being constructed.
+	 */
+	static void registerSize(Object3D obj) {
+		NativePeer peer = obj.peer;
+		if (peer == null) {
+			return;
+		}
+		int size = estimateSize(obj);
+		synchronized (livePeers) {
+			liveBytes += size - peer.size;
+			peer.size = size;
+		}
 	}
 
 	/**
@@ -100,6 +141,53 @@ class Platform {
 	 * Registers a Loader object for finalization
 	 */
 	static void registerFinalizer(Loader loader) {
+		register(loader, loader.handle);
+	}
+
+	/**
+	 * Releases the native peers of the objects collected since the last
+	 * call. Called at frame boundaries and before native objects are
+	 * created, so native memory does not wait for the finalizer thread.
+	 */
+	static void releaseCollected() {
+		NativePeer peer = (NativePeer) releaseQueue.poll();
+		if (peer == null) {
+			return;
+		}
+		int count = 0;
+		long bytes = 0;
+		synchronized (livePeers) {
+			do {
+				livePeers.remove(peer);
+				liveBytes -= peer.size;
+				bytes += peer.size;
+				count++;
+				finalizeObject(peer.handle, peer.iInterface);
+				Interface.deregister(peer.handle, peer.iInterface);
+				peer = (NativePeer) releaseQueue.poll();
+			} while (peer != null);
+		}
+		Log.d(TAG, "Released " + count + " native objects (" + bytes + " bytes), live: "
+				+ getLiveObjectCount() + " objects, " + getLiveBytes() + " bytes");
+	}
+
+	/**
+	 * Returns the number of native peers not released yet
+	 */
+	static int getLiveObjectCount() {
+		synchronized (livePeers) {
+			return livePeers.size();
+		}
+	}
+
+	/**
+	 * Returns the estimated size of the data of the native peers not
+	 * released yet. Only images and vertex arrays are counted.
+	 */
+	static long getLiveBytes() {
+		synchronized (livePeers) {
+			return liveBytes;
+		}
 	}
 
 	/**
@@ -171,6 +259,46 @@ class Platform {
 	 * Trigger GC if minimum free memory limit has been exceeded in the native side
 	 */
 	static void heuristicGC() {
+		releaseCollected();
+	}
+
+	private static NativePeer register(Object obj, long handle) {
+		if (handle == 0) {
+			return null;
+		}
+		NativePeer peer = new NativePeer(obj, handle);
+		synchronized (livePeers) {
+			livePeers.add(peer);
+		}
+		return peer;
+	}
+
+	private static int estimateSize(Object3D obj) {
+		if (obj instanceof Image2D) {
+			Image2D image = (Image2D) obj;
+			return image.getWidth() * image.getHeight() * Image2D.getBytesPerPixel(image.getFormat());
+		} else if (obj instanceof VertexArray) {
+			VertexArray array = (VertexArray) obj;
+			return array.getVertexCount() * array.getComponentCount() * array.getComponentType();
+		}
+		return 0;
+	}
+
+	/**
+	 * Phantom reference holding what is needed to release a native peer
+	 * after its Java object has been collected
+	 */
+	static final class NativePeer extends PhantomReference<Object> {
+		final long handle;
+		final Interface iInterface;
+		/** Guarded by livePeers */
+		int size;
+
+		NativePeer(Object obj, long handle) {
+			super(obj, releaseQueue);
+			this.handle = handle;
+			iInterface = Interface.getInstance();
+		}
 	}
 
 	private static native void _finalizeObject(long handle);
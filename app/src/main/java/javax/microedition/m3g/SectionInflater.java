@@ -0,0 +1,263 @@
+/*
+ * Copyright 2026 Yury Kharchenko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package javax.microedition.m3g;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.Adler32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Splits an M3G file into its sections and inflates the compressed ones ahead
+ * of the native loader, several at a time on a small pool of threads.
+ * The sections are handed out in the file order, rewritten as uncompressed sections,
+ * with the total file size in the header patched to match.
+ */
+final class SectionInflater {
+	/** Compression scheme, total section length and uncompressed length */
+	private static final int SECTION_HEADER_LENGTH = 1 + 4 + 4;
+	private static final int CHECKSUM_LENGTH = 4;
+	private static final int SECTION_OVERHEAD = SECTION_HEADER_LENGTH + CHECKSUM_LENGTH;
+	/** Object type and length of the header object, version and external references flag */
+	private static final int FILE_SIZE_OFFSET = SECTION_HEADER_LENGTH + 1 + 4 + 2 + 1;
+	private static final int THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+	/** Number of sections inflated ahead of the one being decoded */
+	private static final int WINDOW = THREADS * 2;
+
+	private static ExecutorService executor;
+
+	private final byte[] file;
+	private final int[] offsets;
+	private final List<Future<byte[]>> pending;
+	private final int newFileSize;
+	private int next;
+	private int submitted;
+
+	private SectionInflater(byte[] file, int[] offsets, int newFileSize) {
+		this.file = file;
+		this.offsets = offsets;
+		this.newFileSize = newFileSize;
+		pending = new ArrayList<>(Collections.nCopies(offsets.length, null));
+	}
+
+	/**
+	 * Scans the section headers of a complete M3G file.
+	 *
+	 * @return null if the file has no compressed sections or its layout is not understood,
+	 * the file is then decoded as is
+	 */
+	static SectionInflater create(byte[] file) {
+		int pos = Loader.M3G_FILE_IDENTIFIER.length;
+		int[] offsets = new int[16];
+		int count = 0;
+		int newFileSize = pos;
+		boolean compressed = false;
+		while (pos < file.length) {
+			if (file.length - pos < SECTION_OVERHEAD) {
+				return null;
+			}
+			int scheme = file[pos];
+			int length = getInt(file, pos + 1);
+			int uncompressedLength = getInt(file, pos + 5);
+			if (scheme < 0 || scheme > 1 || length < SECTION_OVERHEAD
+					|| length > file.length - pos || uncompressedLength < 0) {
+				return null;
+			}
+			if (isCompressed(file, pos)) {
+				if (count == 0) {
+					// the header section is never compressed
+					return null;
+				}
+				compressed = true;
+				newFileSize += SECTION_OVERHEAD + uncompressedLength;
+			} else {
+				newFileSize += length;
+			}
+			if (count == offsets.length) {
+				offsets = Arrays.copyOf(offsets, count * 2);
+			}
+			offsets[count++] = pos;
+			pos += length;
+		}
+		if (!compressed || newFileSize < 0) {
+			return null;
+		}
+		int header = offsets[0];
+		int headerLength = getInt(file, header + 1);
+		// the patched header gets a new checksum, a broken one is left to the native loader
+		if (headerLength < FILE_SIZE_OFFSET + 4 + CHECKSUM_LENGTH
+				|| file[header + SECTION_HEADER_LENGTH] != 0
+				|| getInt(file, header + FILE_SIZE_OFFSET) != file.length
+				|| getChecksum(file, header, headerLength - CHECKSUM_LENGTH)
+				!= getInt(file, header + headerLength - CHECKSUM_LENGTH)) {
+			return null;
+		}
+		return new SectionInflater(file, Arrays.copyOf(offsets, count), newFileSize);
+	}
+
+	/**
+	 * Returns the data of the next section, starting with the file identifier and the header section
+	 *
+	 * @return null after the last section
+	 */
+	byte[] next() throws IOException {
+		int index = next;
+		if (index == offsets.length) {
+			return null;
+		}
+		next++;
+		if (index == 0) {
+			return patchHeader();
+		}
+		while (submitted < offsets.length && submitted <= index + WINDOW) {
+			submit(submitted++);
+		}
+		int pos = offsets[index];
+		Future<byte[]> future = pending.set(index, null);
+		if (future == null) {
+			return Arrays.copyOfRange(file, pos, pos + getInt(file, pos + 1));
+		}
+		try {
+			return future.get();
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			throw new IOException("Decompression error.", cause);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Loading interrupted.", e);
+		}
+	}
+
+	/**
+	 * Cancels the sections not taken yet
+	 */
+	void close() {
+		for (int i = 0; i < pending.size(); i++) {
+			Future<byte[]> future = pending.set(i, null);
+			if (future != null) {
+				future.cancel(false);
+			}
+		}
+		next = offsets.length;
+	}
+
+	private void submit(int index) {
+		if (index == 0) {
+			return;
+		}
+		int pos = offsets[index];
+		if (isCompressed(file, pos)) {
+			byte[] file = this.file;
+			pending.set(index, getExecutor().submit(() -> inflateSection(file, pos)));
+		}
+	}
+
+	private byte[] patchHeader() {
+		int pos = offsets[0];
+		int length = getInt(file, pos + 1);
+		byte[] data = Arrays.copyOf(file, pos + length);
+		putInt(data, pos + FILE_SIZE_OFFSET, newFileSize);
+		putChecksum(data, pos, length - CHECKSUM_LENGTH);
+		return data;
+	}
+
+	/**
+	 * Inflates a compressed section into an uncompressed one, after checking its checksum
+	 */
+	private static byte[] inflateSection(byte[] file, int pos) throws IOException {
+		int length = getInt(file, pos + 1);
+		int uncompressedLength = getInt(file, pos + 5);
+		if (getChecksum(file, pos, length - CHECKSUM_LENGTH) != getInt(file, pos + length - CHECKSUM_LENGTH)) {
+			throw new IOException("Section checksum mismatch.");
+		}
+		byte[] section = new byte[SECTION_OVERHEAD + uncompressedLength];
+		putInt(section, 1, section.length);
+		putInt(section, 5, uncompressedLength);
+		Inflater inflater = new Inflater();
+		try {
+			inflater.setInput(file, pos + SECTION_HEADER_LENGTH, length - SECTION_OVERHEAD);
+			int inflated = 0;
+			while (inflated < uncompressedLength) {
+				int n = inflater.inflate(section, SECTION_HEADER_LENGTH + inflated, uncompressedLength - inflated);
+				if (n == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+					break;
+				}
+				inflated += n;
+			}
+			if (inflated != uncompressedLength) {
+				throw new IOException("Decompression error.");
+			}
+		} catch (DataFormatException e) {
+			throw new IOException("Decompression error.", e);
+		} finally {
+			inflater.end();
+		}
+		putChecksum(section, 0, section.length - CHECKSUM_LENGTH);
+		return section;
+	}
+
+	private static boolean isCompressed(byte[] file, int pos) {
+		// empty compressed sections are passed as is
+		return file[pos] == 1 && getInt(file, pos + 5) > 0;
+	}
+
+	private static synchronized ExecutorService getExecutor() {
+		if (executor == null) {
+			executor = Executors.newFixedThreadPool(THREADS, r -> {
+				Thread thread = new Thread(r, "M3G-Inflater");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		return executor;
+	}
+
+	private static void putChecksum(byte[] data, int pos, int length) {
+		putInt(data, pos + length, getChecksum(data, pos, length));
+	}
+
+	private static int getChecksum(byte[] data, int pos, int length) {
+		Adler32 adler = new Adler32();
+		adler.update(data, pos, length);
+		return (int) adler.getValue();
+	}
+
+	private static int getInt(byte[] data, int pos) {
+		return (data[pos] & 0xff)
+				| (data[pos + 1] & 0xff) << 8
+				| (data[pos + 2] & 0xff) << 16
+				| (data[pos + 3] & 0xff) << 24;
+	}
+
+	private static void putInt(byte[] data, int pos, int value) {
+		data[pos] = (byte) value;
+		data[pos + 1] = (byte) (value >> 8);
+		data[pos + 2] = (byte) (value >> 16);
+		data[pos + 3] = (byte) (value >> 24);
+	}
+}
@@ -26,12 +26,14 @@ public class VertexArray extends Object3D {
 		super(createHandle(numVertices,
 				numComponents,
 				componentSize));
+		Platform.registerSize(this);
 	}
 
 	/**
 	 */
 	VertexArray(long handle) {
 		super(handle);
+		Platform.registerSize(this);
 	}
 
 	//------------------------------------------------------------------
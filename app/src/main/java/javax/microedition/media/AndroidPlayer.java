@@ -16,13 +16,18 @@
 
 package javax.microedition.media;
 
+import android.media.MediaDataSource;
 import android.media.MediaPlayer;
+import android.os.Build;
+
+import androidx.annotation.RequiresApi;
 
 import java.io.IOException;
 
 public class AndroidPlayer extends MediaPlayer {
 	private boolean loaded;
 	private String path;
+	private MediaDataSource mediaSource;
 	private float leftVolume, rightVolume;
 	private int timePos;
 	private boolean looping;
@@ -36,6 +41,14 @@ public class AndroidPlayer extends MediaPlayer {
 	@Override
 	public void setDataSource(String path) throws IOException, IllegalArgumentException, IllegalStateException, SecurityException {
 		this.path = path;
+		this.mediaSource = null;
+	}
+
+	@RequiresApi(Build.VERSION_CODES.M)
+	@Override
+	public void setDataSource(MediaDataSource dataSource) throws IllegalArgumentException, IllegalStateException {
+		this.mediaSource = dataSource;
+		this.path = null;
 	}
 
 	@Override
@@ -99,7 +112,11 @@ public class AndroidPlayer extends MediaPlayer {
 	private void load() {
 		if (!loaded) {
 			try {
-				super.setDataSource(path);
+				if (mediaSource != null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+					super.setDataSource(mediaSource);
+				} else {
+					super.setDataSource(path);
+				}
 				super.prepare();
 				super.setVolume(leftVolume, rightVolume);
 				super.setLooping(looping);
@@ -29,40 +29,54 @@ import com.arthenica.mobileffmpeg.StreamInformation;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.RandomAccessFile;
 
 import ru.woesss.j2me.mmapi.FileCacheDataSource;
+import ru.woesss.j2me.mmapi.MediaCache;
+import ru.woesss.j2me.mmapi.pcm.PcmPlugin;
 
 class InternalDataSource extends FileCacheDataSource {
 	private static final String TAG = InternalDataSource.class.getSimpleName();
 
+	private MediaCache.Entry cacheEntry;
+
 	InternalDataSource(InputStream stream, String type) throws IllegalArgumentException, IOException {
-		super(type);
+		this(type, acquire(stream, type));
+	}
 
-		final String name = mediaFile.getName();
-		Log.d(TAG, "Starting media pipe: " + name);
+	private InternalDataSource(String type, MediaCache.Entry entry) {
+		super(type, entry.getFile());
+		cacheEntry = entry;
+	}
 
-		try (RandomAccessFile raf = new RandomAccessFile(mediaFile, "rw")) {
-			int length = stream.available();
-			if (length >= 0) {
-				raf.setLength(length);
-				Log.d(TAG, "Changing file size to " + length + " bytes: " + name);
-			}
-			byte[] buf = new byte[4096];
-			int read;
-			while ((read = stream.read(buf)) != -1) {
-				raf.write(buf, 0, read);
-			}
+	private static MediaCache.Entry acquire(InputStream stream, String type) throws IOException {
+		try {
+			return MediaCache.acquire(stream, type, InternalDataSource::convert);
 		} catch (IOException e) {
 			Log.d(TAG, "Media pipe failure: " + e);
 			throw e;
 		}
-		Log.d(TAG, "Media pipe closed: " + name);
+	}
 
-		convert();
+	/**
+	 * Stage and convert the stream to the media cache ahead of a player creation
+	 */
+	static void prepare(InputStream stream, String type) throws IOException {
+		MediaCache.release(acquire(stream, type));
 	}
 
-	private void convert() {
+	@Override
+	public synchronized void disconnect() {
+		if (cacheEntry != null) {
+			MediaCache.release(cacheEntry);
+			cacheEntry = null;
+		}
+	}
+
+	private static File convert(File mediaFile) {
+		if (PcmPlugin.accepts(mediaFile)) {
+			// decoded in Java, including ADPCM
+			return mediaFile;
+		}
 		try {
 			String path = mediaFile.getPath();
 			MediaInformation mediaInformation = FFprobe.getMediaInformation(path);
@@ -74,17 +88,18 @@ class InternalDataSource extends FileCacheDataSource {
 					int rc = FFmpeg.execute(cmd);
 					if (rc == Config.RETURN_CODE_SUCCESS) {
 						Log.i(TAG, "FFmpeg command execution completed successfully.");
-						if (!mediaFile.delete()) {
-							Log.w(TAG, "convert: error delete file=" + mediaFile);
-						}
-						mediaFile = pcmU8;
+						return pcmU8;
 					} else {
 						Log.w(TAG, "FFmpeg command execution failed with RETURN_CODE=" + rc);
+						if (!pcmU8.delete()) {
+							Log.w(TAG, "convert: error delete file=" + pcmU8);
+						}
 					}
 				}
 			}
 		} catch (Throwable t) {
 			Log.e(TAG, "FFmpeg error", t);
 		}
+		return mediaFile;
 	}
 }
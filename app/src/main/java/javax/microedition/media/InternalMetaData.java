@@ -19,6 +19,7 @@
 package javax.microedition.media;
 
 import android.media.MediaMetadataRetriever;
+import android.os.Build;
 import android.util.Log;
 
 import androidx.collection.SparseArrayCompat;
@@ -74,7 +75,11 @@ public class InternalMetaData implements MetaDataControl {
 	public void updateMetaData(DataSource source) {
 		try {
 			MediaMetadataRetriever retriever = new MediaMetadataRetriever();
-			retriever.setDataSource(source.getLocator());
+			if (source instanceof MemoryDataSource && Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+				retriever.setDataSource(((MemoryDataSource) source).createMediaDataSource());
+			} else {
+				retriever.setDataSource(source.getLocator());
+			}
 			updateMetaData(retriever);
 			retriever.release();
 		} catch (Exception e) {
@@ -16,297 +16,376 @@
 
 package javax.microedition.media;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.DataInputStream;
-import java.io.DataOutputStream;
-import java.io.IOException;
-import java.util.ArrayList;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 
+/**
+ * Single pass SMAF (MMF) to Standard MIDI File transcoder.
+ * Events are written as they are parsed, only pending note-offs are kept aside.
+ */
 public class MMFConverter {
 	static final byte FORMAT_TYPE_HANDY_PHONE = 0x00;
 	static final byte FORMAT_TYPE_MOBILE_STANDARD_COMPRESS = 0x01;
 	static final byte FORMAT_TYPE_MOBILE_STANDARD_NO_COMPRESS = 0x02;
 
-	private abstract static class TrackEvent {
-		int timestamp;
+	private static final int MMMD = 0x4D4D4D44;
+	private static final int CNTI = 0x434E5449;
+	private static final int MTR = 0x4D5452;
+	private static final int MTSQ = 0x4D747371;
 
-		TrackEvent(int timestamp) {
-			this.timestamp = timestamp;
-		}
+	private static final int MAX_CACHE_SIZE = 512 * 1024;
+	private static final LinkedHashMap<String, byte[]> cache = new LinkedHashMap<>(16, 0.75f, true);
+	private static int cacheSize;
 
-		public int getTimestamp() {
-			return timestamp;
-		}
+	private final byte[] data;
+	private int pos;
+	private int end;
 
-		abstract void output(DataOutputStream dos, int currentTime) throws IOException;
-	}
+	private byte[] out = new byte[1024];
+	private int outSize;
+	private int lastTime;
 
-	private static class NOPMessage extends TrackEvent {
-		public NOPMessage(int timestamp) {
-			super(timestamp);
-		}
+	/** Min-heap of pending note-offs, ordered by time and then by insertion */
+	private long[] offKeys = new long[16];
+	private int[] offEvents = new int[16];
+	private int offCount;
+	private int offSequence;
 
-		@Override
-		void output(DataOutputStream dos, int currentTime) throws IOException {
-			System.out.println(String.format("timestamp: %d, NOP", timestamp));
-		}
-	}
+	private final int[] velocities = new int[16];
 
-	private class EOSMessage extends TrackEvent {
-		public EOSMessage(int timestamp) {
-			super(timestamp);
-		}
+	int timeBaseD;
+	int timeBaseG;
 
-		@Override
-		void output(DataOutputStream dos, int currentTime) throws IOException {
-			writeVariableLengthValue(timestamp - currentTime, dos);
-			dos.write(new byte[]{(byte) 0xFF, 0x2F, 0x00});
-			System.out.println(String.format("timestamp: %d, EOS", timestamp));
-		}
+	public MMFConverter() {
+		data = null;
 	}
 
-	private class NoteMessage extends TrackEvent {
-		int channel;
-		int noteNumber;
-		int keyVelocity;
-		int gateTime;
-		boolean noteOn;
-
-		public NoteMessage(int timestamp, boolean noteOn, int channel, int noteNumber, int keyVelocity, int gateTime) {
-			super(timestamp);
-			this.channel = channel;
-			this.noteOn = noteOn;
-			this.noteNumber = noteNumber;
-			this.keyVelocity = keyVelocity;
-			this.gateTime = gateTime;
-		}
-
-		void output(DataOutputStream dos, int currentTime) throws IOException {
-			// if (channel == 1) return;
-			writeVariableLengthValue(timestamp - currentTime, dos);
-			if (noteOn) {
-				dos.writeByte(0x9F & (0xF0 | channel));
-			} else {
-				dos.writeByte(0x8F & (0xF0 | channel));
-			}
-			dos.writeByte(noteNumber);
-			dos.writeByte(keyVelocity);
-		}
+	private MMFConverter(byte[] data) {
+		this.data = data;
 	}
 
-	private static class ControlChange extends TrackEvent {
-		int channel;
-		int controlNumber;
-		int controlValue;
-
-		public ControlChange(int timestamp, int channel, int controlNumber, int controlValue) {
-			super(timestamp);
-			this.channel = channel;
-			this.controlNumber = controlNumber;
-			this.controlValue = controlValue;
+	/**
+	 * Converts with memoization by content, repeated melodies are transcoded once.
+	 *
+	 * @return MIDI data shared between the callers, must not be modified
+	 */
+	public static byte[] convert(byte[] data) throws Exception {
+		String key = digest(data);
+		synchronized (cache) {
+			byte[] midi = cache.get(key);
+			if (midi != null) {
+				return midi;
+			}
 		}
-
-		@Override
-		void output(DataOutputStream dos, int currentTime) throws IOException {
-			// not implemented
+		byte[] midi = new MMFConverter(data).convert();
+		synchronized (cache) {
+			if (cache.put(key, midi) == null) {
+				cacheSize += midi.length;
+			}
+			Iterator<byte[]> iterator = cache.values().iterator();
+			while (cacheSize > MAX_CACHE_SIZE && iterator.hasNext()) {
+				cacheSize -= iterator.next().length;
+				iterator.remove();
+			}
 		}
+		return midi;
 	}
 
-	private class ProgramChange extends TrackEvent {
-		int channel;
-		int programNumber;
-
-		public ProgramChange(int timestamp, int channel, int programNumber) {
-			super(timestamp);
-			this.channel = channel;
-			this.programNumber = programNumber;
-		}
-
-		@Override
-		void output(DataOutputStream dos, int currentTime) throws IOException {
-			writeVariableLengthValue(timestamp - currentTime, dos);
-			dos.writeByte(0xCF & ((byte) 0xF0 | channel));
-			dos.writeByte(programNumber);
-		}
+	public byte[] convertToMDI(byte[] data) throws Exception {
+		return new MMFConverter(data).convert();
 	}
 
-	private static class PitchBend extends TrackEvent {
-		int channel;
-		int pitchBendChangeLSB;
-		int pitchBendChangeMSB;
-
-		public PitchBend(int channel, int pitchBendChangeLSB, int pitchBendChangeMSB) {
-			super(0);
-			this.channel = channel;
-			this.pitchBendChangeLSB = pitchBendChangeLSB;
-			this.pitchBendChangeMSB = pitchBendChangeMSB;
+	private byte[] convert() throws Exception {
+		end = data.length;
+		if (end < 8 || readInt() != MMMD) {
+			throw new Exception("Signature is not match MMMD");
 		}
-
-		@Override
-		void output(DataOutputStream dos, int currentTime) {
-			// not implemented
+		readInt(); // file size
+		if (end - pos < 8 || readInt() != CNTI) {
+			throw new Exception("Signature is not match CNTI");
 		}
-	}
-
-
-	int readVariableLengthValue(DataInputStream dis) throws IOException {
-		int result = 0;
-		boolean readNext = true;
-		while (readNext) {
-			byte next = dis.readByte();
-			result = (result << 7) + (next & (byte) 0x7F);
-			readNext = (next & (byte) 0x80) == (byte) 0x80;
+		skip(readInt());
+		while (end - pos >= 8) {
+			int id = readInt();
+			int size = readInt();
+			if (size < 0 || size > end - pos) {
+				break;
+			}
+			if (id >>> 8 == MTR) {
+				parseMTR(pos + size);
+				return Arrays.copyOf(out, outSize);
+			}
+			// OPDA and other chunks before the track
+			pos += size;
 		}
-		return result;
+		throw new Exception("track is not found");
 	}
 
-	void writeVariableLengthValue(int val, DataOutputStream dos) throws IOException {
-		ArrayList<Byte> bytes = new ArrayList<>();
-		int tmp = val;
-		bytes.add((byte) (tmp & 0x7F)); // 0b01111111
-		while ((tmp = tmp >>> 7) > 0) {
-			bytes.add((byte) ((tmp & 0x7F) | (byte) 0x80));
+	private void parseMTR(int trackEnd) throws Exception {
+		int savedEnd = end;
+		end = trackEnd;
+		byte formatType = readByte();
+		readByte(); // sequence type
+		timeBaseD = convertTimebase(readByte());
+		timeBaseG = convertTimebase(readByte());
+		if (formatType == FORMAT_TYPE_MOBILE_STANDARD_COMPRESS
+				|| formatType == FORMAT_TYPE_MOBILE_STANDARD_NO_COMPRESS) {
+			skip(16); // channel status
+		} else {
+			skip(2);
 		}
-		Collections.reverse(bytes);
-		for (Byte byte1 : bytes) {
-			dos.writeByte(byte1);
+		// Mspl (Seek & Phrase Info Chunk), Mtsu (Setup Data Chunk), Mtsp (Stream PCM Data Chunk)
+		while (end - pos >= 8) {
+			int id = readInt();
+			int size = readInt();
+			if (size < 0 || size > end - pos) {
+				if (id == MTSQ) {
+					throw new Exception("chunkSize is not match: " + size);
+				}
+				break;
+			}
+			int chunkEnd = pos + size;
+			if (id == MTSQ) {
+				writeSequence(chunkEnd);
+			}
+			pos = chunkEnd;
 		}
+		end = savedEnd;
 	}
 
-	String toHex(byte v) {
-		String result = "0x";
-		char[] hexArray = "0123456789ABCDEF".toCharArray();
-		int v_ = v & 0xFF;
-		result += hexArray[v_ >>> 4];
-		result += hexArray[v_ & 0x0F];
-		return result;
+	private void writeSequence(int sequenceEnd) throws Exception {
+		write('M', 'T', 'h', 'd');
+		writeInt(6);
+		write(0x00, 0x01); // format
+		write(0x00, 0x01); // track num
+		write(0x01, 0xE0); // time (defined by tempo and time)
+		write('M', 'T', 'r', 'k');
+		int lengthOffset = outSize;
+		writeInt(0);
+		int trackStart = outSize;
+
+		int tempo = 480 * 1000 * timeBaseD;
+		write(0x00, 0xFF, 0x51, 0x03);
+		write(tempo >>> 16, tempo >>> 8, tempo);
+
+		lastTime = 0;
+		offCount = 0;
+		Arrays.fill(velocities, 64);
+		int savedEnd = end;
+		end = sequenceEnd;
+		int endTime = parseSequence();
+		end = savedEnd;
+		if (endTime < 0) {
+			// no EOS, the track is ended after the last note
+			flushNoteOffs(Integer.MAX_VALUE);
+			endTime = lastTime;
+		} else {
+			// notes sounding past EOS are cut off by the end of the track
+			flushNoteOffs(endTime);
+			offCount = 0;
+		}
+		writeDelta(endTime);
+		write(0xFF, 0x2F, 0x00);
+
+		int length = outSize - trackStart;
+		out[lengthOffset] = (byte) (length >>> 24);
+		out[lengthOffset + 1] = (byte) (length >>> 16);
+		out[lengthOffset + 2] = (byte) (length >>> 8);
+		out[lengthOffset + 3] = (byte) length;
 	}
 
-	ArrayList<TrackEvent> parseSequenceDataChunk(byte[] data) throws Exception {
-		ArrayList<TrackEvent> result = new ArrayList<>();
-		Map<Integer, Integer> mapVel = new HashMap<>();
-
-		try (ByteArrayInputStream is = new ByteArrayInputStream(data);
-			 DataInputStream dis = new DataInputStream(is)) {
-			// parse Duration;
-			byte[] firstByte = new byte[1];
-			int globalTime = 0;
-			while (dis.read(firstByte, 0, 1) == 1) {
-				int duration = firstByte[0] & 0x7F;
-				if ((firstByte[0] & 0b10000000) == 0b10000000) {
-					// MSB = 1
-					duration = (duration << 7) + (dis.readByte() & 0x7F);
+	/** @return time of the EOS event, -1 if the sequence has no EOS */
+	private int parseSequence() throws Exception {
+		int globalTime = 0;
+		while (pos < end) {
+			int first = data[pos++];
+			int duration = first & 0x7F;
+			if ((first & 0x80) != 0) {
+				if (pos >= end) {
+					return -1;
 				}
-
-				// parse Event
-				byte eventHeader = dis.readByte();
-				globalTime += duration;
-				int upper4bit = (eventHeader & 0xFF) >>> 4;
-				switch (upper4bit) {
-					case 0x8: {
-						// Note Message with no velocity
-						int channel = eventHeader & (byte) 0x0F;
-						int noteNumber = dis.readByte() & (byte) 0x7F;
-						// notenumber 60 equals center C
-						int gateTime = readVariableLengthValue(dis);
-						Integer prevVel = mapVel.get(channel);
-						if (prevVel == null) {
-							prevVel = 64;
-							mapVel.put(channel, prevVel);
-						}
-						result.add(new NoteMessage(globalTime, true, channel, noteNumber, prevVel, gateTime));
-						result.add(new NoteMessage(globalTime + gateTime, false, channel, noteNumber, 0, gateTime));
-						break;
-					}
-					case 0x9: {
-						// Note Message with velocity
-						int channel = eventHeader & 0x0F;
-						int noteNumber = dis.readByte() & 0x7F;
-						int keyVelocity = dis.readByte() & 0x7F;
-						int gateTime = readVariableLengthValue(dis);
-						mapVel.put(channel, keyVelocity);
-						result.add(new NoteMessage(globalTime, true, channel, noteNumber, keyVelocity, gateTime));
-						result.add(new NoteMessage(globalTime + gateTime, false, channel, noteNumber, 0, gateTime));
-						break;
-					}
-					case 0xA: {
-						// Reserved
-						throw new Exception("Not Implemented");
-						// break;
+				duration = (duration << 7) + (data[pos++] & 0x7F);
+			}
+			if (pos >= end) {
+				return -1;
+			}
+			int eventHeader = data[pos++] & 0xFF;
+			globalTime += duration;
+			int channel = eventHeader & 0x0F;
+			switch (eventHeader >>> 4) {
+				case 0x8: {
+					// Note Message with no velocity
+					if (end - pos < 2) {
+						return -1;
 					}
-					case 0xB: {
-						// Control Change
-						int channel = eventHeader & 0x0F;
-						int controlNumber = dis.readByte() & 0x7F;
-						int controlValue = dis.readByte() & 0x7F;
-						result.add(new ControlChange(globalTime, channel, controlNumber, controlValue));
-						break;
+					int noteNumber = data[pos++] & 0x7F;
+					int gateTime = readVariableLengthValue();
+					if (gateTime < 0) {
+						return -1;
 					}
-					case 0xC: {
-						// Program Change
-						int channel = eventHeader & 0x0F;
-						int programNumber = dis.readByte() & 0x7F;
-						result.add(new ProgramChange(globalTime, channel, programNumber));
-						break;
+					writeNote(globalTime, channel, noteNumber, velocities[channel], gateTime);
+					break;
+				}
+				case 0x9: {
+					// Note Message with velocity
+					if (end - pos < 3) {
+						return -1;
 					}
-					case 0xD: {
-						// Reserved
-						throw new Exception("Not Implemented");
-						// break;
+					int noteNumber = data[pos++] & 0x7F;
+					int keyVelocity = data[pos++] & 0x7F;
+					int gateTime = readVariableLengthValue();
+					if (gateTime < 0) {
+						return -1;
 					}
-					case 0xE: {
-						// Pitch Bend
-						int channel = eventHeader & 0x0F;
-						int pitchBendChangeLSB = dis.readByte() & 0x7F;
-						int pitchBendChangeMSB = dis.readByte() & 0x7F;
-						result.add(new PitchBend(globalTime, pitchBendChangeLSB, pitchBendChangeMSB));
-						break;
+					velocities[channel] = keyVelocity;
+					writeNote(globalTime, channel, noteNumber, keyVelocity, gateTime);
+					break;
+				}
+				case 0xB:
+				case 0xE:
+					// Control Change and Pitch Bend are not converted
+					pos += 2;
+					break;
+				case 0xC: {
+					// Program Change
+					if (pos >= end) {
+						return -1;
 					}
-					case 0xF: {
-						if (eventHeader == (byte) 0xF0) {
-							// System Exclusive
-							int x = readVariableLengthValue(dis);
-							byte[] dataToEnd = new byte[x];
-							if (dis.read(dataToEnd, 0, x) != x || dataToEnd[x - 1] != (byte) 0xF7) {
-								throw new Exception("Malformed");
-							}
-						} else if (eventHeader == (byte) 0xFF) {
-							// EOS or NOP
-							byte next = dis.readByte();
-							if ((byte) 0x00 == next) {
-								result.add(new NOPMessage(globalTime));
-							} else if ((byte) 0x2F == next) {
-								if (dis.readByte() == (byte) 0x00) {
-									result.add(new EOSMessage(globalTime));
-								} else {
-									throw new Exception("Not Implemented");
-								}
-							} else {
+					int programNumber = data[pos++] & 0x7F;
+					writeEvent(globalTime);
+					write(0xC0 | channel, programNumber);
+					break;
+				}
+				case 0xF: {
+					if (eventHeader == 0xF0) {
+						// System Exclusive
+						int length = readVariableLengthValue();
+						if (length <= 0 || length > end - pos || data[pos + length - 1] != (byte) 0xF7) {
+							throw new Exception("Malformed");
+						}
+						pos += length;
+					} else if (eventHeader == 0xFF) {
+						// EOS or NOP
+						if (pos >= end) {
+							return -1;
+						}
+						int next = data[pos++];
+						if (next == 0x2F) {
+							if (pos >= end || data[pos++] != 0x00) {
 								throw new Exception("Not Implemented");
 							}
-						} else {
-							// Reserved
+							return globalTime;
+						} else if (next != 0x00) {
+							throw new Exception("Not Implemented");
 						}
-						break;
 					}
-					default:
-						throw new Exception("Not Implemented: " + toHex((byte) upper4bit));
+					// else Reserved
+					break;
 				}
+				default:
+					// 0xA and 0xD are reserved
+					throw new Exception("Not Implemented: " + eventHeader);
 			}
-		} catch (IOException e) {
-			e.printStackTrace();
 		}
+		return -1;
+	}
+
+	private void writeNote(int time, int channel, int note, int velocity, int gateTime) {
+		writeEvent(time);
+		write(0x90 | channel, note, velocity);
+		addNoteOff(time + gateTime, channel << 8 | note);
+	}
+
+	/** Writes pending note-offs which are due before the event, then the event delta time */
+	private void writeEvent(int time) {
+		flushNoteOffs(time);
+		writeDelta(time);
+	}
+
+	private void writeDelta(int time) {
+		writeVariableLengthValue(time - lastTime);
+		lastTime = time;
+	}
+
+	private void flushNoteOffs(int time) {
+		while (offCount > 0 && (int) (offKeys[0] >> 32) <= time) {
+			int event = offEvents[0];
+			writeDelta((int) (offKeys[0] >> 32));
+			write(0x80 | event >> 8, event & 0x7F, 0);
+			removeFirstNoteOff();
+		}
+	}
+
+	private void addNoteOff(int time, int event) {
+		if (offCount == offKeys.length) {
+			offKeys = Arrays.copyOf(offKeys, offCount * 2);
+			offEvents = Arrays.copyOf(offEvents, offCount * 2);
+		}
+		long key = (long) time << 32 | (offSequence++ & 0xFFFFFFFFL);
+		int i = offCount++;
+		while (i > 0) {
+			int parent = (i - 1) >> 1;
+			if (offKeys[parent] <= key) {
+				break;
+			}
+			offKeys[i] = offKeys[parent];
+			offEvents[i] = offEvents[parent];
+			i = parent;
+		}
+		offKeys[i] = key;
+		offEvents[i] = event;
+	}
+
+	private void removeFirstNoteOff() {
+		int size = --offCount;
+		long key = offKeys[size];
+		int event = offEvents[size];
+		int i = 0;
+		int half = size >> 1;
+		while (i < half) {
+			int child = 2 * i + 1;
+			if (child + 1 < size && offKeys[child + 1] < offKeys[child]) {
+				child++;
+			}
+			if (key <= offKeys[child]) {
+				break;
+			}
+			offKeys[i] = offKeys[child];
+			offEvents[i] = offEvents[child];
+			i = child;
+		}
+		offKeys[i] = key;
+		offEvents[i] = event;
+	}
+
+	/** @return value or -1 if the data ends */
+	private int readVariableLengthValue() {
+		int result = 0;
+		int next;
+		do {
+			if (pos >= end) {
+				return -1;
+			}
+			next = data[pos++];
+			result = (result << 7) + (next & 0x7F);
+		} while ((next & 0x80) != 0);
 		return result;
 	}
 
-	int timeBaseD;
-	int timeBaseG;
+	private void writeVariableLengthValue(int value) {
+		ensureCapacity(5);
+		int shift = 28;
+		while (shift > 0 && value >>> shift == 0) {
+			shift -= 7;
+		}
+		for (; shift > 0; shift -= 7) {
+			out[outSize++] = (byte) ((value >>> shift) & 0x7F | 0x80);
+		}
+		out[outSize++] = (byte) (value & 0x7F);
+	}
 
 	int convertTimebase(byte timebase) {
 		switch (timebase) {
@@ -330,127 +409,68 @@ public class MMFConverter {
 		}
 	}
 
-	void parseMTR(byte[] data, DataOutputStream dos) throws Exception {
-		try (ByteArrayInputStream is = new ByteArrayInputStream(data);
-			 DataInputStream dis = new DataInputStream(is)) {
-			byte formatType = dis.readByte();
-			byte sequenceType = dis.readByte();
-			this.timeBaseD = convertTimebase(dis.readByte());
-			this.timeBaseG = convertTimebase(dis.readByte());
-
-			byte[] channelStatus;
-			if (formatType == FORMAT_TYPE_MOBILE_STANDARD_COMPRESS
-					|| formatType == FORMAT_TYPE_MOBILE_STANDARD_NO_COMPRESS) {
-				// read 16byte channel status
-				channelStatus = new byte[16];
-				dis.read(channelStatus, 0, 16);
-			} else {
-				channelStatus = new byte[2];
-				dis.read(channelStatus, 0, 2);
-			}
+	private byte readByte() throws Exception {
+		if (pos >= end) {
+			throw new Exception("Unexpected end of data");
+		}
+		return data[pos++];
+	}
 
-			byte[] chunkId = new byte[4];
-			while (dis.read(chunkId, 0, 4) == 4) {
-				// Mspl (Seek & Phrase Info Chunk)
-				// Mtsu (Setup Data Chunk)
-				// Mtsq (Sequence Data Chunk)
-				if (Arrays.equals(chunkId, "Mtsq".getBytes())) {
-					int chunkSize = dis.readInt();
-					byte[] chunkDat = new byte[chunkSize];
-					if (dis.read(chunkDat, 0, chunkSize) != chunkSize)
-						throw new Exception("chunkSize is not match: " + chunkSize);
-					ArrayList<TrackEvent> trk = parseSequenceDataChunk(chunkDat);
-					dos.write("MThd".getBytes());
-					dos.writeInt(6);
-					dos.write(new byte[]{0x00, 0x01}); // format
-					dos.write(new byte[]{0x00, 0x01}); // track num
-					dos.write(new byte[]{0x01, (byte) 0xE0}); // time (defined by tempo and time)
-					dos.write("MTrk".getBytes());
-
-					try (ByteArrayOutputStream os = new ByteArrayOutputStream();
-						 DataOutputStream ddos = new DataOutputStream(os)) {
-						// set tempo
-						int timeBase = 480;
-						int tempo = timeBase * 1000 * timeBaseD;
-						ddos.write(new byte[]{0x00, (byte) 0xFF, 0x51, 0x03});
-						ddos.writeByte((tempo >>> 16) & (byte) 0xFF);
-						ddos.writeByte((tempo >>> 8) & (byte) 0xFF);
-						ddos.writeByte((tempo >>> 0) & (byte) 0xFF);
-
-						Collections.sort(trk, (o1, o2) -> o1.getTimestamp() - o2.getTimestamp());
-
-						int globalTime = 0;
-						for (TrackEvent trackEvent : trk) {
-							trackEvent.output(ddos, globalTime);
-							globalTime = trackEvent.getTimestamp();
-						}
-						dos.writeInt(ddos.size());
-						dos.write(os.toByteArray());
-					}
-				} else if (Arrays.equals(chunkId, "MspI".getBytes())) {
-					int chunkSize = dis.readInt();
-					byte[] chunkDat = new byte[chunkSize];
-					if (dis.read(chunkDat, 0, chunkSize) != chunkSize)
-						throw new Exception("chunkSize is not match: " + chunkSize);
-				} else if (Arrays.equals(chunkId, "Mtsu".getBytes())) {
-					int chunkSize = dis.readInt();
-					byte[] chunkDat = new byte[chunkSize];
-					if (dis.read(chunkDat, 0, chunkSize) != chunkSize)
-						throw new Exception("chunkSize is not match: " + chunkSize);
-				}
-				// Mtsp (Stream PCM Data Chunk)
-			}
+	private int readInt() {
+		int value = (data[pos] & 0xFF) << 24 | (data[pos + 1] & 0xFF) << 16
+				| (data[pos + 2] & 0xFF) << 8 | data[pos + 3] & 0xFF;
+		pos += 4;
+		return value;
+	}
 
-		} catch (IOException e) {
-			e.printStackTrace();
+	private void skip(int count) throws Exception {
+		if (count < 0 || count > end - pos) {
+			throw new Exception("Unexpected end of data");
 		}
+		pos += count;
 	}
 
-	public byte[] convertToMDI(byte[] data) throws Exception {
-		byte[] magic = new byte[4];
-		try (ByteArrayInputStream is = new ByteArrayInputStream(data);
-			 DataInputStream dis = new DataInputStream(is)) {
-			dis.read(magic, 0, 4);
-			if (!Arrays.equals(magic, "MMMD".getBytes())) {
-				throw new Exception("Signature is not match MMMD: " + Arrays.toString(magic));
-			}
-			dis.readInt();
-			dis.read(magic, 0, 4);
-			if (!Arrays.equals(magic, "CNTI".getBytes())) {
-				throw new Exception("Signature is not match CNTI: " + Arrays.toString(magic));
-			}
-			int blockSize = dis.readInt();
-			byte[] cntiBlock = new byte[blockSize];
-			dis.read(cntiBlock, 0, blockSize);
+	private void write(int b0, int b1) {
+		ensureCapacity(2);
+		out[outSize++] = (byte) b0;
+		out[outSize++] = (byte) b1;
+	}
 
-			dis.read(magic, 0, 4);
-			if (!Arrays.equals(magic, "OPDA".getBytes())) {
-				throw new Exception("Signature is not match OPDA: " + Arrays.toString(magic));
-			}
-			blockSize = dis.readInt();
-			byte[] blockData = new byte[blockSize];
-			dis.read(blockData, 0, blockSize);
+	private void write(int b0, int b1, int b2) {
+		ensureCapacity(3);
+		out[outSize++] = (byte) b0;
+		out[outSize++] = (byte) b1;
+		out[outSize++] = (byte) b2;
+	}
 
-			dis.read(magic, 0, 4);
-			if (!Arrays.equals(Arrays.copyOf(magic, 3), "MTR".getBytes())) {
-				throw new Exception("Signature is not match MTR: " + new String(magic));
-			}
-			blockSize = dis.readInt();
-			blockData = new byte[blockSize];
-			if (dis.read(blockData, 0, blockSize) != blockSize) {
-				throw new Exception("blockSize does not match");
-			}
-			try (ByteArrayOutputStream bos = new ByteArrayOutputStream();
-				 DataOutputStream dos = new DataOutputStream(bos)) {
-				parseMTR(blockData, dos);
-				return bos.toByteArray();
-			}
+	private void write(int b0, int b1, int b2, int b3) {
+		ensureCapacity(4);
+		out[outSize++] = (byte) b0;
+		out[outSize++] = (byte) b1;
+		out[outSize++] = (byte) b2;
+		out[outSize++] = (byte) b3;
+	}
 
-		} catch (IOException e) {
-			e.printStackTrace();
+	private void writeInt(int value) {
+		write(value >>> 24, value >>> 16, value >>> 8, value);
+	}
+
+	private void ensureCapacity(int count) {
+		if (outSize + count > out.length) {
+			out = Arrays.copyOf(out, Math.max(out.length * 2, outSize + count));
 		}
+	}
 
-		throw new Exception("track is not found");
+	private static String digest(byte[] data) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-1").digest(data);
+			StringBuilder sb = new StringBuilder(48);
+			for (byte b : digest) {
+				sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+			}
+			return sb.append(':').append(data.length).toString();
+		} catch (NoSuchAlgorithmException e) {
+			throw new RuntimeException(e);
+		}
 	}
 }
-
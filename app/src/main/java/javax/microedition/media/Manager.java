@@ -21,6 +21,7 @@ package javax.microedition.media;
 import android.Manifest;
 import android.webkit.MimeTypeMap;
 
+import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
@@ -34,6 +35,7 @@ import javax.microedition.media.tone.ToneManager;
 import javax.microedition.util.ContextHolder;
 
 import ru.woesss.j2me.mmapi.Plugin;
+import ru.woesss.j2me.mmapi.pcm.PcmPlugin;
 import ru.woesss.j2me.mmapi.synth.SynthPluginFactory;
 
 public class Manager {
@@ -84,8 +86,11 @@ public class Manager {
 				throw new MediaException();
 			}
 			SourceStream sourceStream = sourceStreams[0];
-			InputStream stream = new InternalSourceStream(sourceStream);
-			InternalDataSource datasource = new InternalDataSource(stream, type);
+			InputStream stream = new BufferedInputStream(new InternalSourceStream(sourceStream));
+			DataSource datasource = MemoryDataSource.create(stream, type);
+			if (datasource == null) {
+				datasource = new InternalDataSource(stream, type);
+			}
 			return new MicroPlayer(datasource);
 		} else {
 			return new BasePlayer();
@@ -97,17 +102,26 @@ public class Manager {
 		if (stream == null) {
 			throw new IllegalArgumentException();
 		}
-		InternalDataSource datasource = new InternalDataSource(stream, type);
+		String[] supportedTypes = getSupportedContentTypes(null);
+		boolean supported = type != null && Arrays.asList(supportedTypes).contains(type.toLowerCase());
+		InputStream is = stream.markSupported() ? stream : new BufferedInputStream(stream);
+		if (supported) {
+			MemoryDataSource memorySource = MemoryDataSource.create(is, type);
+			if (memorySource != null) {
+				return new MicroPlayer(memorySource);
+			}
+		}
+		InternalDataSource datasource = new InternalDataSource(is, type);
 		for (Plugin plugin : PLUGINS) {
 			Player player = plugin.createPlayer(datasource);
 			if (player != null) {
 				return player;
 			}
 		}
-		String[] supportedTypes = getSupportedContentTypes(null);
-		if (type != null && Arrays.asList(supportedTypes).contains(type.toLowerCase())) {
+		if (supported) {
 			return new MicroPlayer(datasource);
 		} else {
+			datasource.disconnect();
 			return new BasePlayer();
 		}
 	}
@@ -126,12 +140,14 @@ public class Manager {
 		return DEFAULT_TIMEBASE;
 	}
 
-	public synchronized static void playTone(int note, int duration, int volume)
+	public static void playTone(int note, int duration, int volume)
 			throws MediaException {
 		ToneManager.getInstance().playTone(note, duration, volume);
 	}
 
 	static {
 		SynthPluginFactory.loadPlugins(PLUGINS);
+		// short sounds are mixed in software before they reach the other players
+		PLUGINS.add(0, new PcmPlugin());
 	}
 }
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2026 Yury Kharchenko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package javax.microedition.media;
+
+import android.util.Log;
+
+import net.lingala.zip4j.model.FileHeader;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import ru.playsoftware.j2meloader.util.IOUtils;
+import ru.woesss.util.zip.ZipFile;
+
+/**
+ * Prepares the sounds of the MIDlet jar in background at start,
+ * so the first {@link Manager#createPlayer(InputStream, String)} of a sound
+ * finds it already staged and probed in the media cache.
+ */
+public final class MediaWarmup {
+	private static final String TAG = MediaWarmup.class.getSimpleName();
+
+	/** Larger files are streamed music, preparing them ahead costs more than it saves */
+	private static final int MAX_FILE_SIZE = 1024 * 1024;
+	/** Leaves the rest of the media cache to the sounds created at runtime */
+	private static final long MAX_TOTAL_SIZE = 16 * 1024 * 1024;
+	private static final int HEADER_SIZE = 12;
+
+	private MediaWarmup() {}
+
+	/**
+	 * Scan the jar for sounds and prepare them on a background thread
+	 */
+	public static void start(File jar) {
+		if (!jar.exists()) {
+			return;
+		}
+		ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+			Thread thread = new Thread(r, "MediaWarmup");
+			thread.setPriority(Thread.MIN_PRIORITY);
+			thread.setDaemon(true);
+			return thread;
+		});
+		executor.execute(() -> {
+			long start = System.nanoTime();
+			int count = 0;
+			try (ZipFile zip = new ZipFile(jar)) {
+				for (FileHeader header : findCandidates(zip)) {
+					if (prepare(zip, header)) {
+						count++;
+					}
+				}
+			} catch (Exception e) {
+				Log.w(TAG, "Scan of " + jar + " failed", e);
+			}
+			Log.d(TAG, "Prepared " + count + " sounds in " + (System.nanoTime() - start) / 1000000 + " ms");
+		});
+		executor.shutdown();
+	}
+
+	private static List<FileHeader> findCandidates(ZipFile zip) throws IOException {
+		List<FileHeader> result = new ArrayList<>();
+		long total = 0;
+		for (FileHeader header : zip.getFileHeaders()) {
+			long size = header.getUncompressedSize();
+			if (header.isDirectory() || size < HEADER_SIZE || size > MAX_FILE_SIZE) {
+				continue;
+			}
+			String name = header.getFileName();
+			if (name.startsWith("META-INF/") || name.endsWith(".class")) {
+				continue;
+			}
+			if (total + size > MAX_TOTAL_SIZE) {
+				break;
+			}
+			result.add(header);
+			total += size;
+		}
+		return result;
+	}
+
+	private static boolean prepare(ZipFile zip, FileHeader header) {
+		try {
+			byte[] head = new byte[HEADER_SIZE];
+			int read = 0;
+			try (InputStream is = zip.getInputStream(header)) {
+				int n;
+				while (read < head.length && (n = is.read(head, read, head.length - read)) > 0) {
+					read += n;
+				}
+			}
+			String type = detectType(head, read);
+			if (type == null || MemoryDataSource.accepts(head, read)) {
+				// unknown or played from memory without preparation
+				return false;
+			}
+			byte[] data;
+			try (InputStream is = zip.getInputStream(header)) {
+				data = IOUtils.toByteArray(is);
+			}
+			if (type.equals("audio/mmf")) {
+				// KDDI MediaResource plays it converted to MIDI
+				MMFConverter.convert(data);
+			}
+			InternalDataSource.prepare(new ByteArrayInputStream(data), type);
+			return true;
+		} catch (Exception e) {
+			Log.w(TAG, "Can't prepare " + header.getFileName(), e);
+			return false;
+		}
+	}
+
+	/**
+	 * @return mime type of the audio format recognized by the header, or null
+	 */
+	static String detectType(byte[] head, int length) {
+		if (length >= 12 && startsWith(head, "RIFF") && head[8] == 'W' && head[9] == 'A'
+				&& head[10] == 'V' && head[11] == 'E') {
+			return "audio/x-wav";
+		} else if (length >= 4 && startsWith(head, "MThd")) {
+			return "audio/midi";
+		} else if (length >= 4 && startsWith(head, "MMMD")) {
+			return "audio/mmf";
+		} else if (length >= 9 && startsWith(head, "#!AMR-WB\n")) {
+			return "audio/amr-wb";
+		} else if (length >= 6 && startsWith(head, "#!AMR\n")) {
+			return "audio/amr";
+		} else if (length >= 3 && startsWith(head, "ID3")) {
+			return "audio/mpeg";
+		} else if (length >= 3 && isMpegFrame(head)) {
+			return "audio/mpeg";
+		} else if (length >= 2 && (head[0] & 0xFF) == 0xFF && (head[1] & 0xF6) == 0xF0) {
+			return "audio/aac";
+		} else if (length >= 8 && head[4] == 'f' && head[5] == 't' && head[6] == 'y' && head[7] == 'p') {
+			return "audio/mp4";
+		} else if (length >= 4 && startsWith(head, "OggS")) {
+			return "audio/ogg";
+		}
+		return null;
+	}
+
+	private static boolean isMpegFrame(byte[] head) {
+		if ((head[0] & 0xFF) != 0xFF || (head[1] & 0xE0) != 0xE0) {
+			return false;
+		}
+		int version = (head[1] >> 3) & 0x3;
+		int layer = (head[1] >> 1) & 0x3;
+		int bitrate = (head[2] >> 4) & 0xF;
+		int sampleRate = (head[2] >> 2) & 0x3;
+		return version != 1 && layer != 0 && bitrate != 0xF && sampleRate != 0x3;
+	}
+
+	private static boolean startsWith(byte[] data, String prefix) {
+		for (int i = 0; i < prefix.length(); i++) {
+			if (data[i] != prefix.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
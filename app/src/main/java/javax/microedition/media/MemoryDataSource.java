@@ -0,0 +1,154 @@
+/*
+ * Copyright 2026 Yury Kharchenko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package javax.microedition.media;
+
+import android.media.MediaDataSource;
+import android.os.Build;
+
+import androidx.annotation.RequiresApi;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.microedition.media.protocol.DataSource;
+import javax.microedition.media.protocol.SourceStream;
+
+import ru.playsoftware.j2meloader.util.IOUtils;
+
+/**
+ * Media content held in memory and read by the decoder through {@link MediaDataSource},
+ * without staging it to a cache file.
+ * Used for the formats played only by {@link android.media.MediaPlayer} as is,
+ * the ones which need a plugin or transcoding still go through {@link InternalDataSource}.
+ */
+class MemoryDataSource extends DataSource {
+	private static final int HEADER_SIZE = 12;
+
+	private final String type;
+	private final byte[] data;
+
+	MemoryDataSource(String type, byte[] data) {
+		super(null);
+		this.type = type;
+		this.data = data;
+	}
+
+	/**
+	 * @param stream the stream with mark support, it is reset if the content can't be played from memory
+	 * @return source with the stream content read to the end, or null
+	 */
+	static MemoryDataSource create(InputStream stream, String type) throws IOException {
+		byte[] head = new byte[HEADER_SIZE];
+		stream.mark(HEADER_SIZE);
+		int read = 0;
+		int n;
+		while (read < head.length && (n = stream.read(head, read, head.length - read)) > 0) {
+			read += n;
+		}
+		stream.reset();
+		if (!accepts(head, read)) {
+			return null;
+		}
+		return new MemoryDataSource(type, IOUtils.toByteArray(stream));
+	}
+
+	/**
+	 * @return true if the content can be played from memory on this device
+	 */
+	static boolean accepts(byte[] data, int length) {
+		if (Build.VERSION.SDK_INT < Build.VERSION_CODES.M) {
+			return false;
+		}
+		String type = MediaWarmup.detectType(data, length);
+		if (type == null) {
+			return false;
+		}
+		return switch (type) {
+			case "audio/mpeg", "audio/amr", "audio/amr-wb", "audio/aac", "audio/mp4", "audio/ogg" -> true;
+			default -> false;
+		};
+	}
+
+	@RequiresApi(Build.VERSION_CODES.M)
+	MediaDataSource createMediaDataSource() {
+		return new ByteArrayMediaSource(data);
+	}
+
+	@Override
+	public String getContentType() {
+		return type;
+	}
+
+	@Override
+	public void connect() {
+	}
+
+	@Override
+	public void disconnect() {
+	}
+
+	@Override
+	public void start() {
+	}
+
+	@Override
+	public void stop() {
+	}
+
+	@Override
+	public SourceStream[] getStreams() {
+		return new SourceStream[0];
+	}
+
+	@Override
+	public Control[] getControls() {
+		return new Control[0];
+	}
+
+	@Override
+	public Control getControl(String control) {
+		return null;
+	}
+
+	@RequiresApi(Build.VERSION_CODES.M)
+	private static final class ByteArrayMediaSource extends MediaDataSource {
+		private final byte[] data;
+
+		ByteArrayMediaSource(byte[] data) {
+			this.data = data;
+		}
+
+		@Override
+		public int readAt(long position, byte[] buffer, int offset, int size) {
+			if (position >= data.length) {
+				return -1;
+			}
+			int count = (int) Math.min(size, data.length - position);
+			System.arraycopy(data, (int) position, buffer, offset, count);
+			return count;
+		}
+
+		@Override
+		public long getSize() {
+			return data.length;
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+}
@@ -19,14 +19,14 @@
 package javax.microedition.media;
 
 import android.media.MediaPlayer;
+import android.os.Build;
 import android.util.Log;
 
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.Executor;
 
 import javax.microedition.amms.control.PanControl;
 import javax.microedition.amms.control.audioeffect.EqualizerControl;
@@ -39,6 +39,7 @@ import javax.microedition.media.tone.ToneSequence;
 
 import kotlin.io.FilesKt;
 import ru.woesss.j2me.mmapi.FileCacheDataSource;
+import ru.woesss.j2me.mmapi.PlayerCallbackDispatcher;
 import ru.woesss.j2me.mmapi.protocol.device.DeviceMetaData;
 
 class MicroPlayer extends BasePlayer implements MediaPlayer.OnCompletionListener,
@@ -50,12 +51,7 @@ class MicroPlayer extends BasePlayer implements MediaPlayer.OnCompletionListener
 	protected final DataSource source;
 	protected int state = UNREALIZED;
 
-	private final ExecutorService callbackExecutor = Executors.newSingleThreadExecutor(r -> {
-		Thread thread = new Thread(r, "MidletPlayerCallback");
-		thread.setUncaughtExceptionHandler((t, e) ->
-				Log.e(t.getName(), "UncaughtException in " + t, e));
-		return thread;
-	});
+	private final Executor callbackExecutor = PlayerCallbackDispatcher.newQueue();
 	private final ArrayList<PlayerListener> listeners = new ArrayList<>();
 	private final InternalMetaData metadata;
 
@@ -151,7 +147,11 @@ class MicroPlayer extends BasePlayer implements MediaPlayer.OnCompletionListener
 		if (state == UNREALIZED) {
 			try {
 				source.connect();
-				player.setDataSource(source.getLocator());
+				if (source instanceof MemoryDataSource && Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+					player.setDataSource(((MemoryDataSource) source).createMediaDataSource());
+				} else {
+					player.setDataSource(source.getLocator());
+				}
 			} catch (IOException e) {
 				throw new MediaException(e.getMessage());
 			}
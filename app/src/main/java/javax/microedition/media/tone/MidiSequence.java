@@ -18,8 +18,8 @@
 package javax.microedition.media.tone;
 
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.Arrays;
 
 /**
  * This class represents midi sequence
@@ -129,8 +129,8 @@ public class MidiSequence {
 	/* Counter for written midi events */
 	private int midiEventsByteCount;
 
-	/* MIDI sequence written using writeEvent( ) */
-	private final ByteArrayOutputStream midiTrackEvents;
+	/* MIDI sequence written using writeEvent( ), midiEventsByteCount bytes are used */
+	private byte[] midiTrackEvents;
 
 	/* Tone sequence duration */
 	private int duration;
@@ -146,45 +146,27 @@ public class MidiSequence {
 		this.instrument = instrument;
 		tempo = TONE_DEFAULT_TEMPO * TONE_MULTIPLIER;
 		resolution = TONE_DEFAULT_RESOLUTION / TONE_MULTIPLIER;
-		midiTrackEvents = new ByteArrayOutputStream(MIDI_EVENTS_TRACK_GRANULARITY);
+		midiTrackEvents = new byte[MIDI_EVENTS_TRACK_GRANULARITY];
 	}
 
 	/**
 	 * Get midi stream
 	 */
 	public ByteArrayInputStream getStream() throws IOException {
-		midiTrackEvents.flush();
-		byte[] midiTrackEvents = this.midiTrackEvents.toByteArray();
-		int size = FILE_HEADER_LENGTH + MTRK_HEADER_LENGTH + TRACK_HEADER_LENGTH +
-				midiTrackEvents.length + TRACK_TRAILER_LENGTH;
-		ByteArrayOutputStream concateStream = new ByteArrayOutputStream(size);
-
-		writeHeader(concateStream, midiTrackEvents.length);
-		concateStream.write(midiTrackEvents);
-		writeTrailer(concateStream);
-
-		ByteArrayInputStream midi = new ByteArrayInputStream(concateStream.toByteArray());
-
-		concateStream.close();
-		return midi;
+		return new ByteArrayInputStream(getByteArray());
 	}
 
 	/**
 	 * Get midi file data as byte[]
 	 */
 	public byte[] getByteArray() throws IOException {
-		midiTrackEvents.flush();
-		byte[] midiTrackEvents = this.midiTrackEvents.toByteArray();
 		int size = FILE_HEADER_LENGTH + MTRK_HEADER_LENGTH + TRACK_HEADER_LENGTH +
-				midiTrackEvents.length + TRACK_TRAILER_LENGTH;
-		ByteArrayOutputStream concateStream = new ByteArrayOutputStream(size);
-
-		writeHeader(concateStream, midiTrackEvents.length);
-		concateStream.write(midiTrackEvents);
-		writeTrailer(concateStream);
-
-		byte[] midi = concateStream.toByteArray();
-		concateStream.close();
+				midiEventsByteCount + TRACK_TRAILER_LENGTH;
+		byte[] midi = new byte[size];
+		int pos = writeHeader(midi, midiEventsByteCount);
+		System.arraycopy(midiTrackEvents, 0, midi, pos, midiEventsByteCount);
+		pos += midiEventsByteCount;
+		System.arraycopy(TRACK_TRAILER, 0, midi, pos, TRACK_TRAILER_LENGTH);
 		return midi;
 	}
 
@@ -228,7 +210,11 @@ public class MidiSequence {
 		if (midiEventsByteCount > MIDI_EVENTS_MAX_BYTE_COUNT) {
 			throw new MidiSequenceException();
 		}
-		midiEventsByteCount += writeVarLen(midiTrackEvents, length);
+		// at most 4 bytes of delta time and the command
+		if (midiEventsByteCount + 4 + MIDI_EVENT_COMMAND_LENGTH > midiTrackEvents.length) {
+			midiTrackEvents = Arrays.copyOf(midiTrackEvents, midiTrackEvents.length * 2);
+		}
+		midiEventsByteCount += writeVarLen(midiTrackEvents, midiEventsByteCount, length);
 
 		// Write down cumulative count of event lengths (sum will
 		// make up duration of this midi sequence. Only audible events
@@ -242,20 +228,20 @@ public class MidiSequence {
 		command &= MIDI_EVENT_CHANNEL_MASK;
 		command |= channel;
 
-		midiTrackEvents.write(command);
-		midiTrackEvents.write(event);
-		midiTrackEvents.write(data);
-		midiEventsByteCount += MIDI_EVENT_COMMAND_LENGTH;
+		midiTrackEvents[midiEventsByteCount++] = command;
+		midiTrackEvents[midiEventsByteCount++] = event;
+		midiTrackEvents[midiEventsByteCount++] = data;
 	}
 
 	/**
 	 * Write time interval value as MIDI variable length data to byte array.
 	 *
-	 * @param out   output stream
+	 * @param out   output array
+	 * @param pos   position in the array
 	 * @param value time before the event in question happens, relative to
 	 *              current time. Must be between 0 and 0x0FFFFFFF
 	 */
-	private int writeVarLen(ByteArrayOutputStream out, int value) {
+	private int writeVarLen(byte[] out, int pos, int value) {
 		if ((value > MIDI_VARIABLE_LENGTH_MAX_VALUE) || (value < 0)) {
 			throw new IllegalArgumentException("Input(time) value is not within range");
 		}
@@ -298,8 +284,7 @@ public class MidiSequence {
 
 		// write the buffer out as 1-4 bytes.
 		while (true) {
-			out.write(buffer);
-			byteCount++;
+			out[pos + byteCount++] = (byte) buffer;
 
 			// check if the indicator bit (8th) is set.
 			// If it is, continue writing.
@@ -316,72 +301,69 @@ public class MidiSequence {
 	/**
 	 * Writes midi header
 	 *
-	 * @param aOut              output stream
+	 * @param aOut              output array
 	 * @param aMidiEventsLength lenght of midi event content in bytes
+	 * @return position after the header
 	 */
-	private void writeHeader(ByteArrayOutputStream aOut, int aMidiEventsLength) throws IOException {
+	private int writeHeader(byte[] aOut, int aMidiEventsLength) {
 		// MIDI FILE HEADER
+		int pos = 0;
 
 		// write 'MThd' block id
-		aOut.write(MIDI_HEADER_MTHD);
+		pos = put(aOut, pos, MIDI_HEADER_MTHD);
 
 		// write MThd block length
-		aOut.write(MIDI_HEADER_MTHD_LENGTH);
+		pos = put(aOut, pos, MIDI_HEADER_MTHD_LENGTH);
 
 		// write midi format; format is 0
-		aOut.write(MIDI_HEADER_MIDI_FORMAT);
+		pos = put(aOut, pos, MIDI_HEADER_MIDI_FORMAT);
 
 		// write MTrk chunk amount; only one track
-		aOut.write(MIDI_HEADER_MTRK_CHUNK_AMOUNT);
+		pos = put(aOut, pos, MIDI_HEADER_MTRK_CHUNK_AMOUNT);
 
 		// write PPQN resolution (pulses per quarternote)
-		aOut.write(MIDI_HEADER_PPQN_FIRST_BYTE);
-		aOut.write(resolution);
+		aOut[pos++] = MIDI_HEADER_PPQN_FIRST_BYTE;
+		aOut[pos++] = (byte) resolution;
 
 		// MTrk HEADER
 
 		// write 'MTrk' for the only track
-		aOut.write(MIDI_HEADER_MTRK);
+		pos = put(aOut, pos, MIDI_HEADER_MTRK);
 
 		// calculate real track length
 		int trackLength = TRACK_HEADER_LENGTH + aMidiEventsLength + TRACK_TRAILER_LENGTH;
 
 		// write track length in bytes.
 		// Literal numeric values (24,16,8) indicate shift offset in bits
-		// 0xFF is used to mask out everything but the lowest byte.
-		aOut.write((trackLength >> 24) & 0xFF);
-		aOut.write((trackLength >> 16) & 0xFF);
-		aOut.write((trackLength >> 8) & 0xFF);
-		aOut.write(trackLength & 0xFF);
+		aOut[pos++] = (byte) (trackLength >> 24);
+		aOut[pos++] = (byte) (trackLength >> 16);
+		aOut[pos++] = (byte) (trackLength >> 8);
+		aOut[pos++] = (byte) trackLength;
 
 		// TRACK HEADER
 
 		// write tempo change at beginning
-		aOut.write(TRACK_HEADER_TEMPO_CHANGE);
+		pos = put(aOut, pos, TRACK_HEADER_TEMPO_CHANGE);
 
 		// calculate tempo in microseconds per quarter note
 		int mpqn = MINUTE_AS_MICROSECONDS / tempo;
 
 		// write tempo value
 		// Literal numeric values (16,8) indicate shift offset in bits
-		// 0xFF is used to mask out everything but the lowest byte.
-		aOut.write((mpqn >> 16) & 0xFF);
-		aOut.write((mpqn >> 8) & 0xFF);
-		aOut.write(mpqn & 0xFF);
+		aOut[pos++] = (byte) (mpqn >> 16);
+		aOut[pos++] = (byte) (mpqn >> 8);
+		aOut[pos++] = (byte) mpqn;
 
 		// change program at beginning (at delta time 0)
-		writeVarLen(aOut, 0);
-		aOut.write((byte) (MidiToneConstants.MIDI_PROGRAM_CHANGE | channel));
-		aOut.write(instrument);   // instrument number
+		pos += writeVarLen(aOut, pos, 0);
+		aOut[pos++] = (byte) (MidiToneConstants.MIDI_PROGRAM_CHANGE | channel);
+		aOut[pos++] = instrument;   // instrument number
+		return pos;
 	}
 
-	/**
-	 * Write midi trailer
-	 *
-	 * @param aOut output stream
-	 */
-	private void writeTrailer(ByteArrayOutputStream aOut) throws IOException {
-		aOut.write(TRACK_TRAILER);
+	private static int put(byte[] out, int pos, byte[] bytes) {
+		System.arraycopy(bytes, 0, out, pos, bytes.length);
+		return pos + bytes.length;
 	}
 
 	/**
@@ -21,6 +21,9 @@ import android.util.Log;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import javax.microedition.media.control.ToneControl;
 
@@ -30,23 +33,58 @@ import javax.microedition.media.control.ToneControl;
 public class ToneSequence {
 	private static final String TAG = ToneSequence.class.getName();
 
+	/* Count of converted sequences kept for reuse */
+	private static final int CACHE_CAPACITY = 32;
+
+	/* Converted sequences by their bytes; games set the same beeps again and again */
+	private static final Map<SequenceKey, Compiled> cache =
+			new LinkedHashMap<SequenceKey, Compiled>(16, 0.75f, true) {
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<SequenceKey, Compiled> eldest) {
+					return size() > CACHE_CAPACITY;
+				}
+			};
+
 	/* Hold original tone sequence bytes */
 	private final byte[] toneSequence;
 
 	/* Holds the new tone sequence converted to MIDI */
-	private final MidiSequence midiSequence;
+	private MidiSequence midiSequence;
 
 	/* Event list used to hold tone event processors */
-	private final EventList eventList;
+	private EventList eventList;
+
+	/* Result of process() */
+	private Compiled compiled;
 
 	public ToneSequence(byte[] sequence) {
 		toneSequence = sequence;
+	}
+
+	public void process() {
+		SequenceKey key = new SequenceKey(toneSequence);
+		synchronized (cache) {
+			compiled = cache.get(key);
+		}
+		if (compiled != null) {
+			return;
+		}
 		midiSequence = new MidiSequence(MidiToneConstants.MIDI_TONE_CHANNEL,
 				MidiToneConstants.MIDI_TONE_INSTRUMENT);
 		eventList = new EventList(toneSequence, midiSequence);
+		convert();
+		try {
+			compiled = new Compiled(midiSequence.getByteArray(), midiSequence.getCumulativeDuration());
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+		synchronized (cache) {
+			// the sequence array belongs to the caller
+			cache.put(new SequenceKey(toneSequence.clone()), compiled);
+		}
 	}
 
-	public void process() {
+	private void convert() {
 		// Reset static base class variables of events before processing.
 		eventList.reset();
 
@@ -150,17 +188,51 @@ public class ToneSequence {
 	}
 
 	public ByteArrayInputStream getStream() throws IOException {
-		return midiSequence.getStream();
+		return new ByteArrayInputStream(getByteArray());
 	}
 
 	public byte[] getByteArray() throws IOException {
-		return midiSequence.getByteArray();
+		if (compiled == null) {
+			return new MidiSequence(MidiToneConstants.MIDI_TONE_CHANNEL,
+					MidiToneConstants.MIDI_TONE_INSTRUMENT).getByteArray();
+		}
+		return compiled.midi.clone();
 	}
 
 	/**
 	 * Get duration of tone sequence
 	 */
 	public long getDuration() {
-		return midiSequence.getCumulativeDuration();
+		return compiled == null ? 0 : compiled.duration;
+	}
+
+	private static final class SequenceKey {
+		final byte[] sequence;
+		final int hash;
+
+		SequenceKey(byte[] sequence) {
+			this.sequence = sequence;
+			hash = Arrays.hashCode(sequence);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof SequenceKey && Arrays.equals(sequence, ((SequenceKey) o).sequence);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+
+	private static final class Compiled {
+		final byte[] midi;
+		final long duration;
+
+		Compiled(byte[] midi, long duration) {
+			this.midi = midi;
+			this.duration = duration;
+		}
 	}
 }
@@ -59,6 +59,7 @@ import javax.microedition.lcdui.keyboard.KeyMapper;
 import javax.microedition.lcdui.keyboard.VirtualKeyboard;
 import javax.microedition.lcdui.skin.SkinLayer;
 import javax.microedition.m3g.Graphics3D;
+import javax.microedition.media.MediaWarmup;
 import javax.microedition.midlet.MIDlet;
 import javax.microedition.util.ContextHolder;
 
@@ -273,6 +274,9 @@ public class MicroLoader {
 			if (sb.exists()) {
 				soundBank = sb.getPath();
 			}
+			if (params.mediaWarmup && BuildConfig.FULL_EMULATOR) {
+				MediaWarmup.start(new File(appDir, Config.MIDLET_RES_FILE));
+			}
 			if (params.screenBackgroundImage != null) {
 				SkinLayer.init(params);
 			}
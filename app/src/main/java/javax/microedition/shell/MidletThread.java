@@ -30,6 +30,10 @@ import javax.microedition.util.ContextHolder;
 
 import androidx.annotation.NonNull;
 
+import ru.woesss.j2me.micro3d.DataCache;
+import ru.woesss.j2me.mmapi.MediaCache;
+import ru.woesss.j2me.mmapi.PlayerCallbackDispatcher;
+
 public class MidletThread extends HandlerThread implements Handler.Callback {
 	private static final String TAG = MidletThread.class.getName();
 	private static final UncaughtExceptionHandler uncaughtExceptionHandler = (t, e) ->
@@ -72,6 +76,9 @@ public class MidletThread extends HandlerThread implements Handler.Callback {
 		if (activity != null) {
 			activity.finish();
 		}
+		MediaCache.clear();
+		DataCache.clear();
+		Log.d(TAG, PlayerCallbackDispatcher.getStats());
 		Process.killProcess(Process.myPid());
 	}
 
@@ -23,7 +23,9 @@ package javax.microedition.util;
  * @param <E> what it contains
  */
 public class LinkedList<E> {
-	private final ArrayStack<LinkedEntry<E>> pool = new ArrayStack<>();
+	private static final int POOL_CAPACITY = 64;
+
+	private final ObjectPool<LinkedEntry<E>> pool = new ObjectPool<>(POOL_CAPACITY);
 	private final LinkedEntry<E> head = new LinkedEntry<>();
 	private final LinkedEntry<E> tail = new LinkedEntry<>();
 
@@ -106,6 +108,13 @@ public class LinkedList<E> {
 		getEntryInstance(element).insertBefore(tail);
 	}
 
+	/**
+	 * @return the pool of free entries, for statistics
+	 */
+	public ObjectPool<LinkedEntry<E>> getPool() {
+		return pool;
+	}
+
 	/**
 	 * Get an instance of LinkedEntry.
 	 * <p>
@@ -117,7 +126,7 @@ public class LinkedList<E> {
 	 * @return the instance of LinkedEntry
 	 */
 	public LinkedEntry<E> getEntryInstance(E element) {
-		LinkedEntry<E> entry = pool.pop();
+		LinkedEntry<E> entry = pool.acquire();
 
 		if (entry == null) {
 			entry = new LinkedEntry<>();
@@ -142,7 +151,7 @@ public class LinkedList<E> {
 		entry.remove();
 		entry.setElement(null);
 
-		pool.push(entry);
+		pool.release(entry);
 
 		return element;
 	}
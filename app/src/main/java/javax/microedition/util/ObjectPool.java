@@ -0,0 +1,159 @@
+/*
+ * Copyright 2026 Yury Kharchenko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package javax.microedition.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Lock-free pool of reusable objects with a fixed capacity.
+ * Objects released into a full pool are left to the garbage collector.
+ * <p>
+ * The pool is a bounded ring buffer, each slot carries a sequence number
+ * telling whether it may be filled or taken at the current position,
+ * so both operations take a single CAS without scanning the slots.
+ * The hit, miss and drop counters are striped by thread and summed on read.
+ */
+public class ObjectPool<E> {
+	private final int mask;
+	private final AtomicReferenceArray<E> items;
+	private final AtomicLongArray sequences;
+	/** Position of the next object to take */
+	private final AtomicLong head = new AtomicLong();
+	/** Position of the next slot to fill */
+	private final AtomicLong tail = new AtomicLong();
+	private final StripedCounter hits = new StripedCounter();
+	private final StripedCounter misses = new StripedCounter();
+	private final StripedCounter drops = new StripedCounter();
+
+	/**
+	 * @param capacity maximum number of pooled objects, rounded up to a power of two
+	 */
+	public ObjectPool(int capacity) {
+		if (capacity <= 0 || capacity > 1 << 30) {
+			throw new IllegalArgumentException("Illegal capacity: " + capacity);
+		}
+		int size = Integer.highestOneBit(capacity);
+		if (size < capacity) {
+			size <<= 1;
+		}
+		mask = size - 1;
+		items = new AtomicReferenceArray<>(size);
+		sequences = new AtomicLongArray(size);
+		for (int i = 0; i < size; i++) {
+			sequences.set(i, i);
+		}
+	}
+
+	/**
+	 * Take an object from the pool.
+	 *
+	 * @return the pooled object; null if the pool is empty, then a new instance should be created
+	 */
+	public E acquire() {
+		long pos = head.get();
+		for (;;) {
+			int index = (int) pos & mask;
+			long diff = sequences.get(index) - (pos + 1);
+			if (diff == 0) {
+				if (head.compareAndSet(pos, pos + 1)) {
+					E value = items.get(index);
+					items.set(index, null);
+					sequences.set(index, pos + mask + 1);
+					hits.increment();
+					return value;
+				}
+			} else if (diff < 0) {
+				// the slot is not filled yet
+				misses.increment();
+				return null;
+			}
+			pos = head.get();
+		}
+	}
+
+	/**
+	 * Return an object, which must be already reset, to the pool.
+	 *
+	 * @return false if the pool is full and the object is dropped
+	 */
+	public boolean release(E value) {
+		long pos = tail.get();
+		for (;;) {
+			int index = (int) pos & mask;
+			long diff = sequences.get(index) - pos;
+			if (diff == 0) {
+				if (tail.compareAndSet(pos, pos + 1)) {
+					items.set(index, value);
+					sequences.set(index, pos + 1);
+					return true;
+				}
+			} else if (diff < 0) {
+				// the slot is not taken yet
+				drops.increment();
+				return false;
+			}
+			pos = tail.get();
+		}
+	}
+
+	public int getCapacity() {
+		return mask + 1;
+	}
+
+	public long getHits() {
+		return hits.sum();
+	}
+
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	/**
+	 * @return count of objects released when the pool was full
+	 */
+	public long getDrops() {
+		return drops.sum();
+	}
+
+	/**
+	 * @return share of {@link #acquire()} calls served from the pool, from 0 to 1
+	 */
+	public float getHitRate() {
+		long hits = getHits();
+		long total = hits + getMisses();
+		return total == 0 ? 0 : (float) hits / total;
+	}
+
+	/**
+	 * @return number of pooled objects, approximate while the pool is used concurrently
+	 */
+	public int size() {
+		long size = tail.get() - head.get();
+		return (int) Math.max(0, Math.min(size, mask + 1));
+	}
+
+	@Override
+	public String toString() {
+		return "ObjectPool{capacity=" + getCapacity() +
+				", size=" + size() +
+				", hits=" + getHits() +
+				", misses=" + getMisses() +
+				", drops=" + getDrops() + '}';
+	}
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2026 Yury Kharchenko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package javax.microedition.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counter updated from several threads and summed only on read.
+ * Each thread increments the cell of its stripe, cells are a cache line apart,
+ * so the threads do not contend on one value. LongAdder needs API 24.
+ */
+final class StripedCounter {
+	private static final int STRIPES = 8;
+	/** Longs in a cache line */
+	private static final int PADDING = 8;
+
+	private final AtomicLongArray cells = new AtomicLongArray(STRIPES * PADDING);
+
+	void increment() {
+		int stripe = (int) Thread.currentThread().getId() & (STRIPES - 1);
+		cells.incrementAndGet(stripe * PADDING);
+	}
+
+	long sum() {
+		long sum = 0;
+		for (int i = 0; i < STRIPES; i++) {
+			sum += cells.get(i * PADDING);
+		}
+		return sum;
+	}
+}
@@ -605,6 +605,7 @@ public class ConfigActivity extends AppCompatActivity implements View.OnClickLis
 		binding.tfFontSizeLarge.setText(Integer.toString(params.fontSizeLarge));
 		binding.cxFontSizeInSP.setChecked(params.fontApplyDimensions);
 		binding.cxFontAA.setChecked(params.fontAA);
+		binding.cxFontGlyphCache.setChecked(params.fontGlyphCache);
 		boolean showVk = params.showKeyboard;
 		binding.cxIsShowKeyboard.setChecked(showVk);
 		binding.groupVkConfig.setVisibility(showVk ? View.VISIBLE : View.GONE);
@@ -627,6 +628,7 @@ public class ConfigActivity extends AppCompatActivity implements View.OnClickLis
 		binding.tfVKSelFore.setText(String.format("%06X", params.vkFgColorSelected));
 		binding.tfVKOutline.setText(String.format("%06X", params.vkOutlineColor));
 		setSpinnerSelection(binding.spSoundBank, params.soundBank);
+		binding.cxMediaWarmup.setChecked(params.mediaWarmup);
 
 		String systemProperties = params.systemProperties;
 		if (systemProperties == null) {
@@ -711,6 +713,7 @@ public class ConfigActivity extends AppCompatActivity implements View.OnClickLis
 			}
 			params.fontApplyDimensions = binding.cxFontSizeInSP.isChecked();
 			params.fontAA = binding.cxFontAA.isChecked();
+			params.fontGlyphCache = binding.cxFontGlyphCache.isChecked();
 			params.showKeyboard = binding.cxIsShowKeyboard.isChecked();
 			params.vkFeedback = binding.cxVKFeedback.isChecked();
 			params.vkHaptic = binding.cxVKHaptic.isChecked();
@@ -746,6 +749,7 @@ public class ConfigActivity extends AppCompatActivity implements View.OnClickLis
 			} catch (Exception ignored) {
 			}
 			params.soundBank = binding.spSoundBank.getSelectedItemPosition() > 0 ? (String) binding.spSoundBank.getSelectedItem() : null;
+			params.mediaWarmup = binding.cxMediaWarmup.isChecked();
 			params.systemProperties = getSystemProperties(binding.tfSystemProperties.getText().toString());
 
 			params.fakeTimeEnabled = binding.cxFakeTime.isChecked();
@@ -115,6 +115,9 @@ public class ProfileModel {
 	@SerializedName("FontAntiAlias")
 	public boolean fontAA;
 
+	@SerializedName("FontGlyphCache")
+	public boolean fontGlyphCache;
+
 	@SerializedName("TouchInput")
 	public boolean touchInput;
 
@@ -194,6 +197,9 @@ public class ProfileModel {
 	@SerializedName("SoundBank")
 	public String soundBank;
 
+	@SerializedName("MediaWarmup")
+	public boolean mediaWarmup;
+
 	@SerializedName("SystemProperties")
 	public String systemProperties;
 
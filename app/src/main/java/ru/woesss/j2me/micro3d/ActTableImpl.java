@@ -31,7 +31,7 @@ public class ActTableImpl {
 			throw new NullPointerException();
 		}
 		try {
-			actions = Loader.loadMtraData(b, 0, b.length);
+			actions = load(b, 0, b.length);
 		} catch (IOException e) {
 			Log.e(Utils.TAG, "Error loading data", e);
 			throw new RuntimeException(e);
@@ -46,7 +46,7 @@ public class ActTableImpl {
 			throw new ArrayIndexOutOfBoundsException();
 		}
 		try {
-			actions = Loader.loadMtraData(b, offset, length);
+			actions = load(b, offset, length);
 		} catch (Exception e) {
 			Log.e(Utils.TAG, "Error loading data", e);
 			throw e;
@@ -62,13 +62,22 @@ public class ActTableImpl {
 			throw new IOException();
 		}
 		try {
-			actions = Loader.loadMtraData(bytes, 0, bytes.length);
+			actions = load(bytes, 0, bytes.length);
 		} catch (IOException e) {
 			Log.e(Utils.TAG, "Error loading data from [" + name + "]", e);
 			throw new RuntimeException(e);
 		}
 	}
 
+	private static Action[] load(byte[] b, int offset, int length) throws IOException {
+		Action[] actions = DataCache.get(Action[].class, b, offset, length);
+		if (actions == null) {
+			actions = Loader.loadMtraData(b, offset, length);
+			DataCache.put(b, offset, length, actions);
+		}
+		return actions;
+	}
+
 	public final void dispose() {
 		actions = null;
 	}
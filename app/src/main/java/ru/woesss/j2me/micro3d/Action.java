@@ -39,6 +39,8 @@ class Action {
 		Animation scale;
 		Animation translate;
 		private int frame = -1;
+		/** Scratch for the evaluated keyframe values */
+		private final float[] value = new float[3];
 
 		Bone(int type, int mtxOffset, float[] matrix) {
 			this.type = type;
@@ -54,7 +56,8 @@ class Action {
 			float kgf = frame / 65536f;
 			switch (type) {
 				case 2: {
-					float[] arr = new float[3];
+					float[] arr = value;
+					arr[0] = arr[1] = arr[2] = 0.0f;
 
 					// translate
 					translate.get(kgf, arr);
@@ -87,7 +90,8 @@ class Action {
 					break;
 				}
 				case 3: {
-					float[] arr = translate.values[0].clone();
+					float[] arr = value;
+					System.arraycopy(translate.values[0], 0, arr, 0, 3);
 
 					// translate (for all frames)
 					matrix[mtxOffset +  3] = arr[0];
@@ -104,7 +108,8 @@ class Action {
 					break;
 				}
 				case 4: {
-					float[] arr = new float[3];
+					float[] arr = value;
+					arr[0] = arr[1] = arr[2] = 0.0f;
 
 					// rotate
 					rotate.get(kgf, arr);
@@ -116,7 +121,8 @@ class Action {
 					break;
 				}
 				case 5: {
-					float[] arr = new float[3];
+					float[] arr = value;
+					arr[0] = arr[1] = arr[2] = 0.0f;
 
 					// rotate
 					rotate.get(kgf, arr);
@@ -124,7 +130,8 @@ class Action {
 					break;
 				}
 				case 6: {
-					float[] arr = new float[3];
+					float[] arr = value;
+					arr[0] = arr[1] = arr[2] = 0.0f;
 
 					// translate
 					translate.get(kgf, arr);
@@ -210,10 +217,12 @@ class Action {
 	static final class Animation {
 		private final int[] keys;
 		final float[][] values;
+		private final KeyCursor cursor;
 
 		Animation(int count) {
 			keys = new int[count];
 			values = new float[count][3];
+			cursor = new KeyCursor(keys);
 		}
 
 		void set(int idx, int kf, float x, float y, float z) {
@@ -232,39 +241,39 @@ class Action {
 				arr[2] = value[2];
 				return;
 			}
-			for (int i = max - 1; i >= 0; i--) {
-				final int prevKey = keys[i];
-				if (prevKey > kgf) {
-					continue;
-				}
-				final float[] prevVal = values[i];
-				float x = prevVal[0];
-				float y = prevVal[1];
-				float z = prevVal[2];
-				if (prevKey == kgf) {
-					arr[0] = x;
-					arr[1] = y;
-					arr[2] = z;
-					return;
-				}
-				int nextKey = keys[i + 1];
-				float[] nextValue = values[i + 1];
-				float delta = (kgf - prevKey) / (nextKey - prevKey);
-				arr[0] = x + (nextValue[0] - x) * delta;
-				arr[1] = y + (nextValue[1] - y) * delta;
-				arr[2] = z + (nextValue[2] - z) * delta;
+			final int i = cursor.find(kgf);
+			if (i < 0) {
+				return;
+			}
+			final int prevKey = keys[i];
+			final float[] prevVal = values[i];
+			float x = prevVal[0];
+			float y = prevVal[1];
+			float z = prevVal[2];
+			if (prevKey == kgf) {
+				arr[0] = x;
+				arr[1] = y;
+				arr[2] = z;
 				return;
 			}
+			int nextKey = keys[i + 1];
+			float[] nextValue = values[i + 1];
+			float delta = (kgf - prevKey) / (nextKey - prevKey);
+			arr[0] = x + (nextValue[0] - x) * delta;
+			arr[1] = y + (nextValue[1] - y) * delta;
+			arr[2] = z + (nextValue[2] - z) * delta;
 		}
 	}
 
 	static final class RollAnim {
 		private final int[] keys;
 		final float[] values;
+		private final KeyCursor cursor;
 
 		RollAnim(int count) {
 			keys = new int[count];
 			values = new float[count];
+			cursor = new KeyCursor(keys);
 		}
 
 		void set(int idx, int kf, float v) {
@@ -277,20 +286,84 @@ class Action {
 			if (kgf >= keys[max]) {
 				return values[max];
 			}
-			for (int i = max - 1; i >= 0; i--) {
-				final int key = keys[i];
-				if (key > kgf) {
-					continue;
+			final int i = cursor.find(kgf);
+			if (i < 0) {
+				return 0;
+			}
+			final int key = keys[i];
+			float value = values[i];
+			if (key == kgf) {
+				return value;
+			}
+			int nextKey = keys[i + 1];
+			float nextValue = values[i + 1];
+			return value + (nextValue - value) / (nextKey - key) * (kgf - key);
+		}
+	}
+
+	/**
+	 * Finds the keyframe segment for a frame.
+	 * Playback mostly moves forward, so the last found segment and the next one are checked first,
+	 * other frames are found by binary search.
+	 */
+	static final class KeyCursor {
+		private final int[] keys;
+		private int last;
+		/** 0 - not checked yet, 1 - keys are ascending, -1 - unordered keys, only linear scan works */
+		private int order;
+
+		KeyCursor(int[] keys) {
+			this.keys = keys;
+		}
+
+		/**
+		 * @return the last index before the final key which key is not greater than kgf, or -1
+		 */
+		int find(float kgf) {
+			final int[] keys = this.keys;
+			final int end = keys.length - 2;
+			if (order == 0) {
+				order = 1;
+				for (int i = 0; i < end + 1; i++) {
+					if (keys[i] > keys[i + 1]) {
+						order = -1;
+						break;
+					}
+				}
+			}
+			if (order < 0) {
+				for (int i = end; i >= 0; i--) {
+					if (keys[i] <= kgf) {
+						return i;
+					}
 				}
-				float value = values[i];
-				if (key == kgf) {
-					return value;
+				return -1;
+			}
+			int i = last;
+			if (i <= end && keys[i] <= kgf) {
+				if (i == end || keys[i + 1] > kgf) {
+					return i;
+				}
+				if (i + 1 == end || keys[i + 2] > kgf) {
+					return last = i + 1;
 				}
-				int nextKey = keys[i + 1];
-				float nextValue = values[i + 1];
-				return value + (nextValue - value) / (nextKey - key) * (kgf - key);
 			}
-			return 0;
+			int lo = 0;
+			int hi = end;
+			int found = -1;
+			while (lo <= hi) {
+				int mid = (lo + hi) >>> 1;
+				if (keys[mid] <= kgf) {
+					found = mid;
+					lo = mid + 1;
+				} else {
+					hi = mid - 1;
+				}
+			}
+			if (found >= 0) {
+				last = found;
+			}
+			return found;
 		}
 	}
 }
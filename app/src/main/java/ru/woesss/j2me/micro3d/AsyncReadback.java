@@ -0,0 +1,123 @@
+/*
+ * Copyright 2026 Yury Kharchenko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.woesss.j2me.micro3d;
+
+import static android.opengl.GLES30.*;
+
+import android.graphics.Bitmap;
+import android.graphics.Rect;
+import android.os.Build;
+
+import androidx.annotation.RequiresApi;
+
+import java.nio.Buffer;
+
+/**
+ * Reads the rendered frame back through pixel buffer objects, so the GPU is not waited right away.
+ * The pixels of a frame are copied to its bitmap on the next readback, one frame later.
+ */
+@RequiresApi(Build.VERSION_CODES.JELLY_BEAN_MR2)
+final class AsyncReadback {
+	private final int[] buffers = new int[2];
+	private final int[] sizes = new int[2];
+	private final long[] fences = new long[2];
+	private final Rect[] rects = {new Rect(), new Rect()};
+	private final Bitmap[] targets = new Bitmap[2];
+	private int current;
+
+	/**
+	 * Starts reading of the clip area of the current frame and copies the previous frame to its bitmap
+	 */
+	void readPixels(Rect clip, Bitmap target) {
+		if (buffers[0] == 0) {
+			glGenBuffers(2, buffers, 0);
+		}
+		int i = current;
+		int width = clip.width();
+		int height = clip.height();
+		int size = width * height * 4;
+		glBindBuffer(GL_PIXEL_PACK_BUFFER, buffers[i]);
+		if (sizes[i] < size) {
+			glBufferData(GL_PIXEL_PACK_BUFFER, size, null, GL_STREAM_READ);
+			sizes[i] = size;
+		}
+		glReadPixels(clip.left, clip.top, width, height, GL_RGBA, GL_UNSIGNED_BYTE, 0);
+		fences[i] = glFenceSync(GL_SYNC_GPU_COMMANDS_COMPLETE, 0);
+		rects[i].set(clip);
+		targets[i] = target;
+		glFlush();
+		current = i ^ 1;
+		deliver(current);
+		glBindBuffer(GL_PIXEL_PACK_BUFFER, 0);
+		Render.checkGlError("AsyncReadback");
+	}
+
+	/**
+	 * Copies the frame still in flight to its bitmap, before the bitmap is drawn by other means
+	 */
+	void flush() {
+		deliver(current ^ 1);
+		glBindBuffer(GL_PIXEL_PACK_BUFFER, 0);
+	}
+
+	/**
+	 * @return the bitmap of the frame still in flight, null if there is none
+	 */
+	Bitmap getPendingTarget() {
+		return targets[current ^ 1];
+	}
+
+	/**
+	 * Deletes the pixel buffers, the frame still in flight is dropped
+	 */
+	void release() {
+		for (int i = 0; i < 2; i++) {
+			if (targets[i] != null) {
+				targets[i] = null;
+				glDeleteSync(fences[i]);
+			}
+			sizes[i] = 0;
+		}
+		if (buffers[0] != 0) {
+			glDeleteBuffers(2, buffers, 0);
+			buffers[0] = 0;
+			buffers[1] = 0;
+		}
+	}
+
+	private void deliver(int i) {
+		Bitmap target = targets[i];
+		if (target == null) {
+			return;
+		}
+		targets[i] = null;
+		glClientWaitSync(fences[i], GL_SYNC_FLUSH_COMMANDS_BIT, GL_TIMEOUT_IGNORED);
+		glDeleteSync(fences[i]);
+		Rect rect = rects[i];
+		if (target.isRecycled() || target.getConfig() != Bitmap.Config.ARGB_8888
+				|| rect.right > target.getWidth() || rect.bottom > target.getHeight()) {
+			return;
+		}
+		int size = rect.width() * rect.height() * 4;
+		glBindBuffer(GL_PIXEL_PACK_BUFFER, buffers[i]);
+		Buffer pixels = glMapBufferRange(GL_PIXEL_PACK_BUFFER, 0, size, GL_MAP_READ_BIT);
+		if (pixels != null) {
+			Utils.copyPixels(pixels, rect.left, rect.top, rect.width(), rect.height(), target);
+			glUnmapBuffer(GL_PIXEL_PACK_BUFFER);
+		}
+	}
+}
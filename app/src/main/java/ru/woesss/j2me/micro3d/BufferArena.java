@@ -0,0 +1,95 @@
+/*
+ * Copyright 2026 Yury Kharchenko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.woesss.j2me.micro3d;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
+/**
+ * Direct memory for the data of one frame, handed out as slices of a single chunk.
+ * All slices are released at once by {@link #reset()}, the chunk grows to the peak usage of a frame,
+ * so the rendering of primitives does not allocate direct buffers once the size is reached.
+ */
+final class BufferArena {
+	private static final int INITIAL_CAPACITY = 64 * 1024;
+
+	private ByteBuffer chunk;
+	private int offset;
+	/** Bytes handed out since the last reset, including the chunks left behind on growth */
+	private int used;
+	private int highWater;
+	/** Capacity of the chunk after the last reset */
+	private int resetCapacity = INITIAL_CAPACITY;
+
+	BufferArena() {
+		chunk = BufferUtils.createByteBuffer(INITIAL_CAPACITY);
+	}
+
+	FloatBuffer allocFloats(int count) {
+		return allocBytes(count * 4).asFloatBuffer();
+	}
+
+	ByteBuffer allocBytes(int count) {
+		int size = (count + 3) & ~3;
+		if (offset + size > chunk.capacity()) {
+			// slices already given out keep the old chunk alive until they are dropped
+			chunk = BufferUtils.createByteBuffer(Math.max(chunk.capacity() * 2, capacityFor(size)));
+			offset = 0;
+		}
+		chunk.limit(offset + count);
+		chunk.position(offset);
+		ByteBuffer slice = chunk.slice().order(ByteOrder.nativeOrder());
+		chunk.clear();
+		offset += size;
+		used += size;
+		if (used > highWater) {
+			highWater = used;
+		}
+		return slice;
+	}
+
+	/**
+	 * Releases all slices. If the frame did not fit in the chunk, it is replaced with one fitting the peak.
+	 *
+	 * @return true if the chunk has grown since the previous reset
+	 */
+	boolean reset() {
+		if (used > chunk.capacity()) {
+			chunk = BufferUtils.createByteBuffer(capacityFor(highWater));
+		}
+		offset = 0;
+		used = 0;
+		int capacity = chunk.capacity();
+		boolean grown = capacity != resetCapacity;
+		resetCapacity = capacity;
+		return grown;
+	}
+
+	/** Peak of the bytes used by a frame */
+	int getHighWater() {
+		return highWater;
+	}
+
+	int getCapacity() {
+		return chunk.capacity();
+	}
+
+	private static int capacityFor(int size) {
+		return Math.max(INITIAL_CAPACITY, Integer.highestOneBit(size - 1) << 1);
+	}
+}
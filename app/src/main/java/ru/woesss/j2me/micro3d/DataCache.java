@@ -0,0 +1,162 @@
+/*
+ * Copyright 2026 Yury Kharchenko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.woesss.j2me.micro3d;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Parsed figures, action tables and textures by the content of their source data.
+ * Games often create a figure again from the same bytes for every level or enemy,
+ * these objects share the cached data instead of parsing it again.
+ * The cached data is never modified, each figure skins its own copy of the vertices.
+ */
+public final class DataCache {
+	/** The least recently used entries are evicted above this size in bytes */
+	static final long MAX_SIZE = 8 * 1024 * 1024;
+
+	private static final Map<Key, Entry> cache = new LinkedHashMap<>(16, 0.75f, true);
+	private static long size;
+
+	private DataCache() {}
+
+	static <T> T get(Class<T> type, byte[] data, int offset, int length) {
+		Key key = new Key(type, data, offset, length);
+		synchronized (cache) {
+			Entry entry = cache.get(key);
+			return entry == null ? null : type.cast(entry.value);
+		}
+	}
+
+	static void put(byte[] data, int offset, int length, Model model) {
+		long size = model.originalVertices.capacity() * 4L
+				+ model.vertices.capacity() * 4L
+				+ model.texCoordArray.capacity()
+				+ model.bones.capacity()
+				+ model.indices.length * 4L
+				+ (model.polygonsC.length + model.polygonsT.length) * 32L;
+		if (model.originalNormals != null) {
+			size += model.originalNormals.capacity() * 4L + model.normals.capacity() * 4L;
+		}
+		put(Model.class, data, offset, length, model, size);
+	}
+
+	static void put(byte[] data, int offset, int length, Action[] actions) {
+		long size = 0;
+		for (Action action : actions) {
+			size += action.matrices.length * 4L;
+			for (Action.Bone bone : action.boneActions) {
+				size += sizeOf(bone.translate) + sizeOf(bone.rotate) + sizeOf(bone.scale);
+				if (bone.roll != null) {
+					size += bone.roll.values.length * 8L;
+				}
+			}
+		}
+		put(Action[].class, data, offset, length, actions, size);
+	}
+
+	static void put(byte[] data, int offset, int length, TextureData texture) {
+		put(TextureData.class, data, offset, length, texture, texture.getSize());
+	}
+
+	/** Drop all cached data, called on MIDlet exit */
+	public static void clear() {
+		synchronized (cache) {
+			cache.clear();
+			size = 0;
+		}
+	}
+
+	private static long sizeOf(Action.Animation animation) {
+		return animation == null ? 0 : animation.values.length * 16L;
+	}
+
+	private static void put(Class<?> type, byte[] data, int offset, int length,
+							Object value, long valueSize) {
+		long entrySize = length + valueSize;
+		if (entrySize > MAX_SIZE / 4) {
+			// would push out many smaller entries
+			return;
+		}
+		Key key = new Key(type, Arrays.copyOfRange(data, offset, offset + length), 0, length);
+		synchronized (cache) {
+			Entry old = cache.put(key, new Entry(value, entrySize));
+			if (old != null) {
+				size -= old.size;
+			}
+			size += entrySize;
+			Iterator<Entry> iterator = cache.values().iterator();
+			while (size > MAX_SIZE && iterator.hasNext()) {
+				size -= iterator.next().size;
+				iterator.remove();
+			}
+		}
+	}
+
+	private static final class Key {
+		final Class<?> type;
+		final byte[] data;
+		final int offset;
+		final int length;
+		final int hash;
+
+		Key(Class<?> type, byte[] data, int offset, int length) {
+			this.type = type;
+			this.data = data;
+			this.offset = offset;
+			this.length = length;
+			int hash = 1;
+			for (int i = offset, end = offset + length; i < end; i++) {
+				hash = 31 * hash + data[i];
+			}
+			this.hash = hash;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Key key)) {
+				return false;
+			}
+			if (type != key.type || length != key.length || hash != key.hash) {
+				return false;
+			}
+			for (int i = 0; i < length; i++) {
+				if (data[offset + i] != key.data[key.offset + i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+
+	private static final class Entry {
+		final Object value;
+		final long size;
+
+		Entry(Object value, long size) {
+			this.value = value;
+			this.size = size;
+		}
+	}
+}
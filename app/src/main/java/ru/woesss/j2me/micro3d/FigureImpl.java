@@ -31,6 +31,12 @@ public class FigureImpl {
 	final Stack<RenderNode.FigureNode> stack = new Stack<>();
 	Model model;
 	private int pattern;
+	/** Posture of the current {@link Model#vertices}, used to skip repeated skinning */
+	private Action appliedAction;
+	private int appliedFrame;
+	private boolean patternApplied;
+	/** {@link Model#vertexArray} and {@link Model#normalsArray} match the current posture */
+	private boolean buffersPrepared;
 
 	public FigureImpl(byte[] b) {
 		if (b == null) {
@@ -73,11 +79,18 @@ public class FigureImpl {
 	}
 
 	private synchronized void init(byte[] bytes, int offset, int length) throws IOException {
+		Model cached = DataCache.get(Model.class, bytes, offset, length);
+		if (cached != null) {
+			model = new Model(cached);
+			return;
+		}
 		model = Loader.loadMbacData(bytes, offset, length);
 		Utils.transform(model.originalVertices, model.vertices,
-				model.originalNormals, model.normals, model.bones, null);
+				model.originalNormals, model.normals, model.bones, null, model.boneTransforms);
 		sortPolygons();
 		fillTexCoordBuffer();
+		// the cache keeps an untouched copy in the rest posture
+		DataCache.put(bytes, offset, length, new Model(model));
 	}
 
 	private void sortPolygons() {
@@ -135,6 +148,9 @@ public class FigureImpl {
 
 	public final void dispose() {
 		model = null;
+		appliedAction = null;
+		patternApplied = false;
+		buffersPrepared = false;
 	}
 
 	public synchronized final void setPosture(ActTableImpl actTable, int action, int frame) {
@@ -147,8 +163,7 @@ public class FigureImpl {
 			int iFrame = frame < 0 ? 0 : frame >> 16;
 			for (int i = dynamic.size() - 1; i >= 0; i--) {
 				if (dynamic.keyAt(i) <= iFrame) {
-					pattern = dynamic.valueAt(i);
-					applyPattern();
+					setPatternIfChanged(dynamic.valueAt(i));
 					break;
 				}
 			}
@@ -160,16 +175,33 @@ public class FigureImpl {
 	private void applyBoneAction(Action act, int frame) {
 		Action.Bone[] actionBones = act.boneActions;
 		if (actionBones.length == 0) return;
+		if (act == appliedAction && frame == appliedFrame) {
+			// vertices are already skinned to this posture
+			return;
+		}
+		appliedAction = act;
+		appliedFrame = frame;
+		buffersPrepared = false;
 		synchronized (act.matrices) {
 			for (final Action.Bone actionBone : actionBones) {
 				actionBone.setFrame(frame);
 			}
 			Utils.transform(model.originalVertices, model.vertices,
-					model.originalNormals, model.normals, model.bones, act.matrices);
+					model.originalNormals, model.normals, model.bones, act.matrices, model.boneTransforms);
+		}
+	}
+
+	private void setPatternIfChanged(int pattern) {
+		if (patternApplied && this.pattern == pattern) {
+			return;
 		}
+		this.pattern = pattern;
+		applyPattern();
 	}
 
 	private void applyPattern() {
+		patternApplied = true;
+		buffersPrepared = false;
 		int[] indexArray = model.indices;
 		int pos = 0;
 		int invalid = model.vertices.capacity() / 3 - 1;
@@ -216,6 +248,10 @@ public class FigureImpl {
 	}
 
 	synchronized void prepareBuffers() {
+		if (buffersPrepared) {
+			return;
+		}
+		buffersPrepared = true;
 		if (model.vertexArray == null) {
 			model.vertexArray = BufferUtils.createFloatBuffer(model.vertexArrayCapacity);
 		}
@@ -234,8 +270,7 @@ public class FigureImpl {
 		if (action < 0 || action >= actTable.getNumActions()) {
 			throw new IllegalArgumentException();
 		}
-		this.pattern = pattern;
-		applyPattern();
+		setPatternIfChanged(pattern);
 		//noinspection ManualMinMaxCalculation
 		applyBoneAction(actTable.actions[action], frame < 0 ? 0 : frame);
 	}
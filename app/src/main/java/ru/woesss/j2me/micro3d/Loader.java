@@ -332,37 +332,31 @@ class Loader {
 			throw new RuntimeException("Unsupported BMP version = " + dibHeaderSize);
 		}
 
-		int paletteOffset = BMP_FILE_HEADER_SIZE + dibHeaderSize;
-
-		TextureData textureData = new TextureData(width, height);
-		ByteBuffer raster = textureData.getRaster();
+		int paletteOffset = offset + BMP_FILE_HEADER_SIZE + dibHeaderSize;
 		int remainder = width % 4;
 		int stride = remainder == 0 ? width : width + 4 - remainder;
-		if (reversed) {
-			for (int i = height - 1; i >= 0; i--) {
-				for (int j = rasterOffset + i * stride, s = j + width; j < s; j++) {
-					byte idx = data[j];
-					int p = (idx & 0xff) * 4 + paletteOffset;
-					byte b = data[p++];
-					byte g = data[p++];
-					byte r = data[p];
-					raster.put(r).put(g).put(b).put((byte) (idx == 0 ? 0 : 0xff));
-				}
-			}
-		} else {
-			for (int i = 0; i < height; i++) {
-				for (int j = rasterOffset + i * stride, s = j + width; j < s; j++) {
-					byte idx = data[j];
-					int p = (idx & 0xff) * 4 + paletteOffset;
-					byte b = data[p++];
-					byte g = data[p++];
-					byte r = data[p];
-					raster.put(r).put(g).put(b).put((byte) (idx == 0 ? 0 : 0xff));
-				}
-			}
+		int rasterStart = offset + rasterOffset;
+		if (rasterOffset < 0 || (long) stride * (height - 1) + width > length - rasterOffset) {
+			throw new RuntimeException("BMP raster is out of data bounds");
 		}
 
-		return textureData;
+		// the indices are kept as is, the colors are looked up when the texture is drawn
+		ByteBuffer palette = BufferUtils.createByteBuffer(TextureData.PALETTE_SIZE * 4);
+		int paletteEnd = offset + length;
+		for (int i = 0, p = paletteOffset; i < TextureData.PALETTE_SIZE; i++, p += 4) {
+			if (p + 3 <= paletteEnd) {
+				palette.put(data[p + 2]).put(data[p + 1]).put(data[p]);
+			} else {
+				palette.put((byte) 0).put((byte) 0).put((byte) 0);
+			}
+			palette.put((byte) (i == 0 ? 0 : 0xff));
+		}
+		ByteBuffer indices = BufferUtils.createByteBuffer(width * height);
+		for (int i = 0; i < height; i++) {
+			int row = reversed ? height - 1 - i : i;
+			indices.put(data, rasterStart + row * stride, width);
+		}
+		return new TextureData(width, height, indices, palette);
 	}
 
 	private void readVerticesV1(FloatBuffer vertices) throws IOException {
@@ -39,6 +39,8 @@ class Model {
 	final int numVerticesPolyT;
 	final int[] indices;
 	final ByteBuffer bones;
+	/** Scratch for the bone matrices of the Java skinning */
+	final float[] boneTransforms;
 
 	Model(int vertices, int numBones, int patterns, int numTextures,
 		  int polyT3, int polyT4, int polyC3, int polyC4) {
@@ -59,6 +61,41 @@ class Model {
 		this.vertices = BufferUtils.createFloatBuffer(i);
 		this.vertices.put(--i, Float.POSITIVE_INFINITY);
 		bones = BufferUtils.createByteBuffer(numBones * (12 + 2) * 4);
+		boneTransforms = new float[numBones * 12];
+	}
+
+	/**
+	 * Copy sharing the parsed data of the source, with own buffers changed by posture and pattern
+	 */
+	Model(Model src) {
+		numPatterns = src.numPatterns;
+		hasPolyC = src.hasPolyC;
+		hasPolyT = src.hasPolyT;
+		texCoordArray = src.texCoordArray;
+		originalVertices = src.originalVertices;
+		originalNormals = src.originalNormals;
+		polygonsC = src.polygonsC;
+		polygonsT = src.polygonsT;
+		vertexArrayCapacity = src.vertexArrayCapacity;
+		subMeshesLengthsT = src.subMeshesLengthsT;
+		subMeshesLengthsC = src.subMeshesLengthsC;
+		numVerticesPolyT = src.numVerticesPolyT;
+		bones = src.bones;
+		boneTransforms = new float[src.boneTransforms.length];
+		indices = src.indices.clone();
+		vertices = copy(src.vertices);
+		if (src.normals != null) {
+			normals = copy(src.normals);
+		}
+	}
+
+	private static FloatBuffer copy(FloatBuffer src) {
+		FloatBuffer source = src.duplicate();
+		source.rewind();
+		FloatBuffer buffer = BufferUtils.createFloatBuffer(source.capacity());
+		buffer.put(source);
+		buffer.rewind();
+		return buffer;
 	}
 
 	static final class Polygon {
@@ -32,6 +32,10 @@ abstract class Program {
 	static Simple simple;
 	static Sprite sprite;
 	private static boolean isCreated;
+	/** Program in use, it is not set again while the state is valid */
+	private static Program current;
+	/** Texture bound to unit 0 by {@link Tex#setTex}, null if the binding is not known */
+	static TextureImpl boundTexture;
 
 	protected final int id;
 	protected int uAmbIntensity;
@@ -113,7 +117,20 @@ abstract class Program {
 	}
 
 	void use() {
+		if (current == this) {
+			return;
+		}
+		current = this;
 		glUseProgram(id);
+		RenderStats.stateChanges++;
+	}
+
+	/**
+	 * Forgets the tracked GL state, must be called when the state may have been changed outside of this class
+	 */
+	static void resetState() {
+		current = null;
+		boundTexture = null;
 	}
 
 	protected abstract void getLocations();
@@ -124,6 +141,7 @@ abstract class Program {
 		color.delete();
 		simple.delete();
 		sprite.delete();
+		resetState();
 		isCreated = false;
 	}
 
@@ -132,6 +150,17 @@ abstract class Program {
 		Render.checkGlError("program delete");
 	}
 
+	/**
+	 * Binds the palette of a paletted texture to unit 3, the shader then looks up the color of the sampled index
+	 */
+	static void bindPalette(int uIsPaletted, int paletteId) {
+		if (paletteId != 0) {
+			glActiveTexture(GL_TEXTURE3);
+			glBindTexture(GL_TEXTURE_2D, paletteId);
+		}
+		glUniform1i(uIsPaletted, paletteId != 0 ? 1 : 0);
+	}
+
 	void setLight(Light light) {
 		if (light == null) {
 			glUniform1f(uAmbIntensity, -1.0f);
@@ -202,7 +231,7 @@ abstract class Program {
 
 		void setSphere(TextureImpl sphere) {
 			if (sphere != null) {
-				int id = sphere.getId();
+				int id = sphere.getRgbaId();
 				glActiveTexture(GL_TEXTURE2);
 				glBindTexture(GL_TEXTURE_2D, id);
 				glUniform2f(uSphereSize, sphere.getWidth(), sphere.getHeight());
@@ -233,6 +262,7 @@ abstract class Program {
 		private static final String VERTEX = "shaders/tex.vsh";
 		private static final String FRAGMENT = "shaders/tex.fsh";
 		int uTexSize;
+		int uIsPaletted;
 		int uSphereSize;
 		int uToonThreshold;
 		int uToonHigh;
@@ -256,6 +286,7 @@ abstract class Program {
 			aColorData = glGetAttribLocation(id, "aColorData");
 			aMaterial = glGetAttribLocation(id, "aMaterial");
 			uTexSize = glGetUniformLocation(id, "uTexSize");
+			uIsPaletted = glGetUniformLocation(id, "uIsPaletted");
 			uSphereSize = glGetUniformLocation(id, "uSphereSize");
 			uMatrix = glGetUniformLocation(id, "uMatrix");
 			uNormalMatrix = glGetUniformLocation(id, "uNormalMatrix");
@@ -268,18 +299,27 @@ abstract class Program {
 			use();
 			glUniform1i(glGetUniformLocation(id, "uTextureUnit"), 0);
 			glUniform1i(glGetUniformLocation(id, "uSphereUnit"), 2);
+			glUniform1i(glGetUniformLocation(id, "uPaletteUnit"), 3);
 		}
 
 		void setTex(TextureImpl tex) {
 			if (tex != null) {
+				if (tex == boundTexture) {
+					return;
+				}
 				int id = tex.getId();
+				bindPalette(uIsPaletted, tex.getPaletteId());
 				glActiveTexture(GL_TEXTURE0);
 				glBindTexture(GL_TEXTURE_2D, id);
 				glUniform2f(uTexSize, tex.getWidth(), tex.getHeight());
 			} else {
 				glUniform2f(uTexSize, 256, 256);
+				glUniform1i(uIsPaletted, 0);
+				glActiveTexture(GL_TEXTURE0);
 				glBindTexture(GL_TEXTURE_2D, 0);
 			}
+			boundTexture = tex;
+			RenderStats.stateChanges++;
 		}
 
 		void setToonShading(int attrs, int threshold, int high, int low) {
@@ -299,7 +339,7 @@ abstract class Program {
 
 		void setSphere(TextureImpl sphere) {
 			if (sphere != null) {
-				int id = sphere.getId();
+				int id = sphere.getRgbaId();
 				glActiveTexture(GL_TEXTURE2);
 				glBindTexture(GL_TEXTURE_2D, id);
 				glUniform2f(uSphereSize, sphere.getWidth(), sphere.getHeight());
@@ -313,6 +353,7 @@ abstract class Program {
 		private static final String VERTEX = "shaders/sprite.vsh";
 		private static final String FRAGMENT = "shaders/sprite.fsh";
 		int uTexSize;
+		int uIsPaletted;
 		int uIsTransparency;
 
 		Sprite() {
@@ -332,15 +373,20 @@ abstract class Program {
 			aColorData = glGetAttribLocation(id, "aColorData");
 			uTexSize = glGetUniformLocation(id, "uTexSize");
 			uIsTransparency = glGetUniformLocation(id, "uIsTransparency");
+			uIsPaletted = glGetUniformLocation(id, "uIsPaletted");
 			use();
 			glUniform1i(glGetUniformLocation(id, "uTextureUnit"), 0);
+			glUniform1i(glGetUniformLocation(id, "uPaletteUnit"), 3);
 		}
 
 		void setTexture(TextureImpl texture) {
 			int id = texture.getId();
+			bindPalette(uIsPaletted, texture.getPaletteId());
 			glActiveTexture(GL_TEXTURE0);
 			glBindTexture(GL_TEXTURE_2D, id);
 			glUniform2f(uTexSize, texture.getWidth(), texture.getHeight());
+			boundTexture = null;
+			RenderStats.stateChanges++;
 		}
 	}
 }
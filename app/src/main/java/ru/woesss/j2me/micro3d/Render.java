@@ -24,6 +24,7 @@ import android.graphics.PorterDuff;
 import android.graphics.Rect;
 import android.opengl.GLU;
 import android.opengl.GLUtils;
+import android.os.Build;
 import android.util.Log;
 
 import com.mascotcapsule.micro3d.v3.Graphics3D;
@@ -31,7 +32,11 @@ import com.mascotcapsule.micro3d.v3.Graphics3D;
 import java.nio.ByteBuffer;
 import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.LinkedList;
+import java.util.Stack;
 
 import javax.microedition.khronos.egl.EGL10;
 import javax.microedition.khronos.egl.EGLConfig;
@@ -57,6 +62,20 @@ public class Render {
 	private static final int PDATA_TEXCOORD_MASK = Graphics3D.PDATA_TEXURE_COORD;
 	private static final int[] PRIMITIVE_SIZES = {0, 1, 2, 3, 4, 1};
 
+	/**
+	 * Groups figures by program, then by texture. The keys do not depend on the memory layout,
+	 * and the sort is stable, so figures of the same state keep their posting order.
+	 */
+	private static final Comparator<RenderNode> STATE_ORDER = (l, r) -> {
+		FigureNode lf = (FigureNode) l;
+		FigureNode rf = (FigureNode) r;
+		int c = Integer.compare(programKey(lf), programKey(rf));
+		if (c != 0) {
+			return c;
+		}
+		return Integer.compare(textureKey(lf.textures), textureKey(rf.textures));
+	};
+
 	final Environment env = new Environment();
 	private EGLDisplay eglDisplay;
 	private EGLSurface eglWindowSurface;
@@ -70,12 +89,30 @@ public class Render {
 	private final Rect clip = new Rect();
 	private boolean backCopied;
 	private final LinkedList<RenderNode> stack = new LinkedList<>();
+	/** Direct memory for the data of the posted primitives, released when the stack is cleared */
+	private final BufferArena arena = new BufferArena();
+	private final Stack<RenderNode.PrimitiveNode> primitiveNodes = new Stack<>();
 	private int flushStep;
+	/** Current blending mode and face culling, -1 if not known */
+	private int blendMode = -1;
+	private int cullFace = -1;
 	private final boolean postCopy2D = !Boolean.getBoolean("micro3d.v3.render.no-mix2D3D");
 	private final boolean preCopy2D = !Boolean.getBoolean("micro3d.v3.render.background.ignore");
+	/**
+	 * Set by "micro3d.v3.render.sort-opaque". Off by default: of coplanar opaque figures
+	 * the first drawn one passes the depth test, so the sort may change the visible one.
+	 */
+	private final boolean sortOpaque = Boolean.getBoolean("micro3d.v3.render.sort-opaque");
+	/** Consecutive figures of the opaque pass, drawn ordered by {@link #STATE_ORDER} */
+	private final ArrayList<RenderNode> opaqueRun = new ArrayList<>();
 	private IntBuffer bufHandles;
 	private int clearColor;
 	private TextureImpl targetTexture;
+	/** Set if enabled by "micro3d.v3.render.async-readback", the frame reaches the bitmap one frame later */
+	private AsyncReadback asyncReadback;
+	/** Size of the background texture storage, it is updated in place while the size is the same */
+	private int bgWidth;
+	private int bgHeight;
 
 	/**
 	 * Utility method for debugging OpenGL calls.
@@ -93,6 +130,15 @@ public class Render {
 		}
 	}
 
+	/** Figures with textured polygons use the texture program first */
+	private static int programKey(FigureNode node) {
+		return node.figure.model.hasPolyT ? 0 : 1;
+	}
+
+	private static int textureKey(TextureImpl[] textures) {
+		return textures.length == 0 || textures[0] == null ? 0 : textures[0].serial;
+	}
+
 	public static Render getRender() {
 		return InstanceHolder.instance;
 	}
@@ -105,9 +151,29 @@ public class Render {
 		egl.eglInitialize(eglDisplay, version);
 
 		int EGL_OPENGL_ES2_BIT = 0x0004;
+		int EGL_OPENGL_ES3_BIT = 0x0040;
+		// pixel buffer objects for the async readback need OpenGL ES 3.0
+		boolean async = Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2
+				&& Boolean.getBoolean("micro3d.v3.render.async-readback");
+		if (async) {
+			eglConfig = chooseConfig(egl, EGL_OPENGL_ES3_BIT);
+			if (eglConfig != null) {
+				eglContext = createContext(egl, 3);
+			}
+			if (eglContext != null) {
+				asyncReadback = new AsyncReadback();
+				return;
+			}
+			Log.w(Utils.TAG, "OpenGL ES 3.0 is not supported, readback is synchronous");
+		}
+		eglConfig = chooseConfig(egl, EGL_OPENGL_ES2_BIT);
+		eglContext = createContext(egl, 2);
+	}
+
+	private EGLConfig chooseConfig(EGL10 egl, int renderableType) {
 		int[] num_config = new int[1];
 		int[] attribs = {
-				EGL10.EGL_RENDERABLE_TYPE, EGL_OPENGL_ES2_BIT,
+				EGL10.EGL_RENDERABLE_TYPE, renderableType,
 				EGL10.EGL_SURFACE_TYPE, EGL10.EGL_PBUFFER_BIT,
 				EGL10.EGL_RED_SIZE, 8,
 				EGL10.EGL_GREEN_SIZE, 8,
@@ -119,14 +185,17 @@ public class Render {
 		};
 		EGLConfig[] eglConfigs = new EGLConfig[1];
 		egl.eglChooseConfig(eglDisplay, attribs, eglConfigs, 1, num_config);
-		eglConfig = eglConfigs[0];
+		return num_config[0] > 0 ? eglConfigs[0] : null;
+	}
 
+	private EGLContext createContext(EGL10 egl, int clientVersion) {
 		int EGL_CONTEXT_CLIENT_VERSION = 0x3098;
 		int[] attrib_list = {
-				EGL_CONTEXT_CLIENT_VERSION, 2,
+				EGL_CONTEXT_CLIENT_VERSION, clientVersion,
 				EGL10.EGL_NONE
 		};
-		eglContext = egl.eglCreateContext(eglDisplay, eglConfig, EGL10.EGL_NO_CONTEXT, attrib_list);
+		EGLContext context = egl.eglCreateContext(eglDisplay, eglConfig, EGL10.EGL_NO_CONTEXT, attrib_list);
+		return context == EGL10.EGL_NO_CONTEXT ? null : context;
 	}
 
 	public synchronized void bind(Graphics graphics) {
@@ -160,6 +229,11 @@ public class Render {
 			glClear(GL_COLOR_BUFFER_BIT);
 		}
 		egl.eglMakeCurrent(eglDisplay, eglWindowSurface, eglWindowSurface, eglContext);
+		Bitmap pending = asyncReadback == null ? null : asyncReadback.getPendingTarget();
+		if (pending != null && pending != graphics.getBitmap()) {
+			// the previous target is not read again, its frame must not wait for it
+			asyncReadback.flush();
+		}
 		Rect clip = this.clip;
 		canvas.getClipBounds(clip);
 		int l = clip.left;
@@ -206,6 +280,9 @@ public class Render {
 			env.height = height;
 		}
 		egl.eglMakeCurrent(eglDisplay, eglWindowSurface, eglWindowSurface, eglContext);
+		if (asyncReadback != null) {
+			asyncReadback.flush();
+		}
 		Rect clip = this.clip;
 		clip.set(0, 0, width, height);
 		int l = clip.left;
@@ -230,7 +307,12 @@ public class Render {
 
 	}
 
-	private static void applyBlending(int blendMode) {
+	private void applyBlending(int blendMode) {
+		if (blendMode == this.blendMode) {
+			return;
+		}
+		this.blendMode = blendMode;
+		RenderStats.stateChanges++;
 		switch (blendMode) {
 			case Model.Polygon.BLEND_HALF:
 				glEnable(GL_BLEND);
@@ -253,6 +335,76 @@ public class Render {
 		}
 	}
 
+	private void setCullFace(boolean enabled) {
+		int cullFace = enabled ? 1 : 0;
+		if (cullFace == this.cullFace) {
+			return;
+		}
+		this.cullFace = cullFace;
+		RenderStats.stateChanges++;
+		if (enabled) {
+			glEnable(GL_CULL_FACE);
+		} else {
+			glDisable(GL_CULL_FACE);
+		}
+	}
+
+	private void drawTriangles(int first, int count, boolean cullFace) {
+		setCullFace(cullFace);
+		glDrawArrays(GL_TRIANGLES, first, count);
+		RenderStats.drawCalls++;
+	}
+
+	/**
+	 * Forgets the tracked GL state at the start of a frame, the context is shared with 2D copying.
+	 * Textures released since the last frame are deleted while the context is current.
+	 */
+	private void beginFrame() {
+		Program.resetState();
+		TextureUploads.deleteReleased();
+		blendMode = -1;
+		cullFace = -1;
+		RenderStats.begin(stack.size());
+	}
+
+	/**
+	 * Draws the opaque pass. Adjacent nodes of the same state share it,
+	 * the tracked state skips the redundant changes.
+	 * If {@link #sortOpaque} is set, runs of figures between primitives are grouped by their state,
+	 * otherwise everything is drawn in the posting order.
+	 * Primitives keep their place, they are often drawn over the same depth.
+	 */
+	private void renderOpaque() {
+		flushStep = 1;
+		if (!sortOpaque) {
+			for (RenderNode r : stack) {
+				r.render(this);
+			}
+			return;
+		}
+		ArrayList<RenderNode> run = opaqueRun;
+		for (RenderNode r : stack) {
+			if (r instanceof FigureNode) {
+				run.add(r);
+				continue;
+			}
+			renderRun(run);
+			r.render(this);
+		}
+		renderRun(run);
+	}
+
+	private void renderRun(ArrayList<RenderNode> run) {
+		if (run.size() > 1) {
+			// stable, figures of the same state keep their order
+			Collections.sort(run, STATE_ORDER);
+		}
+		for (RenderNode r : run) {
+			r.render(this);
+		}
+		run.clear();
+	}
+
 	private void copy2d(boolean preProcess) {
 		if (targetTexture != null) {// render to texture
 			return;
@@ -267,12 +419,25 @@ public class Render {
 			glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, filter ? GL_LINEAR : GL_NEAREST);
 			glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_S, GL_CLAMP_TO_EDGE);
 			glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_T, GL_CLAMP_TO_EDGE);
+			bgWidth = 0;
+			bgHeight = 0;
 		} else {
 			glActiveTexture(GL_TEXTURE1);
 			glBindTexture(GL_TEXTURE_2D, bgTextureId.get(0));
 		}
 		Bitmap targetImage = targetGraphics.getBitmap();
-		GLUtils.texImage2D(GL_TEXTURE_2D, 0, targetImage, 0);
+		int width = targetImage.getWidth();
+		int height = targetImage.getHeight();
+		if (bgWidth != width || bgHeight != height) {
+			GLUtils.texImage2D(GL_TEXTURE_2D, 0, targetImage, 0);
+			bgWidth = width;
+			bgHeight = height;
+		} else if (targetImage.getConfig() != Bitmap.Config.ARGB_8888) {
+			GLUtils.texSubImage2D(GL_TEXTURE_2D, 0, 0, 0, targetImage);
+		} else if (!gClip.isEmpty()) {
+			// only the rows of the clip are visible, the drawing is scissored
+			Utils.texSubImage2D(gClip.top, gClip.height(), targetImage);
+		}
 		checkGlError("texImage2D");
 
 		final Program.Simple program = Program.simple;
@@ -318,6 +483,10 @@ public class Render {
 		try {
 			// Destroy EGL
 			EGL10 egl = (EGL10) EGLContext.getEGL();
+			if (asyncReadback != null && eglWindowSurface != null) {
+				bindEglContext();
+				asyncReadback.release();
+			}
 			egl.eglMakeCurrent(eglDisplay, EGL10.EGL_NO_SURFACE, EGL10.EGL_NO_SURFACE, EGL10.EGL_NO_CONTEXT);
 			if (eglWindowSurface != null)
 				egl.eglDestroySurface(eglDisplay, eglWindowSurface);
@@ -450,7 +619,7 @@ public class Render {
 		int pos = 0;
 		if (flushStep == 1) {
 			if (enableBlending) length = 1;
-			glDisable(GL_BLEND);
+			applyBlending(0);
 		} else {
 			int[][] mesh = meshes[blendMode++];
 			int cnt = 0;
@@ -466,27 +635,44 @@ public class Render {
 			if (flushStep == 2) {
 				applyBlending(blendMode << 1);
 			}
+			// adjacent ranges of the same texture and culling are merged into one draw
+			int first = pos;
+			int count = 0;
+			boolean cull = false;
+			TextureImpl faceTex = null;
 			for (int face = 0; face < texMesh.length; face++) {
 				int[] lens = texMesh[face];
-				if (face >= textures.length) {
-					program.setTex(null);
-				} else {
-					TextureImpl tex = textures[face];
+				TextureImpl tex = face < textures.length ? textures[face] : null;
+				if (face == 0 || tex != faceTex) {
+					if (count > 0) {
+						drawTriangles(first, count, cull);
+						count = 0;
+					}
 					program.setTex(tex);
+					faceTex = tex;
 				}
-				int cnt = lens[0];
-				if (cnt > 0) {
-					glEnable(GL_CULL_FACE);
-					glDrawArrays(GL_TRIANGLES, pos, cnt);
-					pos += cnt;
-				}
-				cnt = lens[1];
-				if (cnt > 0) {
-					glDisable(GL_CULL_FACE);
-					glDrawArrays(GL_TRIANGLES, pos, cnt);
+				for (int i = 0; i < 2; i++) {
+					int cnt = lens[i];
+					if (cnt == 0) {
+						continue;
+					}
+					// the first range is drawn with culling, the second one is double-faced
+					boolean faceCull = i == 0;
+					if (count > 0 && faceCull != cull) {
+						drawTriangles(first, count, cull);
+						count = 0;
+					}
+					if (count == 0) {
+						first = pos;
+						cull = faceCull;
+					}
+					count += cnt;
 					pos += cnt;
 				}
 			}
+			if (count > 0) {
+				drawTriangles(first, count, cull);
+			}
 			blendMode++;
 		}
 		checkGlError("glDrawArrays");
@@ -499,7 +685,7 @@ public class Render {
 		int blendMode = 0;
 		if (flushStep == 1) {
 			if (enableBlending) length = 1;
-			glDisable(GL_BLEND);
+			applyBlending(0);
 		} else {
 			int[] mesh = meshes[blendMode++];
 			int cnt = 0;
@@ -515,14 +701,12 @@ public class Render {
 			}
 			int cnt = mesh[0];
 			if (cnt > 0) {
-				glEnable(GL_CULL_FACE);
-				glDrawArrays(GL_TRIANGLES, pos, cnt);
+				drawTriangles(pos, cnt, true);
 				pos += cnt;
 			}
 			cnt = mesh[1];
 			if (cnt > 0) {
-				glDisable(GL_CULL_FACE);
-				glDrawArrays(GL_TRIANGLES, pos, cnt);
+				drawTriangles(pos, cnt, false);
 				pos += cnt;
 			}
 			blendMode++;
@@ -531,7 +715,7 @@ public class Render {
 	}
 
 	public synchronized void release() {
-		stack.clear();
+		clearStack();
 		bindEglContext();
 		if (targetTexture != null) {
 			glReadPixels(0, 0, 256, 256, GL_RGBA, GL_UNSIGNED_BYTE, targetTexture.image.getRaster());
@@ -541,7 +725,11 @@ public class Render {
 				copy2d(false);
 			}
 			Rect clip = this.gClip;
-			Utils.glReadPixels(clip.left, clip.top, clip.width(), clip.height(), targetGraphics.getBitmap());
+			if (asyncReadback != null) {
+				asyncReadback.readPixels(clip, targetGraphics.getBitmap());
+			} else {
+				Utils.glReadPixels(clip.left, clip.top, clip.width(), clip.height(), targetGraphics.getBitmap());
+			}
 			targetGraphics = null;
 		}
 		releaseEglContext();
@@ -556,10 +744,8 @@ public class Render {
 			if (!backCopied && preCopy2D) {
 				copy2d(true);
 			}
-			flushStep = 1;
-			for (RenderNode r : stack) {
-				r.render(this);
-			}
+			beginFrame();
+			renderOpaque();
 			flushStep = 2;
 			for (RenderNode r : stack) {
 				r.render(this);
@@ -569,8 +755,9 @@ public class Render {
 			glDepthMask(true);
 			glClear(GL_DEPTH_BUFFER_BIT);
 			glFlush();
+			RenderStats.end();
 		} finally {
-			stack.clear();
+			clearStack();
 			releaseEglContext();
 		}
 	}
@@ -612,6 +799,7 @@ public class Render {
 		}
 
 		glDrawArrays(GL_TRIANGLES, 0, node.vertices.capacity() / 3);
+		RenderStats.drawCalls++;
 		glDisableVertexAttribArray(program.aPosition);
 		glDisableVertexAttribArray(program.aColorData);
 		glDisableVertexAttribArray(program.aNormal);
@@ -653,6 +841,7 @@ public class Render {
 		program.setTex(node.texture);
 
 		glDrawArrays(GL_TRIANGLES, 0, node.vertices.capacity() / 3);
+		RenderStats.drawCalls++;
 
 		glDisableVertexAttribArray(program.aPosition);
 		glDisableVertexAttribArray(program.aColorData);
@@ -807,19 +996,19 @@ public class Render {
 		switch ((command & 0x7000000)) {
 			case Graphics3D.PRIMITVE_POINTS: {
 				int vcLen = numPrimitives * 3;
-				vcBuf = BufferUtils.createFloatBuffer(vcLen);
+				vcBuf = arena.allocFloats(vcLen);
 				for (int i = 0; i < vcLen; i++) {
 					vcBuf.put(vertices[vo++]);
 				}
 
 				if ((command & PDATA_COLOR_MASK) == Graphics3D.PDATA_COLOR_PER_COMMAND) {
-					colorBuf = BufferUtils.createByteBuffer(3);
+					colorBuf = arena.allocBytes(3);
 					int color = colors[co];
 					colorBuf.put((byte) (color >> 16 & 0xFF));
 					colorBuf.put((byte) (color >> 8 & 0xFF));
 					colorBuf.put((byte) (color & 0xFF));
 				} else if ((command & PDATA_COLOR_MASK) != Graphics3D.PDATA_COLOR_NONE) {
-					colorBuf = BufferUtils.createByteBuffer(vcLen);
+					colorBuf = arena.allocBytes(vcLen);
 					for (int i = 0; i < numPrimitives; i++) {
 						int color = colors[co++];
 						colorBuf.put((byte) (color >> 16 & 0xFF));
@@ -833,19 +1022,19 @@ public class Render {
 			}
 			case Graphics3D.PRIMITVE_LINES: {
 				int vcLen = numPrimitives * 2 * 3;
-				vcBuf = BufferUtils.createFloatBuffer(vcLen);
+				vcBuf = arena.allocFloats(vcLen);
 				for (int i = 0; i < vcLen; i++) {
 					vcBuf.put(vertices[vo++]);
 				}
 
 				if ((command & PDATA_COLOR_MASK) == Graphics3D.PDATA_COLOR_PER_COMMAND) {
-					colorBuf = BufferUtils.createByteBuffer(3);
+					colorBuf = arena.allocBytes(3);
 					int color = colors[co];
 					colorBuf.put((byte) (color >> 16 & 0xFF));
 					colorBuf.put((byte) (color >> 8 & 0xFF));
 					colorBuf.put((byte) (color & 0xFF));
 				} else if ((command & PDATA_COLOR_MASK) != Graphics3D.PDATA_COLOR_NONE) {
-					colorBuf = BufferUtils.createByteBuffer(vcLen);
+					colorBuf = arena.allocBytes(vcLen);
 					for (int i = 0; i < numPrimitives; i++) {
 						int color = colors[co++];
 						byte r = (byte) (color >> 16 & 0xFF);
@@ -861,12 +1050,12 @@ public class Render {
 			}
 			case Graphics3D.PRIMITVE_TRIANGLES: {
 				int vcLen = numPrimitives * 3 * 3;
-				vcBuf = BufferUtils.createFloatBuffer(vcLen);
+				vcBuf = arena.allocFloats(vcLen);
 				for (int i = 0; i < vcLen; i++) {
 					vcBuf.put(vertices[vo++]);
 				}
 				if ((command & PDATA_NORMAL_MASK) == Graphics3D.PDATA_NORMAL_PER_FACE) {
-					ncBuf = BufferUtils.createFloatBuffer(vcLen);
+					ncBuf = arena.allocFloats(vcLen);
 					for (int end = no + numPrimitives * 3; no < end; ) {
 						float x = normals[no++];
 						float y = normals[no++];
@@ -876,7 +1065,7 @@ public class Render {
 						ncBuf.put(x).put(y).put(z);
 					}
 				} else if ((command & PDATA_NORMAL_MASK) == Graphics3D.PDATA_NORMAL_PER_VERTEX) {
-					ncBuf = BufferUtils.createFloatBuffer(vcLen);
+					ncBuf = arena.allocFloats(vcLen);
 					for (int end = no + vcLen; no < end; ) {
 						ncBuf.put(normals[no++]);
 					}
@@ -886,18 +1075,18 @@ public class Render {
 						return;
 					}
 					int tcLen = numPrimitives * 3 * 2;
-					tcBuf = BufferUtils.createByteBuffer(tcLen);
+					tcBuf = arena.allocBytes(tcLen);
 					for (int i = 0; i < tcLen; i++) {
 						tcBuf.put((byte) textureCoords[to++]);
 					}
 				} else if ((command & PDATA_COLOR_MASK) == Graphics3D.PDATA_COLOR_PER_COMMAND) {
-					colorBuf = BufferUtils.createByteBuffer(3);
+					colorBuf = arena.allocBytes(3);
 					int color = colors[co];
 					colorBuf.put((byte) (color >> 16 & 0xFF));
 					colorBuf.put((byte) (color >> 8 & 0xFF));
 					colorBuf.put((byte) (color & 0xFF));
 				} else if ((command & PDATA_COLOR_MASK) != Graphics3D.PDATA_COLOR_NONE) {
-					colorBuf = BufferUtils.createByteBuffer(vcLen);
+					colorBuf = arena.allocBytes(vcLen);
 					for (int i = 0; i < numPrimitives; i++) {
 						int color = colors[co++];
 						byte r = (byte) (color >> 16 & 0xFF);
@@ -913,7 +1102,7 @@ public class Render {
 				break;
 			}
 			case Graphics3D.PRIMITVE_QUADS: {
-				vcBuf = BufferUtils.createFloatBuffer(numPrimitives * 6 * 3);
+				vcBuf = arena.allocFloats(numPrimitives * 6 * 3);
 				for (int i = 0; i < numPrimitives; i++) {
 					int offset = vo + i * 4 * 3;
 					int pos = offset;
@@ -927,7 +1116,7 @@ public class Render {
 					vcBuf.put(vertices[pos++]).put(vertices[pos++]).put(vertices[pos]);   // C
 				}
 				if ((command & PDATA_NORMAL_MASK) == Graphics3D.PDATA_NORMAL_PER_FACE) {
-					ncBuf = BufferUtils.createFloatBuffer(numPrimitives * 6 * 3);
+					ncBuf = arena.allocFloats(numPrimitives * 6 * 3);
 					for (int end = no + numPrimitives * 3; no < end; ) {
 						float x = normals[no++];
 						float y = normals[no++];
@@ -940,7 +1129,7 @@ public class Render {
 						ncBuf.put(x).put(y).put(z);
 					}
 				} else if ((command & PDATA_NORMAL_MASK) == Graphics3D.PDATA_NORMAL_PER_VERTEX) {
-					ncBuf = BufferUtils.createFloatBuffer(numPrimitives * 6 * 3);
+					ncBuf = arena.allocFloats(numPrimitives * 6 * 3);
 					for (int i = 0; i < numPrimitives; i++) {
 						int offset = no + i * 4 * 3;
 						int pos = offset;
@@ -958,7 +1147,7 @@ public class Render {
 					if (env.getTexture() == null) {
 						return;
 					}
-					tcBuf = BufferUtils.createByteBuffer(numPrimitives * 6 * 2);
+					tcBuf = arena.allocBytes(numPrimitives * 6 * 2);
 					for (int i = 0; i < numPrimitives; i++) {
 						int offset = to + i * 4 * 2;
 						int pos = offset;
@@ -972,13 +1161,13 @@ public class Render {
 						tcBuf.put((byte) textureCoords[pos++]).put((byte) textureCoords[pos]);   // C
 					}
 				} else if ((command & PDATA_COLOR_MASK) == Graphics3D.PDATA_COLOR_PER_COMMAND) {
-					colorBuf = BufferUtils.createByteBuffer(3);
+					colorBuf = arena.allocBytes(3);
 					int color = colors[co];
 					colorBuf.put((byte) (color >> 16 & 0xFF));
 					colorBuf.put((byte) (color >> 8 & 0xFF));
 					colorBuf.put((byte) (color & 0xFF));
 				} else if ((command & PDATA_COLOR_MASK) != Graphics3D.PDATA_COLOR_NONE) {
-					colorBuf = BufferUtils.createByteBuffer(numPrimitives * 6 * 3);
+					colorBuf = arena.allocBytes(numPrimitives * 6 * 3);
 					for (int i = 0; i < numPrimitives; i++) {
 						int color = colors[co++];
 						byte r = (byte) (color >> 16 & 0xFF);
@@ -1007,8 +1196,8 @@ public class Render {
 
 				float[] vertex = new float[6 * 4];
 
-				vcBuf = BufferUtils.createFloatBuffer(numPrimitives * 6 * 4);
-				tcBuf = BufferUtils.createByteBuffer(numPrimitives * 6 * 2);
+				vcBuf = arena.allocFloats(numPrimitives * 6 * 4);
+				tcBuf = arena.allocBytes(numPrimitives * 6 * 2);
 				int angle = 0;
 				float halfWidth = 0;
 				float halfHeight = 0;
@@ -1080,7 +1269,14 @@ public class Render {
 			default:
 				throw new IllegalArgumentException();
 		}
-		stack.add(new RenderNode.PrimitiveNode(this, command, vcBuf, ncBuf, tcBuf, colorBuf));
+		RenderNode.PrimitiveNode node;
+		if (primitiveNodes.empty()) {
+			node = new RenderNode.PrimitiveNode(this, command, vcBuf, ncBuf, tcBuf, colorBuf);
+		} else {
+			node = primitiveNodes.pop();
+			node.set(this, command, vcBuf, ncBuf, tcBuf, colorBuf);
+		}
+		stack.add(node);
 	}
 
 	public synchronized void drawFigure(FigureImpl figure) {
@@ -1092,10 +1288,8 @@ public class Render {
 			Model model = figure.model;
 			figure.prepareBuffers();
 
-			flushStep = 1;
-			for (RenderNode r : stack) {
-				r.render(this);
-			}
+			beginFrame();
+			renderOpaque();
 			renderFigure(model,
 					env.textures,
 					env.attrs,
@@ -1130,6 +1324,7 @@ public class Render {
 			glDisable(GL_BLEND);
 			glDepthMask(true);
 			glClear(GL_DEPTH_BUFFER_BIT);
+			RenderStats.end();
 		} finally {
 			releaseEglContext();
 		}
@@ -1144,7 +1339,24 @@ public class Render {
 	}
 
 	public void reset() {
+		clearStack();
+	}
+
+	/**
+	 * Returns the primitive nodes to the pool and the memory of their data to the arena
+	 */
+	private void clearStack() {
+		for (RenderNode node : stack) {
+			if (node instanceof RenderNode.PrimitiveNode primitive) {
+				primitiveNodes.push(primitive);
+			}
+		}
 		stack.clear();
+		opaqueRun.clear();
+		if (arena.reset()) {
+			Log.d(Utils.TAG, "Primitives arena grown to " + arena.getCapacity()
+					+ " bytes, frame peak " + arena.getHighWater() + " bytes");
+		}
 	}
 
 	public void setTexture(TextureImpl tex) {
@@ -1207,7 +1419,7 @@ public class Render {
 		glEnable(GL_DEPTH_TEST);
 		glDepthFunc(GL_LESS);
 		glDepthMask(flushStep == 1);
-		glDisable(GL_CULL_FACE);
+		setCullFace(false);
 		applyBlending(blend);
 		int numPrimitives = command >> 16 & 0xff;
 		switch ((command & 0x7000000)) {
@@ -1244,6 +1456,7 @@ public class Render {
 
 				glUniform1i(program.uIsTransparency, (command & Graphics3D.PATTR_COLORKEY));
 				glDrawArrays(GL_TRIANGLES, 0, numPrimitives * 6);
+				RenderStats.drawCalls++;
 				glDisableVertexAttribArray(program.aPosition);
 				glDisableVertexAttribArray(program.aColorData);
 				checkGlError("renderPrimitive[PRIMITIVE_POINT_SPRITES]");
@@ -1269,6 +1482,7 @@ public class Render {
 		}
 
 		glDrawArrays(type, 0, node.vertices.capacity() / 3);
+		RenderStats.drawCalls++;
 
 		glDisableVertexAttribArray(program.aPosition);
 		glDisableVertexAttribArray(program.aColorData);
@@ -1434,10 +1648,8 @@ public class Render {
 		bindEglContext();
 		try {
 			copy2d(true);
-			flushStep = 1;
-			for (RenderNode r : stack) {
-				r.render(this);
-			}
+			beginFrame();
+			renderOpaque();
 			flushStep = 2;
 			for (RenderNode r : stack) {
 				r.render(this);
@@ -1447,14 +1659,19 @@ public class Render {
 			glDepthMask(true);
 			glClear(GL_DEPTH_BUFFER_BIT);
 			glFlush();
+			RenderStats.end();
 			if (targetTexture != null) {
 				glReadPixels(0, 0, 256, 256, GL_RGBA, GL_UNSIGNED_BYTE, targetTexture.image.getRaster());
 			} else if (targetGraphics != null) {
+				if (asyncReadback != null) {
+					// the older frame must not overwrite this one later
+					asyncReadback.flush();
+				}
 				Rect clip = this.gClip;
 				Utils.glReadPixels(clip.left, clip.top, clip.width(), clip.height(), targetGraphics.getBitmap());
 			}
 		} finally {
-			stack.clear();
+			clearStack();
 			releaseEglContext();
 		}
 	}
@@ -103,16 +103,25 @@ abstract class RenderNode {
 	}
 
 	static final class PrimitiveNode extends RenderNode {
-		final int command;
-		final FloatBuffer vertices;
-		final FloatBuffer normals;
-		final ByteBuffer texCoords;
-		final ByteBuffer colors;
-		final TextureImpl texture;
+		int command;
+		FloatBuffer vertices;
+		FloatBuffer normals;
+		ByteBuffer texCoords;
+		ByteBuffer colors;
+		TextureImpl texture;
 
 		PrimitiveNode(Render render, int command,
 					  FloatBuffer vertices, FloatBuffer normals,
 					  ByteBuffer texCoords, ByteBuffer colors) {
+			set(render, command, vertices, normals, texCoords, colors);
+		}
+
+		/**
+		 * Reinitializes a pooled node, the buffers are slices of the render arena valid until the flush
+		 */
+		void set(Render render, int command,
+				 FloatBuffer vertices, FloatBuffer normals,
+				 ByteBuffer texCoords, ByteBuffer colors) {
 			setData(render);
 			Render.Environment env = render.env;
 			this.texture = env.getTexture();
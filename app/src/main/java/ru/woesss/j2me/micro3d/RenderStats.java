@@ -0,0 +1,48 @@
+/*
+ * Copyright 2026 Yury Kharchenko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.woesss.j2me.micro3d;
+
+import android.util.Log;
+
+/**
+ * Counters of the GL work of one frame.
+ * The summary is logged after each flush if enabled by "micro3d.v3.render.stats".
+ */
+final class RenderStats {
+	private static final boolean ENABLED = Boolean.getBoolean("micro3d.v3.render.stats");
+
+	/** Number of glDrawArrays calls */
+	static int drawCalls;
+	/** Number of program, texture, blending and face culling changes */
+	static int stateChanges;
+	private static int nodes;
+
+	private RenderStats() {}
+
+	static void begin(int nodes) {
+		RenderStats.nodes = nodes;
+		drawCalls = 0;
+		stateChanges = 0;
+	}
+
+	static void end() {
+		if (ENABLED) {
+			Log.d(Utils.TAG, "Frame: " + nodes + " nodes, " + drawCalls + " draw calls, "
+					+ stateChanges + " state changes");
+		}
+	}
+}
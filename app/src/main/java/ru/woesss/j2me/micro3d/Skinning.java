@@ -0,0 +1,151 @@
+/*
+ * Copyright 2026 Yury Kharchenko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.woesss.j2me.micro3d;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+
+/**
+ * Java implementation of {@link Utils#transform} and {@link Utils#fillBuffer},
+ * used when the native library is not available.
+ * Buffers are accessed by absolute index only, the source data may be shared by several figures.
+ */
+final class Skinning {
+	/** Bone record in the bones buffer: vertex count, parent index and 3x4 matrix */
+	private static final int BONE_SIZE = (2 + 12) * 4;
+
+	private Skinning() {}
+
+	static void fillBuffer(FloatBuffer buffer, FloatBuffer vertices, int[] indices) {
+		int pos = 0;
+		for (int index : indices) {
+			int i = index * 3;
+			buffer.put(pos++, vertices.get(i++));
+			buffer.put(pos++, vertices.get(i++));
+			buffer.put(pos++, vertices.get(i));
+		}
+	}
+
+	/**
+	 * @param matrices scratch for the bone matrices, 12 floats per bone, reused between calls
+	 */
+	static void transform(FloatBuffer srcVertices, FloatBuffer dstVertices,
+						  FloatBuffer srcNormals, FloatBuffer dstNormals,
+						  ByteBuffer boneMatrices, float[] actionMatrices, float[] matrices) {
+		int bonesLen = boneMatrices.capacity() / BONE_SIZE;
+		int actionsLen = actionMatrices == null ? 0 : actionMatrices.length / 12;
+		int pos = 0;
+		for (int i = 0; i < bonesLen; i++) {
+			int offset = i * BONE_SIZE;
+			int length = boneMatrices.getInt(offset);
+			int parent = boneMatrices.getInt(offset + 4);
+			int m = i * 12;
+			for (int j = 0; j < 12; j++) {
+				matrices[m + j] = boneMatrices.getFloat(offset + 8 + j * 4);
+			}
+			if (parent != -1) {
+				multiply(matrices, m, matrices, parent * 12, matrices, m);
+			}
+			if (i < actionsLen) {
+				multiply(matrices, m, matrices, m, actionMatrices, m);
+			}
+			transformBone(matrices, m, srcVertices, dstVertices, srcNormals, dstNormals, pos, length);
+			pos += length * 3;
+		}
+	}
+
+	private static void transformBone(float[] matrix, int m,
+									  FloatBuffer srcVertices, FloatBuffer dstVertices,
+									  FloatBuffer srcNormals, FloatBuffer dstNormals,
+									  int pos, int length) {
+		float m00 = matrix[m];
+		float m01 = matrix[m + 1];
+		float m02 = matrix[m + 2];
+		float m03 = matrix[m + 3];
+		float m10 = matrix[m + 4];
+		float m11 = matrix[m + 5];
+		float m12 = matrix[m + 6];
+		float m13 = matrix[m + 7];
+		float m20 = matrix[m + 8];
+		float m21 = matrix[m + 9];
+		float m22 = matrix[m + 10];
+		float m23 = matrix[m + 11];
+		int end = pos + length * 3;
+		for (int i = pos; i < end; i += 3) {
+			float x = srcVertices.get(i);
+			float y = srcVertices.get(i + 1);
+			float z = srcVertices.get(i + 2);
+			dstVertices.put(i, x * m00 + y * m01 + z * m02 + m03);
+			dstVertices.put(i + 1, x * m10 + y * m11 + z * m12 + m13);
+			dstVertices.put(i + 2, x * m20 + y * m21 + z * m22 + m23);
+		}
+		if (srcNormals == null) {
+			return;
+		}
+		for (int i = pos; i < end; i += 3) {
+			float x = srcNormals.get(i);
+			float y = srcNormals.get(i + 1);
+			float z = srcNormals.get(i + 2);
+			dstNormals.put(i, x * m00 + y * m01 + z * m02);
+			dstNormals.put(i + 1, x * m10 + y * m11 + z * m12);
+			dstNormals.put(i + 2, x * m20 + y * m21 + z * m22);
+		}
+	}
+
+	/**
+	 * 3x4 matrix product, the result may be one of the operands
+	 */
+	private static void multiply(float[] result, int r, float[] lm, int l, float[] rm, int m) {
+		float l00 = lm[l];
+		float l01 = lm[l + 1];
+		float l02 = lm[l + 2];
+		float l03 = lm[l + 3];
+		float l10 = lm[l + 4];
+		float l11 = lm[l + 5];
+		float l12 = lm[l + 6];
+		float l13 = lm[l + 7];
+		float l20 = lm[l + 8];
+		float l21 = lm[l + 9];
+		float l22 = lm[l + 10];
+		float l23 = lm[l + 11];
+		float r00 = rm[m];
+		float r01 = rm[m + 1];
+		float r02 = rm[m + 2];
+		float r03 = rm[m + 3];
+		float r10 = rm[m + 4];
+		float r11 = rm[m + 5];
+		float r12 = rm[m + 6];
+		float r13 = rm[m + 7];
+		float r20 = rm[m + 8];
+		float r21 = rm[m + 9];
+		float r22 = rm[m + 10];
+		float r23 = rm[m + 11];
+
+		result[r] = l00 * r00 + l01 * r10 + l02 * r20;
+		result[r + 1] = l00 * r01 + l01 * r11 + l02 * r21;
+		result[r + 2] = l00 * r02 + l01 * r12 + l02 * r22;
+		result[r + 3] = l00 * r03 + l01 * r13 + l02 * r23 + l03;
+		result[r + 4] = l10 * r00 + l11 * r10 + l12 * r20;
+		result[r + 5] = l10 * r01 + l11 * r11 + l12 * r21;
+		result[r + 6] = l10 * r02 + l11 * r12 + l12 * r22;
+		result[r + 7] = l10 * r03 + l11 * r13 + l12 * r23 + l13;
+		result[r + 8] = l20 * r00 + l21 * r10 + l22 * r20;
+		result[r + 9] = l20 * r01 + l21 * r11 + l22 * r21;
+		result[r + 10] = l20 * r02 + l21 * r12 + l22 * r22;
+		result[r + 11] = l20 * r03 + l21 * r13 + l22 * r23 + l23;
+	}
+}
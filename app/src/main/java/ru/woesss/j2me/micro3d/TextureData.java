@@ -17,20 +17,108 @@
 package ru.woesss.j2me.micro3d;
 
 import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
 
 class TextureData {
-	private final ByteBuffer raster;
+	static final int PALETTE_SIZE = 256;
+
+	/** RGBA pixels, expanded on demand from the indices of a paletted texture */
+	private ByteBuffer raster;
+	/** One byte per pixel, null for an RGBA texture */
+	private final ByteBuffer indices;
+	/** RGBA colors of the indices */
+	private final ByteBuffer palette;
 	final int width;
 	final int height;
+	private int contentHash;
 
 	TextureData(int width, int height) {
 		this.raster = BufferUtils.createByteBuffer(width * height * 4);
+		this.indices = null;
+		this.palette = null;
+		this.width = width;
+		this.height = height;
+	}
+
+	TextureData(int width, int height, ByteBuffer indices, ByteBuffer palette) {
+		this.indices = indices;
+		this.palette = palette;
 		this.width = width;
 		this.height = height;
 	}
 
-	ByteBuffer getRaster() {
+	boolean isIndexed() {
+		return indices != null;
+	}
+
+	ByteBuffer getIndices() {
+		indices.rewind();
+		return indices;
+	}
+
+	ByteBuffer getPalette() {
+		palette.rewind();
+		return palette;
+	}
+
+	synchronized ByteBuffer getRaster() {
+		if (raster == null) {
+			raster = expand();
+		}
 		raster.rewind();
 		return raster;
 	}
+
+	/**
+	 * Returns the size of the pixel data in bytes
+	 */
+	long getSize() {
+		if (indices == null) {
+			return width * height * 4L;
+		}
+		return width * height + PALETTE_SIZE * 4L;
+	}
+
+	/**
+	 * Hash of the pixels, for sharing the uploads of equal textures
+	 */
+	synchronized int contentHash() {
+		if (contentHash == 0) {
+			int hash = indices == null ? getRaster().hashCode()
+					: getIndices().hashCode() * 31 + getPalette().hashCode();
+			contentHash = hash == 0 ? 1 : hash;
+		}
+		return contentHash;
+	}
+
+	boolean sameContent(TextureData other) {
+		if (this == other) {
+			return true;
+		}
+		if (width != other.width || height != other.height || isIndexed() != other.isIndexed()) {
+			return false;
+		}
+		if (indices == null) {
+			return getRaster().equals(other.getRaster());
+		}
+		return getIndices().equals(other.getIndices()) && getPalette().equals(other.getPalette());
+	}
+
+	private ByteBuffer expand() {
+		ByteBuffer raster = BufferUtils.createByteBuffer(width * height * 4);
+		// the colors are copied as whole pixels, both buffers have the same byte order
+		IntBuffer colors = getPalette().asIntBuffer();
+		int[] lut = new int[PALETTE_SIZE];
+		colors.get(lut);
+		int[] row = new int[width];
+		ByteBuffer indices = getIndices();
+		IntBuffer pixels = raster.asIntBuffer();
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				row[x] = lut[indices.get() & 0xff];
+			}
+			pixels.put(row);
+		}
+		return raster;
+	}
 }
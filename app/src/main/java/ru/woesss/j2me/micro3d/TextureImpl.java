@@ -22,17 +22,25 @@ import android.util.Log;
 
 import java.io.IOException;
 import java.nio.IntBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.microedition.lcdui.Image;
 import javax.microedition.shell.AppClassLoader;
 
 public final class TextureImpl {
 	static int sLastId;
+	private static final AtomicInteger lastSerial = new AtomicInteger();
+
+	/** Creation order, a key of the draw order that is the same on every run */
+	final int serial = lastSerial.incrementAndGet();
 
 	final TextureData image;
 	private final boolean isMutable;
 
 	int mTexId = -1;
+	/** Shared GL textures of an immutable texture */
+	private TextureUploads.Upload upload;
+	private TextureUploads.Upload rgbaUpload;
 
 	public TextureImpl() {
 		image = new TextureData(256, 256);
@@ -44,7 +52,7 @@ public final class TextureImpl {
 			throw new NullPointerException();
 		}
 		try {
-			image = Loader.loadBmpData(b, 0, b.length);
+			image = load(b, 0, b.length);
 		} catch (IOException e) {
 			Log.e(Utils.TAG, "Error loading data", e);
 			throw new RuntimeException(e);
@@ -60,7 +68,7 @@ public final class TextureImpl {
 			throw new ArrayIndexOutOfBoundsException();
 		}
 		try {
-			image = Loader.loadBmpData(b, offset, length);
+			image = load(b, offset, length);
 		} catch (Exception e) {
 			Log.e(Utils.TAG, "Error loading data", e);
 			throw e;
@@ -77,7 +85,7 @@ public final class TextureImpl {
 			throw new IOException();
 		}
 		try {
-			image = Loader.loadBmpData(b, 0, b.length);
+			image = load(b, 0, b.length);
 		} catch (IOException e) {
 			Log.e(Utils.TAG, "Error loading data from [" + name + "]", e);
 			throw new RuntimeException(e);
@@ -104,21 +112,66 @@ public final class TextureImpl {
 		this.image.getRaster().asIntBuffer().put(pixels);
 	}
 
-	public void dispose() {
+	private static TextureData load(byte[] b, int offset, int length) throws IOException {
+		TextureData data = DataCache.get(TextureData.class, b, offset, length);
+		if (data == null) {
+			data = Loader.loadBmpData(b, offset, length);
+			DataCache.put(b, offset, length, data);
+		}
+		return data;
+	}
+
+	public synchronized void dispose() {
+		if (upload != null) {
+			TextureUploads.release(upload);
+			upload = null;
+		}
+		if (rgbaUpload != null) {
+			TextureUploads.release(rgbaUpload);
+			rgbaUpload = null;
+		}
+		if (mTexId != -1) {
+			TextureUploads.delete(mTexId);
+			mTexId = -1;
+		}
 	}
 
 	public boolean isMutable() {
 		return isMutable;
 	}
 
-	int getId() {
-		if (!glIsTexture(mTexId)) {
-			generateId();
-		} else if (!isMutable) {
+	synchronized int getId() {
+		if (isMutable) {
+			if (!glIsTexture(mTexId)) {
+				mTexId = generateId();
+			}
+			loadToGL();
 			return mTexId;
 		}
-		loadToGL();
-		return mTexId;
+		if (upload == null) {
+			upload = TextureUploads.acquire(image, !TextureUploads.FILTER);
+		}
+		return TextureUploads.getId(upload);
+	}
+
+	/**
+	 * Returns the palette texture of the last {@link #getId()} result, or 0 if it has RGBA pixels
+	 */
+	synchronized int getPaletteId() {
+		return upload == null ? 0 : upload.paletteId;
+	}
+
+	/**
+	 * Returns a texture with RGBA pixels, for sampling where the palette is not looked up
+	 */
+	synchronized int getRgbaId() {
+		if (isMutable || !image.isIndexed()) {
+			return getId();
+		}
+		if (rgbaUpload == null) {
+			rgbaUpload = TextureUploads.acquire(image, false);
+		}
+		return TextureUploads.getId(rgbaUpload);
 	}
 
 	int getWidth() {
@@ -129,7 +182,7 @@ public final class TextureImpl {
 		return image.height;
 	}
 
-	private void generateId() {
+	static int generateId() {
 		final IntBuffer textureIds = BufferUtils.createIntBuffer(1);
 		synchronized (TextureImpl.class) {
 			while (textureIds.get(0) <= sLastId) {
@@ -137,23 +190,19 @@ public final class TextureImpl {
 				glGenTextures(1, textureIds);
 			}
 			sLastId = textureIds.get(0);
-			mTexId = textureIds.get(0);
 		}
 		Render.checkGlError("glGenTextures");
+		return textureIds.get(0);
 	}
 
 	private void loadToGL() {
 		glActiveTexture(GL_TEXTURE0);
 		glBindTexture(GL_TEXTURE_2D, mTexId);
-
-		boolean filter = Boolean.getBoolean("micro3d.v3.texture.filter");
-		glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, filter ? GL_LINEAR : GL_NEAREST);
-		glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, filter ? GL_LINEAR : GL_NEAREST);
-		glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_S, GL_CLAMP_TO_EDGE);
-		glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_T, GL_CLAMP_TO_EDGE);
+		TextureUploads.setParameters(TextureUploads.FILTER);
 		glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA, image.width, image.height, 0, GL_RGBA, GL_UNSIGNED_BYTE, image.getRaster());
 
 		glBindTexture(GL_TEXTURE_2D, 0);
+		Program.boundTexture = null;
 	}
 
 	@Override
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2026 Yury Kharchenko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.woesss.j2me.micro3d;
+
+import static android.opengl.GLES20.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * GL textures of the immutable texture data. Textures with equal pixels share one upload,
+ * which is deleted when the last texture using it is released.
+ * Paletted data is uploaded as a luminance texture of the indices and a palette texture,
+ * the shaders look up the colors.
+ */
+final class TextureUploads {
+	static final boolean FILTER = Boolean.getBoolean("micro3d.v3.texture.filter");
+
+	private static final HashMap<Upload, Upload> uploads = new HashMap<>();
+	/** Textures released on other threads, deleted when a frame is started */
+	private static int[] deleted = new int[16];
+	private static int deletedCount;
+
+	private TextureUploads() {}
+
+	/**
+	 * Returns the shared upload of the data, it is loaded to GL on first use
+	 *
+	 * @param paletted load the indices and the palette rather than the RGBA pixels,
+	 *                 paletted data can be sampled only without filtering
+	 */
+	static synchronized Upload acquire(TextureData data, boolean paletted) {
+		Upload probe = new Upload(data, paletted && data.isIndexed());
+		Upload upload = uploads.get(probe);
+		if (upload == null) {
+			upload = probe;
+			uploads.put(upload, upload);
+		}
+		upload.refs++;
+		return upload;
+	}
+
+	/**
+	 * Drops a reference to the upload, may be called on any thread
+	 */
+	static synchronized void release(Upload upload) {
+		if (--upload.refs > 0) {
+			return;
+		}
+		uploads.remove(upload);
+		if (upload.id != 0) {
+			delete(upload.id);
+		}
+		if (upload.paletteId != 0) {
+			delete(upload.paletteId);
+		}
+	}
+
+	/**
+	 * Returns the texture of the upload, loading it again if the GL context has been lost
+	 */
+	static synchronized int getId(Upload upload) {
+		if (upload.id == 0 || !glIsTexture(upload.id)) {
+			load(upload);
+		}
+		return upload.id;
+	}
+
+	static synchronized void delete(int id) {
+		if (deletedCount == deleted.length) {
+			deleted = Arrays.copyOf(deleted, deletedCount * 2);
+		}
+		deleted[deletedCount++] = id;
+	}
+
+	/**
+	 * Deletes the released textures, must be called with the GL context current
+	 */
+	static synchronized void deleteReleased() {
+		if (deletedCount > 0) {
+			glDeleteTextures(deletedCount, deleted, 0);
+			deletedCount = 0;
+		}
+	}
+
+	static synchronized int size() {
+		return uploads.size();
+	}
+
+	static void setParameters(boolean filter) {
+		glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, filter ? GL_LINEAR : GL_NEAREST);
+		glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, filter ? GL_LINEAR : GL_NEAREST);
+		glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_S, GL_CLAMP_TO_EDGE);
+		glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_T, GL_CLAMP_TO_EDGE);
+	}
+
+	private static void load(Upload upload) {
+		TextureData data = upload.data;
+		glActiveTexture(GL_TEXTURE0);
+		upload.id = TextureImpl.generateId();
+		glBindTexture(GL_TEXTURE_2D, upload.id);
+		if (upload.paletted) {
+			// interpolated indices are meaningless
+			setParameters(false);
+			glPixelStorei(GL_UNPACK_ALIGNMENT, 1);
+			glTexImage2D(GL_TEXTURE_2D, 0, GL_LUMINANCE, data.width, data.height, 0,
+					GL_LUMINANCE, GL_UNSIGNED_BYTE, data.getIndices());
+			glPixelStorei(GL_UNPACK_ALIGNMENT, 4);
+
+			upload.paletteId = TextureImpl.generateId();
+			glBindTexture(GL_TEXTURE_2D, upload.paletteId);
+			setParameters(false);
+			glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA, TextureData.PALETTE_SIZE, 1, 0,
+					GL_RGBA, GL_UNSIGNED_BYTE, data.getPalette());
+		} else {
+			setParameters(FILTER);
+			glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA, data.width, data.height, 0,
+					GL_RGBA, GL_UNSIGNED_BYTE, data.getRaster());
+		}
+		glBindTexture(GL_TEXTURE_2D, 0);
+		Program.boundTexture = null;
+		Render.checkGlError("glTexImage2D");
+	}
+
+	static final class Upload {
+		final TextureData data;
+		final boolean paletted;
+		/** Texture of the RGBA pixels or of the indices */
+		int id;
+		/** Texture of the palette, 0 if the pixels are RGBA */
+		int paletteId;
+		private int refs;
+
+		Upload(TextureData data, boolean paletted) {
+			this.data = data;
+			this.paletted = paletted;
+		}
+
+		@Override
+		public int hashCode() {
+			return data.contentHash() * 31 + (paletted ? 1 : 0);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Upload other)) {
+				return false;
+			}
+			return paletted == other.paletted && data.sameContent(other.data);
+		}
+	}
+}
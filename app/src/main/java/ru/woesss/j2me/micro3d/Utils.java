@@ -18,9 +18,11 @@ package ru.woesss.j2me.micro3d;
 
 import android.content.SharedPreferences;
 import android.graphics.Bitmap;
+import android.util.Log;
 
 import androidx.preference.PreferenceManager;
 
+import java.nio.Buffer;
 import java.nio.ByteBuffer;
 import java.nio.FloatBuffer;
 
@@ -32,6 +34,7 @@ import ru.playsoftware.j2meloader.R;
 
 public class Utils {
 	static final String TAG = "micro3d";
+	private static final boolean nativeLoaded;
 
 	static void getSpriteVertex(float[] vertex, float angle, float halfW, float halfH) {
 		angle *= MathUtil.TO_RADIANS;
@@ -86,21 +89,62 @@ public class Utils {
 		v[3] = x * m[3] + y * m[7] + z * m[11] + w * m[15];
 	}
 
-	static native void fillBuffer(FloatBuffer buffer, FloatBuffer vertices, int[] indices);
+	static void fillBuffer(FloatBuffer buffer, FloatBuffer vertices, int[] indices) {
+		if (nativeLoaded) {
+			_fillBuffer(buffer, vertices, indices);
+		} else {
+			Skinning.fillBuffer(buffer, vertices, indices);
+		}
+	}
+
+	static void transform(FloatBuffer srcVertices, FloatBuffer dstVertices,
+						  FloatBuffer srcNormals, FloatBuffer dstNormals,
+						  ByteBuffer boneMatrices, float[] actionMatrices, float[] boneTransforms) {
+		if (nativeLoaded) {
+			_transform(srcVertices, dstVertices, srcNormals, dstNormals, boneMatrices, actionMatrices);
+		} else {
+			Skinning.transform(srcVertices, dstVertices, srcNormals, dstNormals,
+					boneMatrices, actionMatrices, boneTransforms);
+		}
+	}
 
-	static native void transform(FloatBuffer srcVertices, FloatBuffer dstVertices,
-								 FloatBuffer srcNormals, FloatBuffer dstNormals,
-								 ByteBuffer boneMatrices, float[] actionMatrices);
+	private static native void _fillBuffer(FloatBuffer buffer, FloatBuffer vertices, int[] indices);
+
+	private static native void _transform(FloatBuffer srcVertices, FloatBuffer dstVertices,
+										  FloatBuffer srcNormals, FloatBuffer dstNormals,
+										  ByteBuffer boneMatrices, float[] actionMatrices);
 
 	static native void glReadPixels(int x, int y, int width, int height, Bitmap bitmapBuffer);
 
+	/**
+	 * Copies tightly packed RGBA rows from a direct buffer to the area of the bitmap
+	 *
+	 * @throws IllegalArgumentException if the bitmap is not ARGB_8888
+	 */
+	static native void copyPixels(Buffer pixels, int x, int y, int width, int height, Bitmap bitmapBuffer);
+
+	/**
+	 * Updates the rows of the bound texture from the same rows of the bitmap of the texture size
+	 *
+	 * @throws IllegalArgumentException if the bitmap is not ARGB_8888
+	 */
+	static native void texSubImage2D(int y, int height, Bitmap bitmapBuffer);
+
 	static {
 		MicroActivity microActivity = ContextHolder.getActivity();
 		SharedPreferences sp = PreferenceManager.getDefaultSharedPreferences(microActivity);
 		if (sp.getBoolean("micro3d_using_message", false)) {
 			microActivity.toast(R.string.msg_mascot_capsule);
 		}
-		System.loadLibrary("c++_shared");
-		System.loadLibrary("micro3d");
+		boolean loaded;
+		try {
+			System.loadLibrary("c++_shared");
+			System.loadLibrary("micro3d");
+			loaded = true;
+		} catch (UnsatisfiedLinkError e) {
+			Log.w(TAG, "Native library is not available, skinning runs in Java", e);
+			loaded = false;
+		}
+		nativeLoaded = loaded;
 	}
 }
@@ -38,7 +38,7 @@ public class FileCacheDataSource extends DataSource {
      * @throws IOException if I/O problem occurs when creating cache file
      */
 	public FileCacheDataSource(String type) throws IOException {
-		this(type, null);
+		this(type, (String) null);
 	}
 
 	/**
@@ -52,6 +52,16 @@ public class FileCacheDataSource extends DataSource {
 		this.type = type;
 	}
 
+	/**
+	 * @param type source mime type
+	 * @param file already prepared media file
+	 */
+	protected FileCacheDataSource(String type, File file) {
+		super(null);
+		mediaFile = file;
+		this.type = type;
+	}
+
 	protected static File createCacheFile(String type, String ext) throws IOException {
 		if (ext == null) {
 			ext = MimeTypeMap.getSingleton().getExtensionFromMimeType(type);
@@ -0,0 +1,240 @@
+/*
+ * Copyright 2026 Yury Kharchenko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.woesss.j2me.mmapi;
+
+import android.util.Log;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * Content-addressed store of media files prepared for playback.
+ * Identical byte streams share one cache file and one probe/transcode result,
+ * whatever content type they are created with, the players detect the format by content.
+ * Entries are reference counted, unused ones are evicted in LRU order above the size cap.
+ */
+public class MediaCache {
+	private static final String TAG = MediaCache.class.getSimpleName();
+
+	/** Streams up to this size are hashed in memory, so cache hits do not touch the disk */
+	private static final int MAX_MEMORY_STAGING = 512 * 1024;
+	private static final long MAX_CACHE_SIZE = 32 * 1024 * 1024;
+
+	private static final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private static long totalSize;
+
+	/** Converts a staged media file to a playable one */
+	public interface Preparer {
+		/**
+		 * @param file staged copy of the source stream
+		 * @return the file to play, may be the same one
+		 */
+		File prepare(File file);
+	}
+
+	/**
+	 * Get a prepared file with the stream content, the stream is read to the end.
+	 * Every acquired entry must be returned with {@link #release(Entry)}.
+	 */
+	public static Entry acquire(InputStream stream, String type, Preparer preparer) throws IOException {
+		MessageDigest digest = createDigest();
+		File staged = null;
+		String key;
+		// available() says nothing about the size of a compressed jar entry,
+		// read up to the limit and see if the stream has ended
+		byte[] head = readHead(stream);
+		int headLength = head.length;
+		if (headLength <= MAX_MEMORY_STAGING) {
+			digest.update(head, 0, headLength);
+			key = createKey(digest, headLength);
+			Entry entry = obtain(key);
+			if (entry != null) {
+				return entry.prepare(preparer);
+			}
+			staged = FileCacheDataSource.createCacheFile(type, null);
+			try (OutputStream os = new FileOutputStream(staged)) {
+				os.write(head, 0, headLength);
+			} catch (IOException e) {
+				deleteFile(staged);
+				throw e;
+			}
+		} else {
+			staged = FileCacheDataSource.createCacheFile(type, null);
+			long length = headLength;
+			try (OutputStream os = new FileOutputStream(staged)) {
+				os.write(head, 0, headLength);
+				digest.update(head, 0, headLength);
+				byte[] buf = new byte[4096];
+				int read;
+				while ((read = stream.read(buf)) != -1) {
+					os.write(buf, 0, read);
+					digest.update(buf, 0, read);
+					length += read;
+				}
+			} catch (IOException e) {
+				deleteFile(staged);
+				throw e;
+			}
+			key = createKey(digest, length);
+		}
+		Entry entry;
+		synchronized (entries) {
+			entry = entries.get(key);
+			if (entry != null) {
+				entry.refCount++;
+			} else {
+				entry = new Entry(key, staged);
+				entries.put(key, entry);
+				totalSize += entry.size;
+				staged = null;
+			}
+		}
+		if (staged != null) {
+			// the same content was staged concurrently or is too big for memory staging
+			deleteFile(staged);
+		}
+		return entry.prepare(preparer);
+	}
+
+	public static void release(Entry entry) {
+		synchronized (entries) {
+			if (--entry.refCount < 0) {
+				throw new IllegalStateException("Entry is already released: " + entry.key);
+			}
+			trim();
+		}
+	}
+
+	/** Delete all cache files, called on MIDlet exit */
+	public static void clear() {
+		synchronized (entries) {
+			for (Entry entry : entries.values()) {
+				deleteFile(entry.file);
+			}
+			entries.clear();
+			totalSize = 0;
+		}
+	}
+
+	/**
+	 * Reads the stream to the end, but no more than one byte past {@link #MAX_MEMORY_STAGING}
+	 */
+	private static byte[] readHead(InputStream stream) throws IOException {
+		byte[] buf = new byte[8192];
+		int length = 0;
+		for (;;) {
+			if (length == buf.length) {
+				if (length > MAX_MEMORY_STAGING) {
+					return buf;
+				}
+				buf = Arrays.copyOf(buf, Math.min(length * 2, MAX_MEMORY_STAGING + 1));
+			}
+			int read = stream.read(buf, length, buf.length - length);
+			if (read == -1) {
+				return Arrays.copyOf(buf, length);
+			}
+			length += read;
+		}
+	}
+
+	private static Entry obtain(String key) {
+		synchronized (entries) {
+			Entry entry = entries.get(key);
+			if (entry != null) {
+				entry.refCount++;
+			}
+			return entry;
+		}
+	}
+
+	private static void trim() {
+		Iterator<Entry> iterator = entries.values().iterator();
+		while (totalSize > MAX_CACHE_SIZE && iterator.hasNext()) {
+			Entry entry = iterator.next();
+			if (entry.refCount == 0) {
+				iterator.remove();
+				totalSize -= entry.size;
+				deleteFile(entry.file);
+			}
+		}
+	}
+
+	private static MessageDigest createDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-1");
+		} catch (NoSuchAlgorithmException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private static String createKey(MessageDigest digest, long length) {
+		StringBuilder sb = new StringBuilder(64);
+		for (byte b : digest.digest()) {
+			sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+		}
+		return sb.append(':').append(length).toString();
+	}
+
+	private static void deleteFile(File file) {
+		if (!file.delete() && file.exists()) {
+			Log.w(TAG, "Can't delete cache file: " + file);
+		}
+	}
+
+	public static final class Entry {
+		private final String key;
+		private File file;
+		private long size;
+		private int refCount = 1;
+		private boolean prepared;
+
+		private Entry(String key, File file) {
+			this.key = key;
+			this.file = file;
+			this.size = file.length();
+		}
+
+		private synchronized Entry prepare(Preparer preparer) {
+			if (!prepared) {
+				prepared = true;
+				File result = preparer.prepare(file);
+				if (result != file) {
+					deleteFile(file);
+					long newSize = result.length();
+					synchronized (entries) {
+						totalSize += newSize - size;
+					}
+					file = result;
+					size = newSize;
+				}
+			}
+			return this;
+		}
+
+		public synchronized File getFile() {
+			return file;
+		}
+	}
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2026 Yury Kharchenko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.woesss.j2me.mmapi;
+
+import android.util.Log;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers {@link javax.microedition.media.PlayerListener} callbacks of all players
+ * on a shared pool of threads.
+ * Every player posts to its own serial queue, so its events keep their order,
+ * while a listener blocked in one player does not hold up the others
+ * as long as a thread of the pool is free.
+ * The pool is limited by the count of processors; when all its threads are busy,
+ * the scheduled queues wait in the order of posting. Idle threads are stopped after a timeout.
+ */
+public final class PlayerCallbackDispatcher {
+	private static final String TAG = PlayerCallbackDispatcher.class.getSimpleName();
+
+	private static final long KEEP_ALIVE_SECONDS = 30;
+	static final int MAX_THREADS = Math.max(4, Math.min(16, Runtime.getRuntime().availableProcessors() * 2));
+	/** Events of one queue handled before the thread is yielded to other queues */
+	private static final int BATCH_SIZE = 16;
+
+	private static final ThreadPoolExecutor executor;
+	private static final AtomicLong dispatched = new AtomicLong();
+	private static final AtomicLong totalLatency = new AtomicLong();
+	private static final AtomicLong maxLatency = new AtomicLong();
+
+	private PlayerCallbackDispatcher() {}
+
+	/** @return new serial executor for the callbacks of one player */
+	public static Executor newQueue() {
+		return new SerialQueue();
+	}
+
+	/** @return count of live dispatcher threads */
+	public static int getThreadCount() {
+		return executor.getPoolSize();
+	}
+
+	/** @return the most dispatcher threads ever alive at the same time */
+	public static int getLargestThreadCount() {
+		return executor.getLargestPoolSize();
+	}
+
+	public static long getDispatchedCount() {
+		return dispatched.get();
+	}
+
+	/** @return average time from posting an event to its delivery, in microseconds */
+	public static long getAverageLatency() {
+		long count = dispatched.get();
+		return count == 0 ? 0 : totalLatency.get() / count / 1000;
+	}
+
+	/** @return maximum time from posting an event to its delivery, in microseconds */
+	public static long getMaxLatency() {
+		return maxLatency.get() / 1000;
+	}
+
+	public static String getStats() {
+		return "PlayerCallbackDispatcher{threads=" + executor.getPoolSize() +
+				", largestThreads=" + executor.getLargestPoolSize() +
+				", maxThreads=" + MAX_THREADS +
+				", dispatched=" + dispatched.get() +
+				", avgLatencyUs=" + getAverageLatency() +
+				", maxLatencyUs=" + getMaxLatency() + '}';
+	}
+
+	private static void recordLatency(long postTime) {
+		long latency = System.nanoTime() - postTime;
+		dispatched.incrementAndGet();
+		totalLatency.addAndGet(latency);
+		long max;
+		while (latency > (max = maxLatency.get()) && !maxLatency.compareAndSet(max, latency)) {
+			// retry
+		}
+	}
+
+	private static final class SerialQueue implements Executor, Runnable {
+		private final ArrayDeque<Task> tasks = new ArrayDeque<>();
+		private boolean scheduled;
+
+		@Override
+		public void execute(Runnable command) {
+			synchronized (this) {
+				tasks.add(new Task(command, System.nanoTime()));
+				if (scheduled) {
+					return;
+				}
+				scheduled = true;
+			}
+			executor.execute(this);
+		}
+
+		@Override
+		public void run() {
+			for (int i = 0; i < BATCH_SIZE; i++) {
+				Task task;
+				synchronized (this) {
+					task = tasks.poll();
+					if (task == null) {
+						scheduled = false;
+						return;
+					}
+				}
+				recordLatency(task.postTime);
+				try {
+					task.command.run();
+				} catch (Throwable e) {
+					Log.e(TAG, "Uncaught exception in player listener", e);
+				}
+			}
+			// stays scheduled, the remaining tasks go after the other queues
+			executor.execute(this);
+		}
+	}
+
+	private static final class Task {
+		final Runnable command;
+		final long postTime;
+
+		Task(Runnable command, long postTime) {
+			this.command = command;
+			this.postTime = postTime;
+		}
+	}
+
+	static {
+		AtomicInteger threadNumber = new AtomicInteger();
+		// a queue is scheduled at most once, so the work queue holds no more entries than there are players
+		executor = new ThreadPoolExecutor(MAX_THREADS, MAX_THREADS,
+				KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+				r -> new Thread(r, "MidletPlayerCallback-" + threadNumber.incrementAndGet()));
+		executor.allowCoreThreadTimeOut(true);
+	}
+}
@@ -0,0 +1,380 @@
+/*
+ * Copyright 2026 Yury Kharchenko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.woesss.j2me.mmapi.pcm;
+
+import android.media.AudioFormat;
+import android.media.AudioManager;
+import android.media.AudioTrack;
+import android.os.Process;
+import android.util.Log;
+
+import java.util.Arrays;
+
+/**
+ * Software mixer of in-memory sounds into a single {@link AudioTrack}.
+ * The output thread is started on demand and exits after a period of silence.
+ */
+final class PcmMixer implements Runnable {
+	private static final String TAG = PcmMixer.class.getSimpleName();
+
+	static final int SAMPLE_RATE = 44100;
+	/** Gains are fixed point with this many fraction bits */
+	static final int GAIN_SHIFT = 10;
+	/** Keeps the sum of all voices in an int */
+	static final int MAX_VOICES = 32;
+	/** Overlapping tones, the one closest to its end is replaced when all are busy */
+	static final int MAX_TONES = 4;
+
+	private static final int FRAMES_PER_BUFFER = 512;
+	private static final long IDLE_TIMEOUT_NS = 3_000_000_000L;
+
+	private static final int EVENT_END = 1;
+	private static final int EVENT_RESTART = 2;
+
+	private static final int SINE_BITS = 10;
+	private static final short[] SINE = new short[1 << SINE_BITS];
+	/** 32-bit phase increments of the MIDI notes */
+	private static final int[] NOTE_STEPS = new int[128];
+	/** Attack and release of tones, removes the clicks */
+	private static final int TONE_RAMP_FRAMES = SAMPLE_RATE / 200;
+
+	private final Voice[] voices = new Voice[MAX_VOICES];
+	/** Events posted while mixing, swapped with the ones being delivered */
+	private Voice[] pendingVoices = new Voice[MAX_VOICES * 2];
+	private int[] pendingEvents = new int[MAX_VOICES * 2];
+	private final int[] mixBuffer = new int[FRAMES_PER_BUFFER * 2];
+	private final short[] outBuffer = new short[FRAMES_PER_BUFFER * 2];
+	private final int[] tonePhases = new int[MAX_TONES];
+	private final int[] toneSteps = new int[MAX_TONES];
+	private final int[] toneGains = new int[MAX_TONES];
+	private final int[] toneElapsed = new int[MAX_TONES];
+	private final int[] toneRemaining = new int[MAX_TONES];
+	private int voiceCount;
+	private int pendingCount;
+	private Thread thread;
+
+	private PcmMixer() {}
+
+	static PcmMixer getInstance() {
+		return InstanceHolder.instance;
+	}
+
+	/** Starts or resumes the voice from its current position */
+	synchronized void play(Voice voice) {
+		if (voice.active) {
+			return;
+		}
+		if (voiceCount == MAX_VOICES) {
+			// steal the oldest voice
+			Voice stolen = voices[0];
+			removeAt(0);
+			stolen.position = 0;
+			postEvent(stolen, EVENT_END);
+		}
+		voice.active = true;
+		voices[voiceCount++] = voice;
+		startThread();
+	}
+
+	/**
+	 * Plays a sine tone without any player.
+	 *
+	 * @param note     MIDI note number, from 0 to 127
+	 * @param duration duration in milliseconds
+	 * @param volume   volume from 0 to 100
+	 */
+	synchronized void playTone(int note, int duration, int volume) {
+		int slot = 0;
+		for (int i = 1; i < MAX_TONES; i++) {
+			if (toneRemaining[i] < toneRemaining[slot]) {
+				slot = i;
+			}
+		}
+		tonePhases[slot] = 0;
+		toneSteps[slot] = NOTE_STEPS[note];
+		toneGains[slot] = volume * (1 << GAIN_SHIFT) / 100;
+		toneElapsed[slot] = 0;
+		toneRemaining[slot] = (int) Math.min(Math.max((long) duration * SAMPLE_RATE / 1000, 1), Integer.MAX_VALUE);
+		startThread();
+	}
+
+	private void startThread() {
+		if (thread == null) {
+			thread = new Thread(this, "PcmMixer");
+			thread.start();
+		}
+	}
+
+	private boolean hasTones() {
+		for (int remaining : toneRemaining) {
+			if (remaining > 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	synchronized void pause(Voice voice) {
+		if (!voice.active) {
+			return;
+		}
+		for (int i = 0; i < voiceCount; i++) {
+			if (voices[i] == voice) {
+				removeAt(i);
+				break;
+			}
+		}
+	}
+
+	synchronized boolean isActive(Voice voice) {
+		return voice.active;
+	}
+
+	synchronized long getPosition(Voice voice) {
+		return voice.position >>> 16;
+	}
+
+	synchronized void setPosition(Voice voice, long frame) {
+		voice.position = Math.max(0, Math.min(frame, voice.sound.frames)) << 16;
+	}
+
+	/** Gains are from 0 to 1 */
+	synchronized void setGain(Voice voice, float left, float right) {
+		voice.gainLeft = (int) (left * (1 << GAIN_SHIFT));
+		voice.gainRight = (int) (right * (1 << GAIN_SHIFT));
+	}
+
+	/** @param loops loop count, -1 for infinite */
+	synchronized void setLoopCount(Voice voice, int loops) {
+		voice.loops = loops;
+	}
+
+	private void removeAt(int index) {
+		voices[index].active = false;
+		voiceCount--;
+		System.arraycopy(voices, index + 1, voices, index, voiceCount - index);
+		voices[voiceCount] = null;
+	}
+
+	private void postEvent(Voice voice, int event) {
+		// an event is never dropped, a lost end of media would leave the player started
+		if (pendingCount == pendingVoices.length) {
+			pendingVoices = Arrays.copyOf(pendingVoices, pendingCount * 2);
+			pendingEvents = Arrays.copyOf(pendingEvents, pendingCount * 2);
+		}
+		pendingVoices[pendingCount] = voice;
+		pendingEvents[pendingCount++] = event;
+	}
+
+	@Override
+	public void run() {
+		Process.setThreadPriority(Process.THREAD_PRIORITY_URGENT_AUDIO);
+		AudioTrack track = null;
+		Voice[] events = new Voice[pendingVoices.length];
+		int[] eventTypes = new int[pendingVoices.length];
+		try {
+			int minSize = AudioTrack.getMinBufferSize(SAMPLE_RATE,
+					AudioFormat.CHANNEL_OUT_STEREO, AudioFormat.ENCODING_PCM_16BIT);
+			track = new AudioTrack(AudioManager.STREAM_MUSIC, SAMPLE_RATE,
+					AudioFormat.CHANNEL_OUT_STEREO, AudioFormat.ENCODING_PCM_16BIT,
+					Math.max(minSize, outBuffer.length * 2 * 2), AudioTrack.MODE_STREAM);
+			track.play();
+			long idleSince = System.nanoTime();
+			while (true) {
+				int eventCount;
+				synchronized (this) {
+					if (voiceCount > 0 || hasTones()) {
+						idleSince = System.nanoTime();
+					} else if (System.nanoTime() - idleSince > IDLE_TIMEOUT_NS && pendingCount == 0) {
+						thread = null;
+						return;
+					}
+					mix();
+					eventCount = pendingCount;
+					Voice[] posted = pendingVoices;
+					pendingVoices = events;
+					events = posted;
+					int[] postedTypes = pendingEvents;
+					pendingEvents = eventTypes;
+					eventTypes = postedTypes;
+					pendingCount = 0;
+				}
+				// listeners are called without the mixer lock, they are free to call back
+				for (int i = 0; i < eventCount; i++) {
+					Voice voice = events[i];
+					events[i] = null;
+					if (eventTypes[i] == EVENT_RESTART) {
+						voice.listener.onVoiceRestart(voice);
+					} else {
+						voice.listener.onVoiceEnd(voice);
+					}
+				}
+				track.write(outBuffer, 0, outBuffer.length);
+			}
+		} catch (Exception e) {
+			Log.e(TAG, "Mixer thread failed", e);
+			synchronized (this) {
+				while (voiceCount > 0) {
+					removeAt(voiceCount - 1);
+				}
+				Arrays.fill(toneRemaining, 0);
+				thread = null;
+			}
+		} finally {
+			if (track != null) {
+				track.release();
+			}
+		}
+	}
+
+	private void mix() {
+		int[] mix = mixBuffer;
+		Arrays.fill(mix, 0);
+		for (int v = voiceCount - 1; v >= 0; v--) {
+			Voice voice = voices[v];
+			if (mixVoice(voice, mix)) {
+				removeAt(v);
+				voice.position = 0;
+				postEvent(voice, EVENT_END);
+			}
+		}
+		mixTones(mix);
+		short[] out = outBuffer;
+		for (int i = 0; i < mix.length; i++) {
+			int s = mix[i] >> GAIN_SHIFT;
+			out[i] = (short) (s > Short.MAX_VALUE ? Short.MAX_VALUE : s < Short.MIN_VALUE ? Short.MIN_VALUE : s);
+		}
+	}
+
+	/** @return true if the voice is finished */
+	private boolean mixVoice(Voice voice, int[] mix) {
+		PcmSound sound = voice.sound;
+		short[] samples = sound.samples;
+		int frames = sound.frames;
+		int last = frames - 1;
+		boolean stereo = sound.channels == 2;
+		long position = voice.position;
+		long step = voice.step;
+		int gainLeft = voice.gainLeft;
+		int gainRight = voice.gainRight;
+		for (int i = 0; i < mix.length; i += 2) {
+			int frame = (int) (position >>> 16);
+			if (frame >= frames) {
+				if (voice.loops == 1) {
+					voice.position = position;
+					return true;
+				}
+				if (voice.loops > 1) {
+					voice.loops--;
+				}
+				postEvent(voice, EVENT_RESTART);
+				position = 0;
+				frame = 0;
+			}
+			int next = frame < last ? frame + 1 : last;
+			// 15 bits keep the interpolation product in an int
+			int fraction = (int) (position & 0xffff) >> 1;
+			int left, right;
+			if (stereo) {
+				int s0 = samples[frame * 2];
+				left = s0 + ((samples[next * 2] - s0) * fraction >> 15);
+				int s1 = samples[frame * 2 + 1];
+				right = s1 + ((samples[next * 2 + 1] - s1) * fraction >> 15);
+			} else {
+				int s0 = samples[frame];
+				left = right = s0 + ((samples[next] - s0) * fraction >> 15);
+			}
+			mix[i] += left * gainLeft;
+			mix[i + 1] += right * gainRight;
+			position += step;
+		}
+		voice.position = position;
+		return false;
+	}
+
+	private void mixTones(int[] mix) {
+		for (int t = 0; t < MAX_TONES; t++) {
+			int remaining = toneRemaining[t];
+			if (remaining == 0) {
+				continue;
+			}
+			int phase = tonePhases[t];
+			int step = toneSteps[t];
+			int gain = toneGains[t];
+			int elapsed = toneElapsed[t];
+			for (int i = 0; i < mix.length && remaining > 0; i += 2) {
+				int sample = SINE[phase >>> (32 - SINE_BITS)];
+				int ramp = Math.min(elapsed, remaining);
+				if (ramp < TONE_RAMP_FRAMES) {
+					sample = sample * ramp / TONE_RAMP_FRAMES;
+				}
+				sample *= gain;
+				mix[i] += sample;
+				mix[i + 1] += sample;
+				phase += step;
+				elapsed++;
+				remaining--;
+			}
+			tonePhases[t] = phase;
+			toneElapsed[t] = elapsed;
+			toneRemaining[t] = remaining;
+		}
+	}
+
+	interface VoiceListener {
+		/** Called on the mixer thread when the voice reached the end and stopped */
+		void onVoiceEnd(Voice voice);
+
+		/** Called on the mixer thread when the voice reached the end and started a new loop */
+		void onVoiceRestart(Voice voice);
+	}
+
+	/** Playback state of a sound, guarded by the mixer */
+	static final class Voice {
+		final PcmSound sound;
+		final VoiceListener listener;
+		/** Frame increment per output frame, 16.16 fixed point */
+		final long step;
+		/** 48.16 fixed point frame position */
+		long position;
+		int gainLeft = 1 << GAIN_SHIFT;
+		int gainRight = 1 << GAIN_SHIFT;
+		int loops = 1;
+		boolean active;
+
+		Voice(PcmSound sound, VoiceListener listener) {
+			this.sound = sound;
+			this.listener = listener;
+			step = ((long) sound.sampleRate << 16) / SAMPLE_RATE;
+		}
+	}
+
+	private static final class InstanceHolder {
+		static final PcmMixer instance = new PcmMixer();
+	}
+
+	static {
+		for (int i = 0; i < SINE.length; i++) {
+			// half of the full scale leaves headroom for overlapping tones
+			SINE[i] = (short) Math.round(Math.sin(2 * Math.PI * i / SINE.length) * 16383);
+		}
+		for (int note = 0; note < NOTE_STEPS.length; note++) {
+			double frequency = 440.0 * Math.pow(2, (note - 69) / 12.0);
+			NOTE_STEPS[note] = (int) (long) (frequency / SAMPLE_RATE * 4294967296.0);
+		}
+	}
+}
@@ -0,0 +1,337 @@
+/*
+ * Copyright 2026 Yury Kharchenko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.woesss.j2me.mmapi.pcm;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import javax.microedition.amms.control.PanControl;
+import javax.microedition.media.BasePlayer;
+import javax.microedition.media.Control;
+import javax.microedition.media.InternalMetaData;
+import javax.microedition.media.MediaException;
+import javax.microedition.media.PlayerListener;
+import javax.microedition.media.control.MetaDataControl;
+import javax.microedition.media.control.VolumeControl;
+import javax.microedition.media.protocol.DataSource;
+
+import ru.woesss.j2me.mmapi.PlayerCallbackDispatcher;
+
+/** Player of a short in-memory sound, played by the shared {@link PcmMixer} */
+class PcmPlayer extends BasePlayer implements VolumeControl, PanControl, PcmMixer.VoiceListener {
+	private final Executor callbackExecutor = PlayerCallbackDispatcher.newQueue();
+
+	private final ArrayList<PlayerListener> listeners = new ArrayList<>();
+	private final Map<String, Control> controls = new HashMap<>();
+	private final PcmMixer mixer = PcmMixer.getInstance();
+	private final DataSource dataSource;
+	private final PcmMixer.Voice voice;
+
+	private int state = UNREALIZED;
+	private int loopCount = 1;
+	private int volume = 100;
+	private boolean mute;
+	private int pan;
+
+	PcmPlayer(DataSource dataSource, PcmSound sound) {
+		this.dataSource = dataSource;
+		voice = new PcmMixer.Voice(sound, this);
+	}
+
+	@Override
+	public synchronized void realize() throws MediaException {
+		checkClosed();
+
+		if (state == UNREALIZED) {
+			controls.put(VolumeControl.class.getName(), this);
+			controls.put(PanControl.class.getName(), this);
+			controls.put(MetaDataControl.class.getName(), new InternalMetaData());
+			state = REALIZED;
+		}
+	}
+
+	@Override
+	public synchronized void prefetch() throws MediaException {
+		checkClosed();
+
+		if (state == UNREALIZED) {
+			realize();
+		}
+
+		if (state == REALIZED) {
+			state = PREFETCHED;
+		}
+	}
+
+	@Override
+	public synchronized void start() throws MediaException {
+		prefetch();
+
+		if (state == PREFETCHED) {
+			mixer.setLoopCount(voice, loopCount);
+			mixer.play(voice);
+
+			state = STARTED;
+			postEvent(PlayerListener.STARTED, getMediaTime());
+		}
+	}
+
+	@Override
+	public synchronized void stop() {
+		checkClosed();
+		if (state == STARTED) {
+			mixer.pause(voice);
+
+			state = PREFETCHED;
+			postEvent(PlayerListener.STOPPED, getMediaTime());
+		}
+	}
+
+	@Override
+	public synchronized void deallocate() {
+		stop();
+
+		if (state == PREFETCHED) {
+			mixer.setPosition(voice, 0);
+			state = REALIZED;
+		}
+	}
+
+	@Override
+	public synchronized void close() {
+		if (state != CLOSED) {
+			mixer.pause(voice);
+			state = CLOSED;
+			dataSource.disconnect();
+			postEvent(PlayerListener.CLOSED, null);
+		}
+	}
+
+	@Override
+	public synchronized void onVoiceEnd(PcmMixer.Voice voice) {
+		// the player may be already restarted
+		if (state != STARTED || mixer.isActive(voice)) {
+			return;
+		}
+		state = PREFETCHED;
+		postEvent(PlayerListener.END_OF_MEDIA, voice.sound.getDuration());
+	}
+
+	@Override
+	public synchronized void onVoiceRestart(PcmMixer.Voice voice) {
+		if (state != STARTED) {
+			return;
+		}
+		postEvent(PlayerListener.END_OF_MEDIA, voice.sound.getDuration());
+		postEvent(PlayerListener.STARTED, 0L);
+	}
+
+	@Override
+	public synchronized long setMediaTime(long now) throws MediaException {
+		checkRealized();
+		if (state < PREFETCHED) {
+			return 0;
+		}
+		PcmSound sound = voice.sound;
+		mixer.setPosition(voice, sound.timeToFrames(now));
+		return getMediaTime();
+	}
+
+	@Override
+	public long getMediaTime() {
+		checkClosed();
+		if (state < PREFETCHED) {
+			return TIME_UNKNOWN;
+		}
+		return voice.sound.framesToTime(mixer.getPosition(voice));
+	}
+
+	@Override
+	public long getDuration() {
+		checkClosed();
+		return voice.sound.getDuration();
+	}
+
+	@Override
+	public synchronized void setLoopCount(int count) {
+		checkClosed();
+		if (state == STARTED)
+			throw new IllegalStateException("player must not be in STARTED state while using setLoopCount()");
+
+		if (count == 0) {
+			throw new IllegalArgumentException("loop count must not be 0");
+		}
+		loopCount = count;
+	}
+
+	@Override
+	public int getState() {
+		return state;
+	}
+
+	@Override
+	public String getContentType() {
+		checkRealized();
+		return dataSource.getContentType();
+	}
+
+	@Override
+	public Control getControl(String controlType) {
+		checkRealized();
+		if (controlType == null) {
+			throw new IllegalArgumentException();
+		}
+		if (!controlType.contains(".")) {
+			controlType = "javax.microedition.media.control." + controlType;
+		}
+		return controls.get(controlType);
+	}
+
+	@Override
+	public Control[] getControls() {
+		checkRealized();
+		return controls.values().toArray(new Control[0]);
+	}
+
+	@Override
+	public synchronized void addPlayerListener(PlayerListener playerListener) {
+		checkClosed();
+		if (playerListener != null && !listeners.contains(playerListener)) {
+			listeners.add(playerListener);
+		}
+	}
+
+	@Override
+	public synchronized void removePlayerListener(PlayerListener playerListener) {
+		checkClosed();
+		listeners.remove(playerListener);
+	}
+
+	private synchronized void postEvent(String event, Object eventData) {
+		for (PlayerListener listener : listeners) {
+			// Callbacks should be async
+			callbackExecutor.execute(() -> listener.playerUpdate(this, event, eventData));
+		}
+	}
+
+	private void checkClosed() {
+		if (state == CLOSED) {
+			throw new IllegalStateException("player is closed");
+		}
+	}
+
+	private void checkRealized() {
+		checkClosed();
+		if (state < REALIZED) {
+			throw new IllegalStateException("call realize() before using the player");
+		}
+	}
+
+	// VolumeControl
+
+	@Override
+	public void setMute(boolean mute) {
+		if (this.mute == mute) {
+			return;
+		}
+		this.mute = mute;
+		if (state == CLOSED) {
+			return;
+		}
+		updateVolume();
+		postEvent(PlayerListener.VOLUME_CHANGED, this);
+	}
+
+	@Override
+	public boolean isMuted() {
+		return mute;
+	}
+
+	@Override
+	public int setLevel(int level) {
+		if (level < 0) {
+			level = 0;
+		} else if (level > 100) {
+			level = 100;
+		}
+		if (volume == level) {
+			return level;
+		}
+		volume = level;
+		if (state == CLOSED) {
+			return level;
+		}
+		updateVolume();
+		postEvent(PlayerListener.VOLUME_CHANGED, this);
+		return level;
+	}
+
+	@Override
+	public int getLevel() {
+		return volume;
+	}
+
+	// PanControl
+
+	@Override
+	public int setPan(int pan) {
+		if (pan < -100) {
+			pan = -100;
+		} else if (pan > 100) {
+			pan = 100;
+		}
+		if (this.pan == pan) {
+			return pan;
+		}
+		this.pan = pan;
+		if (state != CLOSED) {
+			updateVolume();
+		}
+		return pan;
+	}
+
+	@Override
+	public int getPan() {
+		return pan;
+	}
+
+	private void updateVolume() {
+		if (mute) {
+			mixer.setGain(voice, 0, 0);
+			return;
+		}
+		float gain = volumeToGain(volume);
+		if (pan == 0) {
+			mixer.setGain(voice, gain, gain);
+		} else if (pan < 0) {
+			mixer.setGain(voice, gain, volumeToGain(volume * (100 + pan) / 100));
+		} else {
+			mixer.setGain(voice, volumeToGain(volume * (100 - pan) / 100), gain);
+		}
+	}
+
+	private float volumeToGain(int volume) {
+		if (volume <= 0) {
+			return 0.0f;
+		} else if (volume >= 100) {
+			return 1.0f;
+		}
+		return (float) (1 - (Math.log(100 - volume) / Math.log(100)));
+	}
+}
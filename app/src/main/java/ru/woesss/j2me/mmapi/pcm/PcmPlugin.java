@@ -0,0 +1,112 @@
+/*
+ * Copyright 2026 Yury Kharchenko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.woesss.j2me.mmapi.pcm;
+
+import android.util.Log;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Iterator;
+
+import javax.microedition.media.Player;
+import javax.microedition.media.protocol.DataSource;
+
+import kotlin.io.FilesKt;
+import ru.woesss.j2me.mmapi.Plugin;
+
+/**
+ * Plays short WAVE sounds through the software mixer
+ * instead of a {@link android.media.MediaPlayer} per sound.
+ */
+public class PcmPlugin implements Plugin {
+	private static final String TAG = PcmPlugin.class.getSimpleName();
+
+	/** Larger files are music rather than effects, they are left to the streaming players */
+	private static final int MAX_FILE_SIZE = 256 * 1024;
+	private static final int HEADER_SIZE = 512;
+
+	/** Players of the same cached file share decoded samples */
+	private final HashMap<String, WeakReference<PcmSound>> sounds = new HashMap<>();
+
+	/**
+	 * @return true if the file is played by this plugin and needs no transcoding
+	 */
+	public static boolean accepts(File file) {
+		long length = file.length();
+		if (length == 0 || length > MAX_FILE_SIZE) {
+			return false;
+		}
+		byte[] header = new byte[HEADER_SIZE];
+		try (InputStream is = new FileInputStream(file)) {
+			int read = 0;
+			int n;
+			while (read < header.length && (n = is.read(header, read, header.length - read)) > 0) {
+				read += n;
+			}
+			return WavDecoder.isSupported(header, read);
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	@Override
+	public Player createPlayer(DataSource dataSource) {
+		String locator = dataSource.getLocator();
+		if (locator == null) {
+			return null;
+		}
+		File file = new File(locator);
+		if (!accepts(file)) {
+			return null;
+		}
+		try {
+			PcmSound sound = getSound(file);
+			return sound == null ? null : new PcmPlayer(dataSource, sound);
+		} catch (Exception e) {
+			Log.w(TAG, "createPlayer: ", e);
+			return null;
+		}
+	}
+
+	@Override
+	public Player createPlayer(String locator) {
+		return null;
+	}
+
+	private synchronized PcmSound getSound(File file) {
+		String path = file.getPath();
+		WeakReference<PcmSound> ref = sounds.get(path);
+		PcmSound sound = ref == null ? null : ref.get();
+		if (sound == null) {
+			sound = WavDecoder.decode(FilesKt.readBytes(file));
+			if (sound == null) {
+				return null;
+			}
+			for (Iterator<WeakReference<PcmSound>> it = sounds.values().iterator(); it.hasNext(); ) {
+				if (it.next().get() == null) {
+					it.remove();
+				}
+			}
+			sounds.put(path, new WeakReference<>(sound));
+		}
+		return sound;
+	}
+}
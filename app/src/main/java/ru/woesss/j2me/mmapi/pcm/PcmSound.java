@@ -0,0 +1,45 @@
+/*
+ * Copyright 2026 Yury Kharchenko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.woesss.j2me.mmapi.pcm;
+
+/** Decoded sound: signed 16-bit samples, interleaved if stereo */
+final class PcmSound {
+	final short[] samples;
+	final int channels;
+	final int sampleRate;
+	final int frames;
+
+	PcmSound(short[] samples, int channels, int sampleRate) {
+		this.samples = samples;
+		this.channels = channels;
+		this.sampleRate = sampleRate;
+		this.frames = samples.length / channels;
+	}
+
+	/** @return duration in microseconds */
+	long getDuration() {
+		return framesToTime(frames);
+	}
+
+	long framesToTime(long frames) {
+		return frames * 1000000L / sampleRate;
+	}
+
+	long timeToFrames(long time) {
+		return time * sampleRate / 1000000L;
+	}
+}
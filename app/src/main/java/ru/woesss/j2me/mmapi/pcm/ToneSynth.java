@@ -0,0 +1,31 @@
+/*
+ * Copyright 2026 Yury Kharchenko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.woesss.j2me.mmapi.pcm;
+
+/** Tone generator resident in the software mixer, plays notes without creating players */
+public final class ToneSynth {
+	private ToneSynth() {}
+
+	/**
+	 * @param note     MIDI note number, from 0 to 127
+	 * @param duration duration in milliseconds, positive
+	 * @param volume   volume from 0 to 100
+	 */
+	public static void playTone(int note, int duration, int volume) {
+		PcmMixer.getInstance().playTone(note, duration, volume);
+	}
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright 2026 Yury Kharchenko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.woesss.j2me.mmapi.pcm;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/** RIFF WAVE decoder for linear PCM (8 and 16 bit) and IMA ADPCM */
+final class WavDecoder {
+	private static final int RIFF = 0x46464952;
+	private static final int WAVE = 0x45564157;
+	private static final int FMT = 0x20746d66;
+	private static final int DATA = 0x61746164;
+
+	private static final int FORMAT_PCM = 1;
+	private static final int FORMAT_IMA_ADPCM = 0x11;
+
+	private static final int[] IMA_INDEX_TABLE = {
+			-1, -1, -1, -1, 2, 4, 6, 8,
+			-1, -1, -1, -1, 2, 4, 6, 8
+	};
+
+	private static final int[] IMA_STEP_TABLE = {
+			7, 8, 9, 10, 11, 12, 13, 14, 16, 17,
+			19, 21, 23, 25, 28, 31, 34, 37, 41, 45,
+			50, 55, 60, 66, 73, 80, 88, 97, 107, 118,
+			130, 143, 157, 173, 190, 209, 230, 253, 279, 307,
+			337, 371, 408, 449, 494, 544, 598, 658, 724, 796,
+			876, 963, 1060, 1166, 1282, 1411, 1552, 1707, 1878, 2066,
+			2272, 2499, 2749, 3024, 3327, 3660, 4026, 4428, 4871, 5358,
+			5894, 6484, 7132, 7845, 8630, 9493, 10442, 11487, 12635, 13899,
+			15289, 16818, 18500, 20350, 22385, 24623, 27086, 29794, 32767
+	};
+
+	private WavDecoder() {}
+
+	/**
+	 * Checks the header without decoding samples.
+	 *
+	 * @param data beginning of the file, must contain the "fmt " chunk
+	 */
+	static boolean isSupported(byte[] data, int length) {
+		try {
+			ByteBuffer buffer = ByteBuffer.wrap(data, 0, length).order(ByteOrder.LITTLE_ENDIAN);
+			return findChunk(buffer, FMT) >= 0 && readFormat(buffer) != null;
+		} catch (BufferUnderflowException | IllegalArgumentException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * @return decoded sound or {@code null} if the data is not a supported WAVE file
+	 */
+	static PcmSound decode(byte[] data) {
+		try {
+			ByteBuffer buffer = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+			if (findChunk(buffer, FMT) < 0) {
+				return null;
+			}
+			Format format = readFormat(buffer);
+			if (format == null) {
+				return null;
+			}
+			buffer.position(12);
+			int size = findChunk(buffer, DATA);
+			if (size < 0) {
+				return null;
+			}
+			// size of the last chunk is often wrong
+			size = Math.min(size, buffer.remaining());
+			buffer.limit(buffer.position() + size);
+			short[] samples;
+			if (format.encoding == FORMAT_IMA_ADPCM) {
+				samples = decodeImaAdpcm(buffer, format);
+			} else if (format.bits == 8) {
+				samples = new short[size];
+				for (int i = 0; i < size; i++) {
+					samples[i] = (short) (((buffer.get() & 0xff) - 128) << 8);
+				}
+			} else {
+				samples = new short[size / 2];
+				buffer.asShortBuffer().get(samples);
+			}
+			if (samples.length < format.channels) {
+				return null;
+			}
+			return new PcmSound(samples, format.channels, format.sampleRate);
+		} catch (BufferUnderflowException | IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Positions the buffer at the chunk body.
+	 *
+	 * @return chunk size, -1 if not found
+	 */
+	private static int findChunk(ByteBuffer buffer, int id) {
+		if (buffer.position() == 0) {
+			if (buffer.getInt() != RIFF) {
+				return -1;
+			}
+			buffer.getInt();
+			if (buffer.getInt() != WAVE) {
+				return -1;
+			}
+		}
+		while (buffer.remaining() >= 8) {
+			int chunkId = buffer.getInt();
+			int size = buffer.getInt();
+			if (chunkId == id) {
+				return size;
+			}
+			if (size < 0 || size > buffer.remaining()) {
+				return -1;
+			}
+			// chunks are word aligned
+			buffer.position(buffer.position() + size + (size & 1));
+		}
+		return -1;
+	}
+
+	private static Format readFormat(ByteBuffer buffer) {
+		Format format = new Format();
+		format.encoding = buffer.getShort() & 0xffff;
+		format.channels = buffer.getShort();
+		format.sampleRate = buffer.getInt();
+		buffer.getInt(); // byte rate
+		format.blockAlign = buffer.getShort() & 0xffff;
+		format.bits = buffer.getShort();
+		if (format.channels < 1 || format.channels > 2 || format.sampleRate < 1000 || format.sampleRate > 96000) {
+			return null;
+		}
+		if (format.encoding == FORMAT_PCM) {
+			return format.bits == 8 || format.bits == 16 ? format : null;
+		} else if (format.encoding == FORMAT_IMA_ADPCM) {
+			int headerSize = 4 * format.channels;
+			if (format.bits != 4 || format.blockAlign <= headerSize) {
+				return null;
+			}
+			// the header sample, then 8 samples per 4-byte word of each channel
+			format.samplesPerBlock = 1 + (format.blockAlign - headerSize) / (4 * format.channels) * 8;
+			return format;
+		}
+		return null;
+	}
+
+	private static short[] decodeImaAdpcm(ByteBuffer buffer, Format format) {
+		int channels = format.channels;
+		int blockAlign = format.blockAlign;
+		int headerSize = 4 * channels;
+		int groupSize = 4 * channels;
+		// the last block is often short, it holds as many samples as its complete groups
+		int fullBlocks = buffer.remaining() / blockAlign;
+		int tail = buffer.remaining() % blockAlign;
+		int tailGroups = tail < headerSize ? -1 : (tail - headerSize) / groupSize;
+		int frames = fullBlocks * format.samplesPerBlock + (tailGroups < 0 ? 0 : 1 + tailGroups * 8);
+		short[] samples = new short[frames * channels];
+		int[] predictors = new int[channels];
+		int[] indices = new int[channels];
+		int out = 0;
+		while (buffer.remaining() >= headerSize) {
+			int blockStart = buffer.position();
+			int blockLength = Math.min(blockAlign, buffer.remaining());
+			for (int c = 0; c < channels; c++) {
+				predictors[c] = buffer.getShort();
+				indices[c] = Math.min(Math.max(buffer.get(), 0), 88);
+				buffer.get(); // reserved
+				samples[out + c] = (short) predictors[c];
+			}
+			// channel data is interleaved by 4-byte words (8 samples)
+			int groups = (blockLength - headerSize) / groupSize;
+			for (int g = 0; g < groups; g++) {
+				for (int c = 0; c < channels; c++) {
+					int pos = out + (1 + g * 8) * channels + c;
+					for (int i = 0; i < 4; i++) {
+						int b8 = buffer.get();
+						samples[pos] = decodeNibble(b8 & 0xf, predictors, indices, c);
+						pos += channels;
+						samples[pos] = decodeNibble((b8 >> 4) & 0xf, predictors, indices, c);
+						pos += channels;
+					}
+				}
+			}
+			out += (1 + groups * 8) * channels;
+			buffer.position(blockStart + blockLength);
+		}
+		return samples;
+	}
+
+	private static short decodeNibble(int nibble, int[] predictors, int[] indices, int channel) {
+		int step = IMA_STEP_TABLE[indices[channel]];
+		int diff = step >> 3;
+		if ((nibble & 4) != 0) diff += step;
+		if ((nibble & 2) != 0) diff += step >> 1;
+		if ((nibble & 1) != 0) diff += step >> 2;
+		int predictor = predictors[channel];
+		if ((nibble & 8) != 0) {
+			predictor = Math.max(predictor - diff, Short.MIN_VALUE);
+		} else {
+			predictor = Math.min(predictor + diff, Short.MAX_VALUE);
+		}
+		predictors[channel] = predictor;
+		indices[channel] = Math.min(Math.max(indices[channel] + IMA_INDEX_TABLE[nibble], 0), 88);
+		return (short) predictor;
+	}
+
+	private static final class Format {
+		int encoding;
+		int channels;
+		int sampleRate;
+		int blockAlign;
+		int bits;
+		int samplesPerBlock;
+	}
+}
@@ -26,8 +26,7 @@ import androidx.annotation.Keep;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.Executor;
 
 import javax.microedition.amms.control.PanControl;
 import javax.microedition.amms.control.audioeffect.EqualizerControl;
@@ -44,18 +43,14 @@ import javax.microedition.media.control.VolumeControl;
 import javax.microedition.media.protocol.DataSource;
 import javax.microedition.media.tone.ToneSequence;
 
+import ru.woesss.j2me.mmapi.PlayerCallbackDispatcher;
 import ru.woesss.j2me.mmapi.control.MIDIControlImpl;
 import ru.woesss.j2me.mmapi.protocol.device.DeviceMetaData;
 
 class SynthPlayer extends BasePlayer implements VolumeControl, PanControl, ToneControl {
 	private static final String TAG = SynthPlayer.class.getSimpleName();
 
-	private final ExecutorService callbackExecutor = Executors.newSingleThreadExecutor(r -> {
-		Thread thread = new Thread(r, "MidletPlayerCallback");
-		thread.setUncaughtExceptionHandler((t, e) ->
-				Log.e(t.getName(), "UncaughtException in " + t, e));
-		return thread;
-	});
+	private final Executor callbackExecutor = PlayerCallbackDispatcher.newQueue();
 	private final ArrayList<PlayerListener> listeners = new ArrayList<>();
 	private final InternalMetaData metadata;
 	private final DataSource dataSource;
@@ -0,0 +1,274 @@
+/*
+ * Copyright 2026 Yury Kharchenko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package javax.microedition.lcdui.graphics.raster;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class RasterGraphicsTest {
+
+	private static final int WHITE = 0x00ffffff;
+	private static final int BLACK = 0x00000000;
+	private static final int RED = 0x00ff0000;
+	private static final int BLUE = 0x000000ff;
+	private static final int RGB_MASK = 0x00FFFFFF;
+
+	private static final int testWidth = 20;
+	private static final int testHeight = 20;
+
+	private static Raster createRaster() {
+		Raster raster = new Raster(testWidth, testHeight);
+		raster.fill(0xFFFFFFFF);
+		return raster;
+	}
+
+	@Test
+	public void drawLine() {
+		Raster raster = createRaster();
+		RasterGraphics graphics = raster.getGraphics();
+
+		graphics.setColor(BLUE);
+		graphics.setStrokeStyle(RasterGraphics.DOTTED);
+		graphics.drawLine(1, 5, 1, 16);
+
+		graphics.setColor(RED);
+		graphics.setStrokeStyle(RasterGraphics.SOLID);
+		graphics.drawLine(10, 4, 10, 15);
+
+		final int[] spotsToValidate = {
+				1, 4, WHITE,
+				1, 5, BLUE,
+				1, 10, WHITE,
+				1, 16, BLUE,
+				1, 17, WHITE,
+
+				10, 3, WHITE,
+				10, 4, RED,
+				10, 15, RED,
+				10, 16, WHITE
+		};
+		assertTrue(validate(raster, spotsToValidate));
+	}
+
+	@Test
+	public void drawRect() {
+		Raster raster = createRaster();
+		RasterGraphics graphics = raster.getGraphics();
+		graphics.drawRect(2, 3, 5, 4);
+
+		final int[] spotsToValidate = {
+				2, 3, BLACK,
+				7, 3, BLACK,
+				2, 7, BLACK,
+				7, 7, BLACK,
+
+				3, 4, WHITE,
+				6, 6, WHITE,
+				8, 3, WHITE,
+				2, 8, WHITE
+		};
+		assertTrue(validate(raster, spotsToValidate));
+	}
+
+	@Test
+	public void fillArc() {
+		Raster raster = createRaster();
+		RasterGraphics graphics = raster.getGraphics();
+		// right half of the circle
+		graphics.fillArc(0, 0, 10, 10, -90, 180);
+
+		final int[] spotsToValidate = {
+				5, 5, BLACK,
+				9, 5, BLACK,
+				5, 0, BLACK,
+				5, 9, BLACK,
+
+				3, 5, WHITE,
+				0, 5, WHITE,
+				9, 0, WHITE,
+				10, 5, WHITE
+		};
+		assertTrue(validate(raster, spotsToValidate));
+	}
+
+	@Test
+	public void fillTriangle() {
+		Raster raster = createRaster();
+		RasterGraphics graphics = raster.getGraphics();
+		graphics.fillTriangle(0, 0, 10, 0, 0, 10);
+
+		final int[] spotsToValidate = {
+				0, 0, BLACK,
+				8, 0, BLACK,
+				0, 8, BLACK,
+				4, 4, BLACK,
+
+				10, 0, WHITE,
+				0, 10, WHITE,
+				6, 6, WHITE
+		};
+		assertTrue(validate(raster, spotsToValidate));
+	}
+
+	@Test
+	public void drawRegion() {
+		Raster raster = createRaster();
+		Raster drawRaster = new Raster(10, 20);
+		drawRaster.fill(0xFF000000);
+
+		raster.getGraphics().drawRegion(drawRaster, 1, 3, 5, 7, RasterGraphics.TRANS_MIRROR_ROT270, 9, 11,
+				RasterGraphics.LEFT | RasterGraphics.VCENTER);
+
+		final int[] spotsToValidate = {
+				12,  9, BLACK,
+				12, 13, BLACK,
+				 9, 10, BLACK,
+				15, 10, BLACK,
+
+				12,  8, WHITE,
+				12, 14, WHITE,
+				 8, 10, WHITE,
+				16, 10, WHITE
+		};
+		assertTrue(validate(raster, spotsToValidate));
+	}
+
+	@Test
+	public void drawRegionTransforms() {
+		Raster source = new Raster(3, 2, new int[]{
+				0xFF000000, 0xFF000001, 0xFF000002,
+				0xFF000003, 0xFF000004, 0xFF000005
+		});
+		final int[][] expected = {
+				{RasterGraphics.TRANS_NONE, 0, 1, 2, 3, 4, 5},
+				{RasterGraphics.TRANS_ROT90, 3, 0, 4, 1, 5, 2},
+				{RasterGraphics.TRANS_ROT180, 5, 4, 3, 2, 1, 0},
+				{RasterGraphics.TRANS_ROT270, 2, 5, 1, 4, 0, 3},
+				{RasterGraphics.TRANS_MIRROR, 2, 1, 0, 5, 4, 3},
+				{RasterGraphics.TRANS_MIRROR_ROT90, 5, 2, 4, 1, 3, 0},
+				{RasterGraphics.TRANS_MIRROR_ROT180, 3, 4, 5, 0, 1, 2},
+				{RasterGraphics.TRANS_MIRROR_ROT270, 0, 3, 1, 4, 2, 5},
+		};
+		for (int[] e : expected) {
+			boolean swap = (e[0] & 4) != 0;
+			Raster raster = new Raster(swap ? 2 : 3, swap ? 3 : 2);
+			raster.getGraphics().drawRegion(source, 0, 0, 3, 2, e[0], 0, 0, 0);
+			int[] actual = new int[6];
+			for (int i = 0; i < 6; i++) {
+				actual[i] = raster.getPixels()[i] & RGB_MASK;
+			}
+			int[] exp = new int[6];
+			System.arraycopy(e, 1, exp, 0, 6);
+			assertArrayEquals("transform=" + e[0], exp, actual);
+		}
+	}
+
+	@Test
+	public void drawRGB() {
+		Raster raster = createRaster();
+		RasterGraphics graphics = raster.getGraphics();
+
+		int r = RED | 0x75000000;
+		final int[] rgb = {
+				r, r, r, r, r,
+				r, r, r, r, r,
+				r, r, r, r, r,
+				r, r, r, r, r,
+				r, r, r, r, r
+		};
+		graphics.drawRGB(rgb, 0, 5, 0, 0, 5, 5, true);
+		graphics.drawRGB(rgb, 9, 4, 6, 6, 4, 4, false);
+
+		int PINK = 0xFF8A8A; // Alpha blending check
+		final int[] spotsToValidate = {
+				0, 0, PINK,
+				4, 4, PINK,
+
+				5, 0, WHITE,
+				4, 5, WHITE,
+
+				6, 6, RED,
+				9, 9, RED,
+
+				10, 6, WHITE,
+				9, 10, WHITE
+		};
+		assertTrue(validate(raster, spotsToValidate));
+	}
+
+	@Test
+	public void setClip() {
+		Raster raster = createRaster();
+		RasterGraphics graphics = raster.getGraphics();
+
+		graphics.setClip(0, 0, 5, 5);
+		graphics.setColor(RED);
+		graphics.fillRect(0, 0, testWidth, testHeight);
+
+		graphics.translate(5, 5);
+		graphics.setClip(0, 0, 5, 5);
+		graphics.setColor(BLUE);
+		graphics.fillRect(-5, -5, testWidth, testHeight);
+		assertEquals(0, graphics.getClipX());
+		assertEquals(5, graphics.getClipWidth());
+
+		final int[] spotsToValidate = {
+				0, 0, RED,
+				4, 4, RED,
+
+				5, 0, WHITE,
+				4, 5, WHITE,
+
+				5, 5, BLUE,
+				9, 9, BLUE,
+
+				10, 5, WHITE,
+				9, 10, WHITE
+		};
+		assertTrue(validate(raster, spotsToValidate));
+	}
+
+	@Test
+	public void drawString() {
+		Raster raster = createRaster();
+		RasterGraphics graphics = raster.getGraphics();
+		RasterFont font = graphics.getFont();
+		graphics.drawString("|", 10, 10, RasterGraphics.BASELINE | RasterGraphics.HCENTER);
+
+		int left = 10 - font.stringWidth("|") / 2;
+		int top = 10 - font.getBaselinePosition();
+		final int[] spotsToValidate = {
+				left + 2, top, BLACK,
+				left + 2, 9, BLACK,
+				left + 2, 10, WHITE,
+				left + 1, top, WHITE
+		};
+		assertTrue(validate(raster, spotsToValidate));
+	}
+
+	private static boolean validate(Raster raster, final int[] spotsToValidate) {
+		for (int i = 0; i < spotsToValidate.length; i += 3) {
+			int c = raster.getPixel(spotsToValidate[i], spotsToValidate[i + 1]) & RGB_MASK;
+			if (c != spotsToValidate[i + 2])
+				return false;
+		}
+		return true;
+	}
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2026 Yury Kharchenko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package javax.microedition.m3g;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.lang.ref.WeakReference;
+import java.util.Hashtable;
+
+import javax.microedition.util.Benchmark;
+
+public class HandleMapTest {
+	private static final int NUM_OBJECTS = 2000;
+
+	@Test
+	public void putAndGet() {
+		HandleMap map = new HandleMap();
+		Object[] objects = new Object[NUM_OBJECTS];
+		for (int i = 0; i < NUM_OBJECTS; i++) {
+			objects[i] = new Object();
+			map.put(handle(i), objects[i]);
+		}
+		assertEquals(NUM_OBJECTS, map.size());
+		for (int i = 0; i < NUM_OBJECTS; i++) {
+			assertSame(objects[i], map.get(handle(i)));
+		}
+		assertNull(map.get(handle(NUM_OBJECTS)));
+		assertNull(map.get(0));
+
+		// a new peer of the same handle replaces the old one
+		Object peer = new Object();
+		map.put(handle(5), peer);
+		assertSame(peer, map.get(handle(5)));
+		assertEquals(NUM_OBJECTS, map.size());
+
+		// live peers are not removed
+		map.removeCleared(handle(5));
+		assertSame(peer, map.get(handle(5)));
+	}
+
+	@Test
+	public void collectedPeersArePurged() {
+		HandleMap map = new HandleMap();
+		Object[] kept = new Object[NUM_OBJECTS / 2];
+		for (int i = 0; i < NUM_OBJECTS; i++) {
+			Object obj = new Object();
+			if ((i & 1) == 0) {
+				kept[i >> 1] = obj;
+			}
+			map.put(handle(i), obj);
+		}
+		for (int i = 0; i < 10 && map.size() > kept.length; i++) {
+			System.gc();
+			map.put(handle(NUM_OBJECTS), kept[0]);
+			map.removeCleared(handle(NUM_OBJECTS));
+		}
+		// the remaining entries are still found after the removals shifted them
+		for (int i = 0; i < NUM_OBJECTS; i += 2) {
+			assertSame(kept[i >> 1], map.get(handle(i)));
+		}
+		for (int i = 1; i < NUM_OBJECTS; i += 2) {
+			map.removeCleared(handle(i));
+		}
+		assertTrue(map.size() <= kept.length + 1);
+	}
+
+	@Test
+	@Category(Benchmark.class)
+	public void benchmark() {
+		HandleMap map = new HandleMap();
+		Hashtable<Long, WeakReference<Object>> table = new Hashtable<>();
+		Object[] objects = new Object[NUM_OBJECTS];
+		for (int i = 0; i < NUM_OBJECTS; i++) {
+			objects[i] = new Object();
+			map.put(handle(i), objects[i]);
+			table.put(handle(i), new WeakReference<>(objects[i]));
+		}
+		final int rounds = 500;
+		int found = 0;
+		for (int pass = 0; pass < 2; pass++) {
+			// the first pass warms up both maps
+			long start = System.nanoTime();
+			for (int r = 0; r < rounds; r++) {
+				for (int i = 0; i < NUM_OBJECTS; i++) {
+					if (table.get(handle(i)).get() != null) {
+						found++;
+					}
+				}
+			}
+			long hashtable = (System.nanoTime() - start) / rounds;
+			start = System.nanoTime();
+			for (int r = 0; r < rounds; r++) {
+				for (int i = 0; i < NUM_OBJECTS; i++) {
+					if (map.get(handle(i)) != null) {
+						found++;
+					}
+				}
+			}
+			long handleMap = (System.nanoTime() - start) / rounds;
+			if (pass == 1) {
+				System.out.println("Handle lookup of " + NUM_OBJECTS + " objects: HandleMap " + handleMap
+						+ " ns, Hashtable " + hashtable + " ns");
+			}
+		}
+		assertEquals(NUM_OBJECTS * rounds * 4, found);
+	}
+
+	/** Native objects are allocated with 8 byte alignment */
+	private static long handle(int i) {
+		return 0x7f0000a000L + i * 8L;
+	}
+}
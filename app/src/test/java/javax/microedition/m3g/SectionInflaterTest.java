@@ -0,0 +1,206 @@
+/*
+ * Copyright 2026 Yury Kharchenko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package javax.microedition.m3g;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.zip.Adler32;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import javax.microedition.util.Benchmark;
+
+public class SectionInflaterTest {
+	private static final int NUM_SECTIONS = 8;
+	private static final int SECTION_SIZE = 256 * 1024;
+
+	@Test
+	public void inflatesSectionsInOrder() throws IOException {
+		byte[][] contents = randomContents(new Random(3), NUM_SECTIONS, 4096);
+		byte[] file = createFile(contents, true);
+		SectionInflater sections = SectionInflater.create(file);
+		assertNotNull(sections);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] header = sections.next();
+		out.write(header, 0, header.length);
+		for (byte[] content : contents) {
+			byte[] section = sections.next();
+			assertEquals(0, section[0]);
+			assertEquals(section.length, getInt(section, 1));
+			assertEquals(content.length, getInt(section, 5));
+			byte[] objects = new byte[content.length];
+			System.arraycopy(section, 9, objects, 0, objects.length);
+			assertArrayEquals(content, objects);
+			assertEquals(checksum(section, 0, section.length - 4), getInt(section, section.length - 4));
+			out.write(section, 0, section.length);
+		}
+		assertNull(sections.next());
+
+		// the rewritten file is consistent with its header
+		byte[] result = out.toByteArray();
+		int headerPos = Loader.M3G_FILE_IDENTIFIER.length;
+		int headerLength = getInt(result, headerPos + 1);
+		assertEquals(result.length, getInt(result, headerPos + 17));
+		assertEquals(checksum(result, headerPos, headerLength - 4),
+				getInt(result, headerPos + headerLength - 4));
+	}
+
+	@Test
+	public void uncompressedFileIsLoadedAsIs() {
+		byte[][] contents = randomContents(new Random(4), 2, 100);
+		assertNull(SectionInflater.create(createFile(contents, false)));
+	}
+
+	@Test
+	public void brokenSectionIsReported() {
+		byte[][] contents = randomContents(new Random(5), 3, 1000);
+		byte[] file = createFile(contents, true);
+		file[file.length - 20] ^= 1;
+		SectionInflater sections = SectionInflater.create(file);
+		assertNotNull(sections);
+		try {
+			for (int i = 0; i < contents.length + 1; i++) {
+				sections.next();
+			}
+			fail("Checksum mismatch is not detected");
+		} catch (IOException e) {
+			// expected
+		} finally {
+			sections.close();
+		}
+	}
+
+	@Test
+	@Category(Benchmark.class)
+	public void benchmark() throws IOException {
+		byte[][] contents = randomContents(new Random(6), NUM_SECTIONS, SECTION_SIZE);
+		byte[] file = createFile(contents, true);
+		for (int pass = 0; pass < 2; pass++) {
+			// the first pass warms up both paths
+			long start = System.nanoTime();
+			inflateSequentially(file);
+			long sequential = System.nanoTime() - start;
+			start = System.nanoTime();
+			SectionInflater sections = SectionInflater.create(file);
+			while (sections.next() != null) ;
+			long parallel = System.nanoTime() - start;
+			if (pass == 1) {
+				System.out.println("Inflating " + NUM_SECTIONS + " sections of " + SECTION_SIZE + " bytes: "
+						+ parallel / 1000 + " us, sequential " + sequential / 1000 + " us");
+			}
+		}
+	}
+
+	/** Sections of compressible data, like vertex arrays and images */
+	private static byte[][] randomContents(Random random, int count, int size) {
+		byte[][] contents = new byte[count][size];
+		for (byte[] content : contents) {
+			for (int i = 0; i < size; i++) {
+				content[i] = (byte) (random.nextInt(16) + (i & 0x30));
+			}
+		}
+		return contents;
+	}
+
+	private static byte[] createFile(byte[][] contents, boolean compress) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		out.write(Loader.M3G_FILE_IDENTIFIER, 0, Loader.M3G_FILE_IDENTIFIER.length);
+		// header object: type, length, version, external links, file size, content size, authoring field
+		byte[] header = new byte[1 + 4 + 2 + 1 + 4 + 4 + 1];
+		putInt(header, 1, header.length - 5);
+		header[5] = 1;
+		writeSection(out, header, false);
+		for (byte[] content : contents) {
+			writeSection(out, content, compress);
+		}
+		byte[] file = out.toByteArray();
+		int pos = Loader.M3G_FILE_IDENTIFIER.length;
+		putInt(file, pos + 17, file.length);
+		int length = getInt(file, pos + 1);
+		putInt(file, pos + length - 4, checksum(file, pos, length - 4));
+		return file;
+	}
+
+	private static void writeSection(ByteArrayOutputStream out, byte[] content, boolean compress) {
+		byte[] data = content;
+		if (compress) {
+			Deflater deflater = new Deflater();
+			deflater.setInput(content);
+			deflater.finish();
+			byte[] buffer = new byte[content.length + 64];
+			int n = deflater.deflate(buffer);
+			deflater.end();
+			data = new byte[n];
+			System.arraycopy(buffer, 0, data, 0, n);
+		}
+		byte[] section = new byte[9 + data.length + 4];
+		section[0] = (byte) (compress ? 1 : 0);
+		putInt(section, 1, section.length);
+		putInt(section, 5, content.length);
+		System.arraycopy(data, 0, section, 9, data.length);
+		putInt(section, section.length - 4, checksum(section, 0, section.length - 4));
+		out.write(section, 0, section.length);
+	}
+
+	private static void inflateSequentially(byte[] file) throws IOException {
+		int pos = Loader.M3G_FILE_IDENTIFIER.length;
+		while (pos < file.length) {
+			int length = getInt(file, pos + 1);
+			byte[] section = new byte[getInt(file, pos + 5)];
+			if (file[pos] == 1) {
+				Inflater inflater = new Inflater();
+				inflater.setInput(file, pos + 9, length - 13);
+				try {
+					inflater.inflate(section);
+				} catch (Exception e) {
+					throw new IOException(e);
+				}
+				inflater.end();
+			}
+			pos += length;
+		}
+	}
+
+	private static int checksum(byte[] data, int pos, int length) {
+		Adler32 adler = new Adler32();
+		adler.update(data, pos, length);
+		return (int) adler.getValue();
+	}
+
+	private static int getInt(byte[] data, int pos) {
+		return (data[pos] & 0xff) | (data[pos + 1] & 0xff) << 8
+				| (data[pos + 2] & 0xff) << 16 | (data[pos + 3] & 0xff) << 24;
+	}
+
+	private static void putInt(byte[] data, int pos, int value) {
+		data[pos] = (byte) value;
+		data[pos + 1] = (byte) (value >> 8);
+		data[pos + 2] = (byte) (value >> 16);
+		data[pos + 3] = (byte) (value >> 24);
+	}
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2026 Yury Kharchenko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package javax.microedition.media;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import javax.microedition.util.Benchmark;
+
+public class MMFConverterTest {
+
+	@Test
+	public void convertNotes() throws Exception {
+		byte[] mmf = mmf(new byte[]{
+				0x00, (byte) 0x90, 60, 100, 10, // note with velocity, channel 0
+				0x05, (byte) 0x81, 62, 20, // note with the default velocity, channel 1
+				0x20, (byte) 0xFF, 0x2F, 0x00 // EOS
+		});
+		byte[] track = {
+				0x00, (byte) 0xFF, 0x51, 0x03, 0x1D, 0x4C, 0x00,
+				0x00, (byte) 0x90, 60, 100,
+				0x05, (byte) 0x91, 62, 64,
+				0x05, (byte) 0x80, 60, 0,
+				0x0F, (byte) 0x81, 62, 0,
+				0x0C, (byte) 0xFF, 0x2F, 0x00
+		};
+		byte[] midi = new MMFConverter().convertToMDI(mmf);
+		assertArrayEquals(new byte[]{'M', 'T', 'h', 'd', 0, 0, 0, 6, 0, 1, 0, 1, 0x01, (byte) 0xE0},
+				Arrays.copyOf(midi, 14));
+		assertArrayEquals(new byte[]{'M', 'T', 'r', 'k', 0, 0, 0, (byte) track.length},
+				Arrays.copyOfRange(midi, 14, 22));
+		assertArrayEquals(track, Arrays.copyOfRange(midi, 22, midi.length));
+	}
+
+	@Test
+	public void cachedByContent() throws Exception {
+		byte[] mmf = randomMmf(new Random(7));
+		byte[] midi = MMFConverter.convert(mmf);
+		assertSame(midi, MMFConverter.convert(mmf.clone()));
+		assertArrayEquals(new MMFConverter().convertToMDI(mmf), midi);
+	}
+
+	@Test
+	@Category(Benchmark.class)
+	public void benchmark() throws Exception {
+		Random random = new Random(1);
+		byte[][] corpus = new byte[100][];
+		for (int i = 0; i < corpus.length; i++) {
+			corpus[i] = randomMmf(random);
+		}
+		MMFConverter converter = new MMFConverter();
+		int size = 0;
+		for (byte[] mmf : corpus) {
+			size += converter.convertToMDI(mmf).length; // warm up
+		}
+		final int rounds = 20;
+		long start = System.nanoTime();
+		for (int i = 0; i < rounds; i++) {
+			for (byte[] mmf : corpus) {
+				converter.convertToMDI(mmf);
+			}
+		}
+		long time = System.nanoTime() - start;
+		System.out.println("MMFConverter: " + time / rounds / corpus.length / 1000 + " us/file, " +
+				size / corpus.length + " bytes/file");
+	}
+
+	private static byte[] randomMmf(Random random) throws IOException {
+		ByteArrayOutputStream sequence = new ByteArrayOutputStream();
+		int events = 100 + random.nextInt(400);
+		for (int i = 0; i < events; i++) {
+			sequence.write(random.nextInt(100));
+			int channel = random.nextInt(16);
+			switch (random.nextInt(4)) {
+				case 0 -> {
+					sequence.write(0x80 | channel);
+					sequence.write(random.nextInt(128));
+					sequence.write(random.nextInt(128));
+				}
+				case 1 -> {
+					sequence.write(0x90 | channel);
+					sequence.write(random.nextInt(128));
+					sequence.write(random.nextInt(128));
+					sequence.write(random.nextInt(128));
+				}
+				case 2 -> {
+					sequence.write(0xC0 | channel);
+					sequence.write(random.nextInt(128));
+				}
+				default -> {
+					sequence.write(0xB0 | channel);
+					sequence.write(7);
+					sequence.write(random.nextInt(128));
+				}
+			}
+		}
+		sequence.write(new byte[]{0x7F, (byte) 0xFF, 0x2F, 0x00});
+		return mmf(sequence.toByteArray());
+	}
+
+	private static byte[] mmf(byte[] sequence) throws IOException {
+		ByteArrayOutputStream track = new ByteArrayOutputStream();
+		DataOutputStream dos = new DataOutputStream(track);
+		dos.write(new byte[]{MMFConverter.FORMAT_TYPE_MOBILE_STANDARD_NO_COMPRESS, 0x00, 0x02, 0x02});
+		dos.write(new byte[16]); // channel status
+		dos.write("Mtsq".getBytes());
+		dos.writeInt(sequence.length);
+		dos.write(sequence);
+
+		ByteArrayOutputStream file = new ByteArrayOutputStream();
+		dos = new DataOutputStream(file);
+		dos.write("MMMD".getBytes());
+		dos.writeInt(0);
+		dos.write("CNTI".getBytes());
+		dos.writeInt(5);
+		dos.write(new byte[5]);
+		dos.write("MTR".getBytes());
+		dos.write(0);
+		dos.writeInt(track.size());
+		dos.write(track.toByteArray());
+		return file.toByteArray();
+	}
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2026 Yury Kharchenko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package javax.microedition.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.IdentityHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class ObjectPoolTest {
+
+	@Test
+	public void acquireAndRelease() {
+		ObjectPool<Object> pool = new ObjectPool<>(4);
+		assertNull(pool.acquire());
+		Object first = new Object();
+		Object second = new Object();
+		assertTrue(pool.release(first));
+		assertTrue(pool.release(second));
+		assertEquals(2, pool.size());
+		assertSame(first, pool.acquire());
+		assertSame(second, pool.acquire());
+		assertNull(pool.acquire());
+		assertEquals(0, pool.size());
+		assertEquals(2, pool.getHits());
+		assertEquals(2, pool.getMisses());
+		assertEquals(0.5f, pool.getHitRate(), 0);
+	}
+
+	@Test
+	public void capacityOverflow() {
+		ObjectPool<Object> pool = new ObjectPool<>(5);
+		// the capacity is rounded up to a power of two
+		assertEquals(8, pool.getCapacity());
+		for (int round = 0; round < 3; round++) {
+			for (int i = 0; i < 8; i++) {
+				assertTrue(pool.release(new Object()));
+			}
+			assertFalse(pool.release(new Object()));
+			assertEquals(round + 1, pool.getDrops());
+			assertEquals(8, pool.size());
+			for (int i = 0; i < 8; i++) {
+				assertNotNull(pool.acquire());
+			}
+			assertNull(pool.acquire());
+		}
+	}
+
+	@Test
+	public void concurrentUse() throws InterruptedException {
+		final int threads = 4;
+		final int objects = 6;
+		ObjectPool<Object> pool = new ObjectPool<>(16);
+		for (int i = 0; i < threads * objects; i++) {
+			pool.release(new Object());
+		}
+		IdentityHashMap<Object, Boolean> taken = new IdentityHashMap<>();
+		AtomicBoolean failed = new AtomicBoolean();
+		Thread[] workers = new Thread[threads];
+		for (int t = 0; t < threads; t++) {
+			workers[t] = new Thread(() -> {
+				Object[] held = new Object[objects];
+				for (int round = 0; round < 20000; round++) {
+					for (int i = 0; i < objects; i++) {
+						Object obj = pool.acquire();
+						held[i] = obj == null ? new Object() : obj;
+						if (obj != null) {
+							synchronized (taken) {
+								// an object is never handed out twice
+								if (taken.put(obj, Boolean.TRUE) != null) {
+									failed.set(true);
+								}
+							}
+						}
+					}
+					for (int i = 0; i < objects; i++) {
+						synchronized (taken) {
+							taken.remove(held[i]);
+						}
+						pool.release(held[i]);
+					}
+				}
+			});
+			workers[t].start();
+		}
+		for (Thread worker : workers) {
+			worker.join();
+		}
+		assertFalse(failed.get());
+		// every acquire is counted once, from whichever thread
+		assertEquals(threads * objects * 20000L, pool.getHits() + pool.getMisses());
+
+		// the slots are consistent after the concurrent use
+		while (pool.release(new Object())) ;
+		assertEquals(16, pool.size());
+		for (int i = 0; i < 16; i++) {
+			assertNotNull(pool.acquire());
+		}
+		assertNull(pool.acquire());
+	}
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2026 Yury Kharchenko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.woesss.j2me.micro3d;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.Random;
+
+import javax.microedition.util.Benchmark;
+
+public class ActionTest {
+
+	@Test
+	public void keyframeLookup() {
+		Random random = new Random(3);
+		int[] keys = {0, 2, 2, 5, 9, 14, 20};
+		Action.Animation animation = new Action.Animation(keys.length);
+		Action.RollAnim roll = new Action.RollAnim(keys.length);
+		float[][] values = new float[keys.length][3];
+		float[] rolls = new float[keys.length];
+		for (int i = 0; i < keys.length; i++) {
+			values[i] = new float[]{random.nextFloat(), random.nextFloat(), random.nextFloat()};
+			rolls[i] = random.nextFloat();
+			animation.set(i, keys[i], values[i][0], values[i][1], values[i][2]);
+			roll.set(i, keys[i], rolls[i]);
+		}
+		float[] expected = new float[3];
+		float[] actual = new float[3];
+		// forward playback, then random seeks
+		for (int i = 0; i < 200; i++) {
+			float kgf = i < 100 ? i * 0.25f : random.nextFloat() * 24;
+			scan(keys, values, kgf, expected);
+			animation.get(kgf, actual);
+			assertArrayEquals(expected, actual, 0.0f);
+			assertEquals(scan(keys, rolls, kgf), roll.get(kgf), 0.0f);
+		}
+	}
+
+	@Test
+	@Category(Benchmark.class)
+	public void benchmark() {
+		Random random = new Random(1);
+		Action[] actions = new Action[8];
+		for (int i = 0; i < actions.length; i++) {
+			actions[i] = createAction(random, 30, 60, 12);
+		}
+		final int rounds = 200;
+		final int step = 65536 / 2; // half a keyframe per rendered frame
+		long start = System.nanoTime();
+		for (int i = 0; i < rounds; i++) {
+			for (Action action : actions) {
+				for (int frame = 0; frame < action.keyframes << 16; frame += step) {
+					for (Action.Bone bone : action.boneActions) {
+						bone.setFrame(frame);
+					}
+				}
+			}
+		}
+		long time = System.nanoTime() - start;
+		long frames = (long) rounds * actions.length * 60 * 2;
+		System.out.println("Action.Bone: " + time / frames + " ns per 30-bone posture");
+	}
+
+	private static Action createAction(Random random, int numBones, int keyframes, int keys) {
+		Action action = new Action(keyframes, numBones);
+		for (int i = 0; i < numBones; i++) {
+			Action.Bone bone = new Action.Bone(2, i * 12, action.matrices);
+			bone.translate = createAnimation(random, keyframes, keys);
+			bone.rotate = createAnimation(random, keyframes, keys);
+			bone.scale = createAnimation(random, keyframes, 2);
+			bone.roll = new Action.RollAnim(keys);
+			for (int k = 0; k < keys; k++) {
+				bone.roll.set(k, k * keyframes / (keys - 1), random.nextFloat());
+			}
+			action.boneActions[i] = bone;
+		}
+		return action;
+	}
+
+	private static Action.Animation createAnimation(Random random, int keyframes, int keys) {
+		Action.Animation animation = new Action.Animation(keys);
+		for (int k = 0; k < keys; k++) {
+			animation.set(k, k * keyframes / (keys - 1),
+					random.nextFloat(), random.nextFloat(), random.nextFloat() + 0.5f);
+		}
+		return animation;
+	}
+
+	/** Reference lookup by a linear scan from the end */
+	private static void scan(int[] keys, float[][] values, float kgf, float[] out) {
+		int max = keys.length - 1;
+		if (kgf >= keys[max]) {
+			System.arraycopy(values[max], 0, out, 0, 3);
+			return;
+		}
+		for (int i = max - 1; i >= 0; i--) {
+			if (keys[i] <= kgf) {
+				float delta = (kgf - keys[i]) / (keys[i + 1] - keys[i]);
+				for (int j = 0; j < 3; j++) {
+					out[j] = values[i][j] + (values[i + 1][j] - values[i][j]) * delta;
+				}
+				return;
+			}
+		}
+	}
+
+	private static float scan(int[] keys, float[] values, float kgf) {
+		int max = keys.length - 1;
+		if (kgf >= keys[max]) {
+			return values[max];
+		}
+		for (int i = max - 1; i >= 0; i--) {
+			if (keys[i] <= kgf) {
+				return values[i] + (values[i + 1] - values[i]) / (keys[i + 1] - keys[i]) * (kgf - keys[i]);
+			}
+		}
+		return 0;
+	}
+}
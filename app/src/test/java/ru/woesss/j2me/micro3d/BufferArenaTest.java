@@ -0,0 +1,78 @@
+/*
+ * Copyright 2026 Yury Kharchenko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.woesss.j2me.micro3d;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
+public class BufferArenaTest {
+
+	@Test
+	public void slices() {
+		BufferArena arena = new BufferArena();
+		ByteBuffer colors = arena.allocBytes(3);
+		FloatBuffer vertices = arena.allocFloats(9);
+		ByteBuffer texCoords = arena.allocBytes(6);
+		assertEquals(3, colors.capacity());
+		assertEquals(9, vertices.capacity());
+		assertEquals(6, texCoords.capacity());
+		assertTrue(colors.isDirect());
+		assertEquals(ByteOrder.nativeOrder(), colors.order());
+		assertEquals(ByteOrder.nativeOrder(), vertices.order());
+
+		colors.put((byte) 1).put((byte) 2).put((byte) 3);
+		for (int i = 0; i < 9; i++) {
+			vertices.put(i + 0.5f);
+		}
+		texCoords.put(new byte[]{9, 9, 9, 9, 9, 9});
+		assertEquals(3, colors.get(2));
+		for (int i = 0; i < 9; i++) {
+			assertEquals(i + 0.5f, vertices.get(i), 0.0f);
+		}
+		// slices are aligned to 4 bytes
+		assertEquals(4 + 36 + 8, arena.getHighWater());
+	}
+
+	@Test
+	public void growth() {
+		BufferArena arena = new BufferArena();
+		int capacity = arena.getCapacity();
+		FloatBuffer first = arena.allocFloats(capacity / 8);
+		first.put(0, 42);
+		// does not fit in the rest of the chunk
+		FloatBuffer second = arena.allocFloats(capacity / 4);
+		second.put(0, 7);
+		assertEquals(42, first.get(0), 0.0f);
+		assertEquals(capacity / 2 + capacity, arena.getHighWater());
+
+		assertTrue(arena.reset());
+		assertTrue(arena.getCapacity() >= arena.getHighWater());
+		// the next frame of the same size fits in the chunk
+		int grown = arena.getCapacity();
+		arena.allocFloats(capacity / 8);
+		arena.allocFloats(capacity / 4);
+		assertFalse(arena.reset());
+		assertEquals(grown, arena.getCapacity());
+	}
+}
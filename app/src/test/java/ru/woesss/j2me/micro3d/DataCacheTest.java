@@ -0,0 +1,87 @@
+/*
+ * Copyright 2026 Yury Kharchenko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.woesss.j2me.micro3d;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+public class DataCacheTest {
+
+	@Test
+	public void contentKey() {
+		DataCache.clear();
+		byte[] data = new byte[1000];
+		new Random(7).nextBytes(data);
+		TextureData texture = new TextureData(16, 16);
+		DataCache.put(data, 100, 500, texture);
+
+		byte[] other = new byte[600];
+		System.arraycopy(data, 100, other, 50, 500);
+		assertSame(texture, DataCache.get(TextureData.class, other, 50, 500));
+		assertNull(DataCache.get(Model.class, other, 50, 500));
+		assertNull(DataCache.get(TextureData.class, other, 50, 499));
+
+		// the cache holds its own copy of the source
+		data[300]++;
+		assertSame(texture, DataCache.get(TextureData.class, other, 50, 500));
+		other[549]++;
+		assertNull(DataCache.get(TextureData.class, other, 50, 500));
+	}
+
+	@Test
+	public void eviction() {
+		DataCache.clear();
+		int count = (int) (DataCache.MAX_SIZE / (256 * 256 * 4)) + 4;
+		byte[][] sources = new byte[count][];
+		for (int i = 0; i < count; i++) {
+			sources[i] = new byte[]{'B', 'M', (byte) i, (byte) (i >> 8)};
+			DataCache.put(sources[i], 0, 4, new TextureData(256, 256));
+			// keep the first one recently used
+			assertNotNull(DataCache.get(TextureData.class, sources[0], 0, 4));
+		}
+		assertNotNull(DataCache.get(TextureData.class, sources[count - 1], 0, 4));
+		assertNull(DataCache.get(TextureData.class, sources[1], 0, 4));
+	}
+
+	@Test
+	public void modelCopy() {
+		Model model = new Model(4, 1, 1, 1, 1, 0, 0, 0);
+		for (int i = 0; i < 12; i++) {
+			model.vertices.put(i, i);
+		}
+		model.indices[1] = 3;
+		Model copy = new Model(model);
+		assertSame(model.originalVertices, copy.originalVertices);
+		assertSame(model.polygonsT, copy.polygonsT);
+		assertNotSame(model.vertices, copy.vertices);
+		assertNotSame(model.indices, copy.indices);
+		assertEquals(3, copy.indices[1]);
+		assertEquals(model.vertices.capacity(), copy.vertices.capacity());
+		for (int i = 0; i < model.vertices.capacity(); i++) {
+			assertEquals(model.vertices.get(i), copy.vertices.get(i), 0.0f);
+		}
+		copy.vertices.put(0, -1);
+		assertEquals(0, model.vertices.get(0), 0.0f);
+	}
+}
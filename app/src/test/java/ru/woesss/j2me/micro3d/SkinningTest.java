@@ -0,0 +1,199 @@
+/*
+ * Copyright 2026 Yury Kharchenko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.woesss.j2me.micro3d;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.util.Random;
+
+import javax.microedition.util.Benchmark;
+
+public class SkinningTest {
+	private static final int NUM_BONES = 30;
+	private static final int NUM_VERTICES = 900;
+
+	@Test
+	public void transform() {
+		Random random = new Random(5);
+		Model model = createModel(random);
+		float[] actions = randomMatrices(random, NUM_BONES - 2);
+		FloatBuffer expectedVertices = BufferUtils.createFloatBuffer(model.vertices.capacity());
+		FloatBuffer expectedNormals = BufferUtils.createFloatBuffer(model.normals.capacity());
+		transformReference(model.originalVertices, expectedVertices,
+				model.originalNormals, expectedNormals, model.bones, actions);
+		// the scratch matrices of a previous posture do not leak into the next one
+		Skinning.transform(model.originalVertices, model.vertices, model.originalNormals, model.normals,
+				model.bones, randomMatrices(random, NUM_BONES), model.boneTransforms);
+		Skinning.transform(model.originalVertices, model.vertices,
+				model.originalNormals, model.normals, model.bones, actions, model.boneTransforms);
+		for (int i = 0; i < NUM_VERTICES * 3; i++) {
+			assertEquals(expectedVertices.get(i), model.vertices.get(i), 0.0f);
+			assertEquals(expectedNormals.get(i), model.normals.get(i), 0.0f);
+		}
+		// the sentinel vertex after the model is kept
+		assertEquals(Float.POSITIVE_INFINITY, model.vertices.get(NUM_VERTICES * 3 + 2), 0.0f);
+		assertEquals(0, model.bones.position());
+	}
+
+	@Test
+	public void fillBuffer() {
+		Random random = new Random(6);
+		Model model = createModel(random);
+		Skinning.transform(model.originalVertices, model.vertices,
+				model.originalNormals, model.normals, model.bones, null, model.boneTransforms);
+		FloatBuffer buffer = BufferUtils.createFloatBuffer(model.vertexArrayCapacity);
+		Skinning.fillBuffer(buffer, model.vertices, model.indices);
+		for (int i = 0; i < model.indices.length; i++) {
+			for (int j = 0; j < 3; j++) {
+				assertEquals(model.vertices.get(model.indices[i] * 3 + j), buffer.get(i * 3 + j), 0.0f);
+			}
+		}
+	}
+
+	@Test
+	@Category(Benchmark.class)
+	public void benchmark() {
+		Random random = new Random(1);
+		Model model = createModel(random);
+		float[][] postures = new float[16][];
+		for (int i = 0; i < postures.length; i++) {
+			postures[i] = randomMatrices(random, NUM_BONES);
+		}
+		FloatBuffer vertexArray = BufferUtils.createFloatBuffer(model.vertexArrayCapacity);
+		FloatBuffer normalsArray = BufferUtils.createFloatBuffer(model.vertexArrayCapacity);
+		final int rounds = 2000;
+		for (int pass = 0; pass < 2; pass++) {
+			// the first pass warms up both implementations
+			long start = System.nanoTime();
+			for (int i = 0; i < rounds; i++) {
+				transformReference(model.originalVertices, model.vertices,
+						model.originalNormals, model.normals, model.bones, postures[i & 15]);
+			}
+			long reference = (System.nanoTime() - start) / rounds;
+			start = System.nanoTime();
+			for (int i = 0; i < rounds; i++) {
+				Skinning.transform(model.originalVertices, model.vertices, model.originalNormals,
+						model.normals, model.bones, postures[i & 15], model.boneTransforms);
+			}
+			long transform = (System.nanoTime() - start) / rounds;
+			start = System.nanoTime();
+			for (int i = 0; i < rounds; i++) {
+				Skinning.fillBuffer(vertexArray, model.vertices, model.indices);
+				Skinning.fillBuffer(normalsArray, model.normals, model.indices);
+			}
+			long fill = (System.nanoTime() - start) / rounds;
+			if (pass == 1) {
+				System.out.println("Skinning: " + NUM_VERTICES + " vertices, " + NUM_BONES + " bones: transform "
+						+ transform + " ns (scalar reference " + reference + " ns), fillBuffer " + fill + " ns");
+			}
+		}
+	}
+
+	/** Model with the bone chain and triangles of a typical character figure */
+	private static Model createModel(Random random) {
+		int numTriangles = NUM_VERTICES * 2;
+		Model model = new Model(NUM_VERTICES, NUM_BONES, 1, 1, numTriangles, 0, 0, 0);
+		model.originalNormals = BufferUtils.createFloatBuffer(NUM_VERTICES * 3);
+		model.normals = BufferUtils.createFloatBuffer(NUM_VERTICES * 3 + 3);
+		for (int i = 0; i < NUM_VERTICES * 3; i++) {
+			model.originalVertices.put(i, random.nextInt(2048) - 1024);
+			model.originalNormals.put(i, random.nextFloat() * 2 - 1);
+		}
+		ByteBuffer bones = model.bones;
+		float[] matrices = randomMatrices(random, NUM_BONES);
+		for (int i = 0; i < NUM_BONES; i++) {
+			bones.putInt(NUM_VERTICES / NUM_BONES);
+			bones.putInt(i == 0 ? -1 : random.nextInt(i));
+			for (int j = 0; j < 12; j++) {
+				bones.putFloat(matrices[i * 12 + j]);
+			}
+		}
+		bones.rewind();
+		for (int i = 0; i < model.indices.length; i++) {
+			model.indices[i] = random.nextInt(NUM_VERTICES);
+		}
+		return model;
+	}
+
+	private static float[] randomMatrices(Random random, int count) {
+		float[] matrices = new float[count * 12];
+		for (int i = 0; i < matrices.length; i++) {
+			matrices[i] = (i & 3) == 3 ? random.nextInt(256) - 128 : random.nextFloat() * 2 - 1;
+		}
+		return matrices;
+	}
+
+	/** Straight port of the native implementation */
+	private static void transformReference(FloatBuffer srcVertices, FloatBuffer dstVertices,
+										   FloatBuffer srcNormals, FloatBuffer dstNormals,
+										   ByteBuffer bones, float[] actions) {
+		bones = bones.duplicate().order(bones.order());
+		int bonesLen = bones.capacity() / 56;
+		int actionsLen = actions == null ? 0 : actions.length / 12;
+		float[][] tmp = new float[bonesLen][12];
+		int v = 0;
+		for (int i = 0; i < bonesLen; i++) {
+			int length = bones.getInt();
+			int parent = bones.getInt();
+			float[] bone = new float[12];
+			for (int j = 0; j < 12; j++) {
+				bone[j] = bones.getFloat();
+			}
+			float[] matrix = tmp[i];
+			if (parent == -1) {
+				matrix = tmp[i] = bone;
+			} else {
+				multiply(matrix, tmp[parent], bone);
+			}
+			if (i < actionsLen) {
+				float[] action = new float[12];
+				System.arraycopy(actions, i * 12, action, 0, 12);
+				multiply(matrix, matrix.clone(), action);
+			}
+			for (int j = 0; j < length; j++, v += 3) {
+				for (int k = 0; k < 3; k++) {
+					float x = srcVertices.get(v);
+					float y = srcVertices.get(v + 1);
+					float z = srcVertices.get(v + 2);
+					dstVertices.put(v + k, x * matrix[k * 4] + y * matrix[k * 4 + 1]
+							+ z * matrix[k * 4 + 2] + matrix[k * 4 + 3]);
+					x = srcNormals.get(v);
+					y = srcNormals.get(v + 1);
+					z = srcNormals.get(v + 2);
+					dstNormals.put(v + k, x * matrix[k * 4] + y * matrix[k * 4 + 1] + z * matrix[k * 4 + 2]);
+				}
+			}
+		}
+	}
+
+	private static void multiply(float[] dst, float[] l, float[] r) {
+		for (int row = 0; row < 3; row++) {
+			for (int col = 0; col < 4; col++) {
+				float value = l[row * 4] * r[col] + l[row * 4 + 1] * r[4 + col] + l[row * 4 + 2] * r[8 + col];
+				if (col == 3) {
+					value += l[row * 4 + 3];
+				}
+				dst[row * 4 + col] = value;
+			}
+		}
+	}
+}
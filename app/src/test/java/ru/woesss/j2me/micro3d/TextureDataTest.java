@@ -0,0 +1,157 @@
+/*
+ * Copyright 2026 Yury Kharchenko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.woesss.j2me.micro3d;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import javax.microedition.util.Benchmark;
+
+public class TextureDataTest {
+
+	@Test
+	public void bmpIndices() throws IOException {
+		int width = 3;
+		int height = 2;
+		byte[] bmp = createBmp(width, height, new Random(1), 5);
+		TextureData data = Loader.loadBmpData(bmp, 5, bmp.length - 5);
+		assertTrue(data.isIndexed());
+		assertEquals(width, data.width);
+		assertEquals(height, data.height);
+		assertEquals(width * height + TextureData.PALETTE_SIZE * 4, data.getSize());
+
+		// the rows are stored bottom-up, each padded to 4 bytes
+		int rasterOffset = 5 + getInt(bmp, 5 + 10);
+		ByteBuffer indices = data.getIndices();
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				assertEquals(bmp[rasterOffset + (height - 1 - y) * 4 + x], indices.get());
+			}
+		}
+
+		// expanded pixels match the palette, the first color is transparent
+		ByteBuffer raster = data.getRaster();
+		indices.rewind();
+		int paletteOffset = 5 + 14 + 40;
+		for (int i = 0; i < width * height; i++) {
+			int idx = indices.get() & 0xff;
+			int p = paletteOffset + idx * 4;
+			assertEquals(bmp[p + 2], raster.get());
+			assertEquals(bmp[p + 1], raster.get());
+			assertEquals(bmp[p], raster.get());
+			assertEquals(idx == 0 ? 0 : -1, raster.get());
+		}
+	}
+
+	@Test
+	public void equalTexturesShareUpload() throws IOException {
+		byte[] bmp = createBmp(16, 8, new Random(2), 0);
+		TextureData first = Loader.loadBmpData(bmp, 0, bmp.length);
+		TextureData second = Loader.loadBmpData(bmp.clone(), 0, bmp.length);
+		bmp[bmp.length - 1]++;
+		TextureData changed = Loader.loadBmpData(bmp, 0, bmp.length);
+		assertTrue(first.sameContent(second));
+		assertFalse(first.sameContent(changed));
+
+		int size = TextureUploads.size();
+		TextureUploads.Upload a = TextureUploads.acquire(first, true);
+		TextureUploads.Upload b = TextureUploads.acquire(second, true);
+		TextureUploads.Upload c = TextureUploads.acquire(changed, true);
+		TextureUploads.Upload rgba = TextureUploads.acquire(second, false);
+		assertSame(a, b);
+		assertNotSame(a, c);
+		assertNotSame(a, rgba);
+		assertEquals(size + 3, TextureUploads.size());
+
+		TextureUploads.release(a);
+		assertEquals(size + 3, TextureUploads.size());
+		TextureUploads.release(b);
+		TextureUploads.release(c);
+		TextureUploads.release(rgba);
+		assertEquals(size, TextureUploads.size());
+	}
+
+	@Test
+	@Category(Benchmark.class)
+	public void benchmark() throws IOException {
+		byte[] bmp = createBmp(256, 256, new Random(3), 0);
+		final int rounds = 50;
+		for (int pass = 0; pass < 2; pass++) {
+			// the first pass warms up both paths
+			long start = System.nanoTime();
+			for (int i = 0; i < rounds; i++) {
+				Loader.loadBmpData(bmp, 0, bmp.length);
+			}
+			long indexed = (System.nanoTime() - start) / rounds;
+			start = System.nanoTime();
+			for (int i = 0; i < rounds; i++) {
+				Loader.loadBmpData(bmp, 0, bmp.length).getRaster();
+			}
+			long expanded = (System.nanoTime() - start) / rounds;
+			if (pass == 1) {
+				System.out.println("Loading 256x256 BMP: indexed " + indexed / 1000
+						+ " us, expanded to RGBA " + expanded / 1000 + " us");
+			}
+		}
+	}
+
+	/**
+	 * Creates an 8-bit bottom-up BMP with a random palette and pixels, placed at the offset in the array
+	 */
+	private static byte[] createBmp(int width, int height, Random random, int offset) {
+		int stride = (width + 3) & ~3;
+		int rasterOffset = 14 + 40 + 256 * 4;
+		byte[] bmp = new byte[offset + rasterOffset + stride * height];
+		random.nextBytes(bmp);
+		int pos = offset;
+		bmp[pos] = 'B';
+		bmp[pos + 1] = 'M';
+		putInt(bmp, pos + 2, bmp.length - offset);
+		putInt(bmp, pos + 10, rasterOffset);
+		putInt(bmp, pos + 14, 40);
+		putInt(bmp, pos + 18, width);
+		putInt(bmp, pos + 22, height);
+		bmp[pos + 26] = 1;
+		bmp[pos + 27] = 0;
+		bmp[pos + 28] = 8;
+		bmp[pos + 29] = 0;
+		putInt(bmp, pos + 30, 0);
+		return bmp;
+	}
+
+	private static int getInt(byte[] data, int pos) {
+		return (data[pos] & 0xff) | (data[pos + 1] & 0xff) << 8
+				| (data[pos + 2] & 0xff) << 16 | (data[pos + 3] & 0xff) << 24;
+	}
+
+	private static void putInt(byte[] data, int pos, int value) {
+		data[pos] = (byte) value;
+		data[pos + 1] = (byte) (value >> 8);
+		data[pos + 2] = (byte) (value >> 16);
+		data[pos + 3] = (byte) (value >> 24);
+	}
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2026 Yury Kharchenko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.woesss.j2me.mmapi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+public class PlayerCallbackDispatcherTest {
+	private static final int PLAYERS = 100;
+	private static final int EVENTS = 50;
+
+	@Test
+	public void keepsOrderPerQueue() throws InterruptedException {
+		CountDownLatch done = new CountDownLatch(PLAYERS * EVENTS);
+		List<List<Integer>> received = new ArrayList<>();
+		List<Executor> queues = new ArrayList<>();
+		for (int p = 0; p < PLAYERS; p++) {
+			received.add(new ArrayList<>());
+			queues.add(PlayerCallbackDispatcher.newQueue());
+		}
+		for (int e = 0; e < EVENTS; e++) {
+			for (int p = 0; p < PLAYERS; p++) {
+				List<Integer> events = received.get(p);
+				int event = e;
+				queues.get(p).execute(() -> {
+					synchronized (events) {
+						events.add(event);
+					}
+					done.countDown();
+				});
+			}
+		}
+		assertTrue(done.await(10, TimeUnit.SECONDS));
+		for (List<Integer> events : received) {
+			synchronized (events) {
+				assertEquals(EVENTS, events.size());
+				for (int e = 0; e < EVENTS; e++) {
+					assertEquals(e, (int) events.get(e));
+				}
+			}
+		}
+		assertTrue(PlayerCallbackDispatcher.getLargestThreadCount() <= PlayerCallbackDispatcher.MAX_THREADS);
+		assertTrue(PlayerCallbackDispatcher.getDispatchedCount() >= PLAYERS * EVENTS);
+	}
+
+	@Test
+	public void blockedQueueDoesNotStallOthers() throws InterruptedException {
+		CountDownLatch release = new CountDownLatch(1);
+		CountDownLatch delivered = new CountDownLatch(1);
+		// one thread of the pool is left for the others
+		int blocked = PlayerCallbackDispatcher.MAX_THREADS - 1;
+		CountDownLatch started = new CountDownLatch(blocked);
+		try {
+			for (int i = 0; i < blocked; i++) {
+				PlayerCallbackDispatcher.newQueue().execute(() -> {
+					started.countDown();
+					awaitQuietly(release);
+				});
+			}
+			assertTrue(started.await(5, TimeUnit.SECONDS));
+			PlayerCallbackDispatcher.newQueue().execute(delivered::countDown);
+			assertTrue(delivered.await(5, TimeUnit.SECONDS));
+		} finally {
+			release.countDown();
+		}
+	}
+
+	@Test
+	public void blockedListenersDoNotGrowPool() throws InterruptedException {
+		CountDownLatch release = new CountDownLatch(1);
+		int blocked = PlayerCallbackDispatcher.MAX_THREADS * 2;
+		CountDownLatch done = new CountDownLatch(blocked + 1);
+		try {
+			for (int i = 0; i < blocked; i++) {
+				PlayerCallbackDispatcher.newQueue().execute(() -> {
+					awaitQuietly(release);
+					done.countDown();
+				});
+			}
+			PlayerCallbackDispatcher.newQueue().execute(done::countDown);
+			// the overflow waits for a free thread instead of starting a new one
+			assertFalse(done.await(200, TimeUnit.MILLISECONDS));
+			assertEquals(PlayerCallbackDispatcher.MAX_THREADS, PlayerCallbackDispatcher.getThreadCount());
+		} finally {
+			release.countDown();
+		}
+		assertTrue(done.await(5, TimeUnit.SECONDS));
+		assertTrue(PlayerCallbackDispatcher.getLargestThreadCount() <= PlayerCallbackDispatcher.MAX_THREADS);
+	}
+
+	private static void awaitQuietly(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException ignored) {
+		}
+	}
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2026 Yury Kharchenko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.woesss.j2me.mmapi.pcm;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+public class WavDecoderTest {
+
+	@Test
+	public void decodePcm16() {
+		byte[] data = wave(1, 2, 8000, 4, 16, new byte[]{
+				0x01, 0x00, (byte) 0xff, (byte) 0xff,
+				0x00, (byte) 0x80, (byte) 0xff, 0x7f
+		});
+		assertTrue(WavDecoder.isSupported(data, data.length));
+		PcmSound sound = WavDecoder.decode(data);
+		assertEquals(2, sound.channels);
+		assertEquals(8000, sound.sampleRate);
+		assertEquals(2, sound.frames);
+		assertArrayEquals(new short[]{1, -1, Short.MIN_VALUE, Short.MAX_VALUE}, sound.samples);
+	}
+
+	@Test
+	public void decodePcm8() {
+		byte[] data = wave(1, 1, 11025, 1, 8, new byte[]{(byte) 0x80, 0x00, (byte) 0xff});
+		PcmSound sound = WavDecoder.decode(data);
+		assertEquals(3, sound.frames);
+		assertArrayEquals(new short[]{0, Short.MIN_VALUE, 0x7f00}, sound.samples);
+	}
+
+	@Test
+	public void decodeImaAdpcm() {
+		// one mono block: predictor 0, step index 0, then 8 nibbles
+		byte[] block = {0, 0, 0, 0, 0x04, 0, 0, 0};
+		byte[] data = wave(0x11, 1, 8000, 8, 4, block);
+		assertTrue(WavDecoder.isSupported(data, data.length));
+		PcmSound sound = WavDecoder.decode(data);
+		assertEquals(9, sound.frames);
+		assertArrayEquals(new short[]{0, 7, 8, 9, 9, 9, 9, 9, 9}, sound.samples);
+	}
+
+	@Test
+	public void decodeShortLastAdpcmBlock() {
+		// a full block of 12 bytes (17 samples), then a block with the header and one group only
+		byte[] blocks = {
+				0, 0, 0, 0, 0x04, 0, 0, 0, 0, 0, 0, 0,
+				0x10, 0, 0, 0, 0x04, 0, 0, 0
+		};
+		byte[] data = wave(0x11, 1, 8000, 12, 4, blocks);
+		PcmSound sound = WavDecoder.decode(data);
+		assertEquals(17 + 9, sound.frames);
+		short[] tail = new short[9];
+		System.arraycopy(sound.samples, 17, tail, 0, 9);
+		assertArrayEquals(new short[]{16, 23, 24, 25, 25, 25, 25, 25, 25}, tail);
+	}
+
+	@Test
+	public void unsupported() {
+		byte[] mp3 = wave(0x55, 2, 44100, 1, 0, new byte[16]);
+		assertFalse(WavDecoder.isSupported(mp3, mp3.length));
+		assertNull(WavDecoder.decode(mp3));
+		byte[] midi = {'M', 'T', 'h', 'd', 0, 0, 0, 6, 0, 0, 0, 1, 0, 0x60};
+		assertFalse(WavDecoder.isSupported(midi, midi.length));
+		assertNull(WavDecoder.decode(midi));
+	}
+
+	private static byte[] wave(int encoding, int channels, int rate, int blockAlign, int bits, byte[] samples) {
+		byte[] list = {'I', 'N', 'F', 'O', 'x'};
+		ByteBuffer buffer = ByteBuffer.allocate(12 + 24 + 8 + list.length + 1 + 8 + samples.length)
+				.order(ByteOrder.LITTLE_ENDIAN);
+		buffer.put(new byte[]{'R', 'I', 'F', 'F'}).putInt(buffer.capacity() - 8);
+		buffer.put(new byte[]{'W', 'A', 'V', 'E'});
+		buffer.put(new byte[]{'f', 'm', 't', ' '}).putInt(16);
+		buffer.putShort((short) encoding).putShort((short) channels);
+		buffer.putInt(rate).putInt(rate * blockAlign);
+		buffer.putShort((short) blockAlign).putShort((short) bits);
+		// odd sized chunk before the data is padded to a word
+		buffer.put(new byte[]{'L', 'I', 'S', 'T'}).putInt(list.length).put(list).put((byte) 0);
+		buffer.put(new byte[]{'d', 'a', 't', 'a'}).putInt(samples.length).put(samples);
+		return buffer.array();
+	}
+}